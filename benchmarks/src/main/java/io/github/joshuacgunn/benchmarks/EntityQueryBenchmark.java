@@ -0,0 +1,81 @@
+package io.github.joshuacgunn.benchmarks;
+
+import io.github.joshuacgunn.core.entity.Enemy;
+import io.github.joshuacgunn.core.entity.Entity;
+import io.github.joshuacgunn.core.entity.NPC;
+import io.github.joshuacgunn.core.entity.Player;
+import io.github.joshuacgunn.core.misc.GameMethods;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Entity#getEntitiesByType(Class)} and the player lookup against the number of registered
+ * entities, for the enemies that make up most of a world, the NPCs of its towns, and the single player.
+ * <p>
+ * The registry is filled with bare enemies and NPCs, nine enemies to every NPC, rather than a generated
+ * world, so it can reach sizes a world would take minutes to generate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityQueryBenchmark {
+
+    /** Number of registered entities */
+    @Param({"1000", "10000", "100000"})
+    public int entities;
+
+    @Setup(Level.Trial)
+    public void fillRegistry() {
+        WorldFixture.reset();
+        new Player("Benchmark", UUID.randomUUID(), Player.PlayerClass.PALADIN, false);
+        for (int i = 1; i < entities; i++) {
+            if (i % 10 == 0) {
+                new NPC("NPC " + i, UUID.randomUUID());
+            } else {
+                new Enemy(Enemy.EnemyType.GOBLIN, UUID.randomUUID(), false);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void clearRegistry() {
+        WorldFixture.reset();
+    }
+
+    @Benchmark
+    public List<Enemy> enemies() {
+        return Entity.getEntitiesByType(Enemy.class);
+    }
+
+    @Benchmark
+    public List<NPC> npcs() {
+        return Entity.getEntitiesByType(NPC.class);
+    }
+
+    @Benchmark
+    public List<Player> players() {
+        return Entity.getEntitiesByType(Player.class);
+    }
+
+    @Benchmark
+    public Player loadedPlayer() {
+        return GameMethods.getLoadedPlayer();
+    }
+
+    /**
+     * An enemy dies and another spawns before the next lookup, so the enemy list cannot be reused as is.
+     */
+    @Benchmark
+    public List<Enemy> enemiesAfterChange() {
+        Enemy enemy = Entity.getEntitiesByType(Enemy.class).getFirst();
+        Entity.entityMap.remove(enemy.getEntityUUID());
+        Entity.entityMap.put(enemy.getEntityUUID(), enemy);
+        return Entity.getEntitiesByType(Enemy.class);
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.joshuacgunn.benchmarks;
+
+import io.github.joshuacgunn.core.entity.Enemy;
+import io.github.joshuacgunn.core.entity.Entity;
+import io.github.joshuacgunn.core.tickmanager.TickManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one tick of the {@link TickManager} with many entities registered, for idle entities and for
+ * entities that each carry a few long status effects, and fast-forwarding a day of game time headlessly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityTickBenchmark {
+
+    /** Number of entities ticked */
+    @Param({"50000"})
+    public int entities;
+
+    /** Number of status effects on each entity */
+    @Param({"0", "2"})
+    public int effects;
+
+    @Setup(Level.Trial)
+    public void createEntities() {
+        WorldFixture.reset();
+        for (int i = 0; i < entities; i++) {
+            Enemy enemy = new Enemy(Enemy.EnemyType.GOBLIN, UUID.randomUUID(), false);
+            for (int effect = 0; effect < effects; effect++) {
+                enemy.addStatusEffect(Entity.StatusEffect.values()[effect], Integer.MAX_VALUE);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void clearEntities() {
+        WorldFixture.reset();
+    }
+
+    @Benchmark
+    public void tick() {
+        TickManager.getInstance().tick();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void advanceDay() {
+        TickManager.getInstance().advance(24 * 60 * 60);
+    }
+}
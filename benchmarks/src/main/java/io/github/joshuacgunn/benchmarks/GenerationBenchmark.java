@@ -0,0 +1,112 @@
+package io.github.joshuacgunn.benchmarks;
+
+import io.github.joshuacgunn.core.container.Chest;
+import io.github.joshuacgunn.core.entity.NPC;
+import io.github.joshuacgunn.core.item.Item;
+import io.github.joshuacgunn.core.location.Dungeon;
+import io.github.joshuacgunn.core.location.DungeonFloor;
+import io.github.joshuacgunn.core.location.Location;
+import io.github.joshuacgunn.core.location.Shop;
+import io.github.joshuacgunn.core.location.Town;
+import io.github.joshuacgunn.core.location.WorldGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long generating new content takes: a dungeon, both as the floor seeds it starts with
+ * and with every floor's enemies and chest generated, a whole town, the shops of a town, the NPCs of a shop, the loot of a chest, and the location
+ * found by an exploration roll, both generated on the spot and taken from the locations generated ahead of
+ * time in the background.
+ * <p>
+ * Each score is an average over many random draws.
+ * Everything generated is cleared between iterations so the registries do not grow from one to the next.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerationBenchmark {
+
+    private Town town;
+    private Shop tavern;
+    private Chest chest;
+
+    @Setup(Level.Iteration)
+    public void loadWorld() {
+        WorldFixture.loadWorld(10, 2);
+        town = new Town(UUID.randomUUID(), false);
+        town.setShopCount(Shop.ShopType.values().length);
+        tavern = new Shop(Shop.ShopType.TAVERN, UUID.randomUUID(), new NPC("Benchmark", UUID.randomUUID()), false, town);
+        // The deepest floor is the hardest, so its chest generates the most loot
+        Dungeon dungeon = new Dungeon(Dungeon.generateDungeonName(), UUID.randomUUID(), true);
+        DungeonFloor floor = dungeon.getFloors().getLast();
+        chest = new Chest(Chest.ChestRarity.EPIC, UUID.randomUUID(), false, floor);
+        WorldGenerator.getInstance().start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearPregenerated() {
+        WorldGenerator.getInstance().clear();
+    }
+
+    @Benchmark
+    public Dungeon generateDungeon() {
+        return new Dungeon(Dungeon.generateDungeonName(), UUID.randomUUID(), true);
+    }
+
+    /**
+     * Rating the dungeon generates all of its floors.
+     */
+    @Benchmark
+    public Dungeon generateDungeonFloors() {
+        Dungeon generated = new Dungeon(Dungeon.generateDungeonName(), UUID.randomUUID(), true);
+        generated.getDifficultyRating();
+        return generated;
+    }
+
+    /**
+     * The town is removed again straight away, so the name it took is free for the next one.
+     */
+    @Benchmark
+    public Town generateTown() {
+        Town generated = new Town(UUID.randomUUID(), true);
+        Location.locationMap.remove(generated.getLocationUUID());
+        return generated;
+    }
+
+    @Benchmark
+    public ArrayList<Shop> generateShops() {
+        return town.generateShops();
+    }
+
+    @Benchmark
+    public List<NPC> generateNpcs() {
+        return tavern.generateNPCs();
+    }
+
+    @Benchmark
+    public List<Item> generateChestItems() {
+        return chest.generateItems();
+    }
+
+    @Benchmark
+    public Location generateLocation() {
+        return Location.generateLocation();
+    }
+
+    /**
+     * Turns the location down, as the player does when they do not want to go there.
+     */
+    @Benchmark
+    public Location takePregeneratedLocation() {
+        WorldGenerator.Candidate candidate = WorldGenerator.getInstance().next();
+        candidate.discard();
+        return candidate.getLocation();
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.joshuacgunn.benchmarks;
+
+import io.github.joshuacgunn.core.entity.Player;
+import io.github.joshuacgunn.core.location.Location;
+import io.github.joshuacgunn.core.save.SaveManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SaveManager#loadState()} against world size.
+ * <p>
+ * {@code startup} covers what the player waits for, which is the player and its location, with
+ * every other dungeon and town left on disk. {@code loadEverything} also touches every location,
+ * which is what each load cost before locations were loaded on demand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadStateBenchmark {
+
+    /** Number of dungeons in the world. A fifth as many towns are generated alongside them, up to 20. */
+    @Param({"10", "50", "200", "400"})
+    public int dungeons;
+
+    @Setup(Level.Trial)
+    public void saveWorld() {
+        Player player = WorldFixture.loadWorld(dungeons, Math.min(20, Math.max(1, dungeons / 5)));
+        SaveManager.saveState(player);
+        SaveManager.awaitPendingSaves();
+    }
+
+    @Benchmark
+    public Player startup() {
+        WorldFixture.reset();
+        return SaveManager.loadState();
+    }
+
+    @Benchmark
+    public int loadEverything() {
+        WorldFixture.reset();
+        SaveManager.loadState();
+        return Location.locationMap.size();
+    }
+}
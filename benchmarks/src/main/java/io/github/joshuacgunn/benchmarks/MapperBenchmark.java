@@ -0,0 +1,101 @@
+package io.github.joshuacgunn.benchmarks;
+
+import io.github.joshuacgunn.core.container.Container;
+import io.github.joshuacgunn.core.entity.Entity;
+import io.github.joshuacgunn.core.entity.Player;
+import io.github.joshuacgunn.core.item.Item;
+import io.github.joshuacgunn.core.location.Dungeon;
+import io.github.joshuacgunn.core.location.Location;
+import io.github.joshuacgunn.core.location.Town;
+import io.github.joshuacgunn.core.mapper.DungeonMapper;
+import io.github.joshuacgunn.core.mapper.EntityMapper;
+import io.github.joshuacgunn.core.mapper.ItemMapper;
+import io.github.joshuacgunn.core.mapper.TownMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a round trip through each mapper, from every object of a kind in the fixture world to
+ * its DTO and back, which is the mapping work of a full save followed by a full load.
+ * <p>
+ * Mapping back registers new objects in place of the originals, so the registries are restored
+ * after every invocation, outside the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    /** Number of dungeons in the world. A fifth as many towns are generated alongside them. */
+    @Param({"50"})
+    public int dungeons;
+
+    private List<Item> items;
+    private List<Entity> entities;
+    private List<Dungeon> dungeonList;
+    private List<Town> towns;
+
+    private Map<UUID, Entity> savedEntities;
+    private Map<UUID, Item> savedItems;
+    private Map<UUID, Location> savedLocations;
+    private Map<UUID, Container> savedContainers;
+
+    @Setup(Level.Trial)
+    public void loadWorld() {
+        Player player = WorldFixture.loadWorld(dungeons, Math.max(1, dungeons / 5));
+        items = new ArrayList<>(Item.itemMap.values());
+        entities = Entity.entityMap.values().stream().filter(entity -> entity != player).toList();
+        dungeonList = Location.getLocationsByType(Dungeon.class);
+        towns = Location.getLocationsByType(Town.class);
+        savedEntities = new HashMap<>(Entity.entityMap);
+        savedItems = new HashMap<>(Item.itemMap);
+        savedLocations = new HashMap<>(Location.locationMap);
+        savedContainers = new HashMap<>(Container.containerMap);
+    }
+
+    @TearDown(Level.Invocation)
+    public void restoreRegistries() {
+        Entity.entityMap.clear();
+        Entity.entityMap.putAll(savedEntities);
+        Item.itemMap.clear();
+        Item.itemMap.putAll(savedItems);
+        Location.locationMap.clear();
+        Location.locationMap.putAll(savedLocations);
+        Container.containerMap.clear();
+        Container.containerMap.putAll(savedContainers);
+    }
+
+    @Benchmark
+    public void itemRoundTrip(Blackhole blackhole) {
+        for (Item item : items) {
+            blackhole.consume(ItemMapper.INSTANCE.itemDtoToItem(ItemMapper.INSTANCE.itemToItemDTO(item)));
+        }
+    }
+
+    @Benchmark
+    public void entityRoundTrip(Blackhole blackhole) {
+        for (Entity entity : entities) {
+            blackhole.consume(EntityMapper.INSTANCE.entityDtoToEntity(EntityMapper.INSTANCE.entityToEntityDTO(entity)));
+        }
+    }
+
+    @Benchmark
+    public void dungeonRoundTrip(Blackhole blackhole) {
+        for (Dungeon dungeon : dungeonList) {
+            blackhole.consume(DungeonMapper.INSTANCE.dungeonDtoToDungeon(DungeonMapper.INSTANCE.dungeonToDungeonDto(dungeon)));
+        }
+    }
+
+    @Benchmark
+    public void townRoundTrip(Blackhole blackhole) {
+        for (Town town : towns) {
+            blackhole.consume(TownMapper.INSTANCE.townDtoToTown(TownMapper.INSTANCE.townToTownDto(town)));
+        }
+    }
+}
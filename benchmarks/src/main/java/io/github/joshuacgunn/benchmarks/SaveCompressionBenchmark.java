@@ -0,0 +1,103 @@
+package io.github.joshuacgunn.benchmarks;
+
+import io.github.joshuacgunn.core.entity.Entity;
+import io.github.joshuacgunn.core.entity.Player;
+import io.github.joshuacgunn.core.item.Item;
+import io.github.joshuacgunn.core.location.Dungeon;
+import io.github.joshuacgunn.core.location.Location;
+import io.github.joshuacgunn.core.location.Town;
+import io.github.joshuacgunn.core.mapper.DungeonMapper;
+import io.github.joshuacgunn.core.mapper.EntityMapper;
+import io.github.joshuacgunn.core.mapper.ItemMapper;
+import io.github.joshuacgunn.core.mapper.TownMapper;
+import io.github.joshuacgunn.core.save.Compression;
+import io.github.joshuacgunn.core.save.SaveFormat;
+import io.github.joshuacgunn.core.save.SaveStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long committing a complete save generation takes at each compression level, for a
+ * typical and a huge world. The size of one generation on disk at that level is printed when the
+ * trial starts, so latency can be weighed against bytes written.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveCompressionBenchmark {
+
+    /** Deflate level, where 0 writes the files uncompressed */
+    @Param({"0", "1", "6", "9"})
+    public int level;
+
+    /** Number of dungeons in the world. A fifth as many towns are generated alongside them, up to 20. */
+    @Param({"50", "400"})
+    public int dungeons;
+
+    @Param({"binary"})
+    public String format;
+
+    private SaveFormat saveFormat;
+    private SaveStore store;
+    private Path directory;
+    private final Map<String, Map<UUID, byte[]>> records = new LinkedHashMap<>();
+    private byte[] playerRecord;
+
+    @Setup(Level.Trial)
+    public void createGeneration() throws IOException {
+        saveFormat = SaveFormat.forName(format);
+        Player player = WorldFixture.loadWorld(dungeons, Math.min(20, Math.max(1, dungeons / 5)));
+
+        records.clear();
+        Map<UUID, byte[]> items = new LinkedHashMap<>();
+        Item.itemMap.values().forEach(item -> items.put(item.getItemUUID(), saveFormat.encode(ItemMapper.INSTANCE.itemToItemDTO(item))));
+        Map<UUID, byte[]> entities = new LinkedHashMap<>();
+        Entity.entityMap.values().stream()
+            .filter(entity -> entity != player)
+            .forEach(entity -> entities.put(entity.getEntityUUID(), saveFormat.encode(EntityMapper.INSTANCE.entityToEntityDTO(entity))));
+        Map<UUID, byte[]> locations = new LinkedHashMap<>();
+        Location.getLocationsByType(Dungeon.class).forEach(dungeon -> locations.put(dungeon.getLocationUUID(), saveFormat.encode(DungeonMapper.INSTANCE.dungeonToDungeonDto(dungeon))));
+        Location.getLocationsByType(Town.class).forEach(town -> locations.put(town.getLocationUUID(), saveFormat.encode(TownMapper.INSTANCE.townToTownDto(town))));
+        records.put("items_snapshot", items);
+        records.put("entities_snapshot", entities);
+        records.put("locations_snapshot", locations);
+        playerRecord = saveFormat.encode(EntityMapper.INSTANCE.entityToEntityDTO(player));
+
+        directory = Files.createTempDirectory("save-compression");
+        store = new SaveStore(directory, new Compression(level));
+        commitGeneration();
+        long size = 0;
+        try (var paths = Files.walk(directory)) {
+            for (Path path : paths.filter(Files::isRegularFile).toList()) {
+                size += Files.size(path);
+            }
+        }
+        System.out.println();
+        System.out.println(format + " level " + level + ", " + dungeons + " dungeons: " + size + " bytes per generation");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteGenerations() throws IOException {
+        try (var paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void commitGeneration() throws IOException {
+        store.commitGeneration(saveFormat, records, playerRecord, true);
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.joshuacgunn.benchmarks;
+
+import io.github.joshuacgunn.core.entity.Entity;
+import io.github.joshuacgunn.core.item.Item;
+import io.github.joshuacgunn.core.location.Dungeon;
+import io.github.joshuacgunn.core.location.Location;
+import io.github.joshuacgunn.core.location.Town;
+import io.github.joshuacgunn.core.mapper.DungeonMapper;
+import io.github.joshuacgunn.core.mapper.EntityMapper;
+import io.github.joshuacgunn.core.mapper.ItemMapper;
+import io.github.joshuacgunn.core.mapper.TownMapper;
+import io.github.joshuacgunn.core.save.SaveFormat;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the encode and decode throughput of each {@link SaveFormat} over every record of a generated world.
+ * The total encoded size of the world in each format is printed when the trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveFormatBenchmark {
+
+    @Param({"json", "binary"})
+    public String format;
+
+    /** Number of dungeons in the world. A fifth as many towns are generated alongside them. */
+    @Param({"50"})
+    public int dungeons;
+
+    private SaveFormat saveFormat;
+    private final List<Object> dtos = new ArrayList<>();
+    private final List<byte[]> records = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void createRecords() {
+        saveFormat = SaveFormat.forName(format);
+        WorldFixture.loadWorld(dungeons, Math.max(1, dungeons / 5));
+        dtos.clear();
+        Item.itemMap.values().forEach(item -> dtos.add(ItemMapper.INSTANCE.itemToItemDTO(item)));
+        Entity.entityMap.values().forEach(entity -> dtos.add(EntityMapper.INSTANCE.entityToEntityDTO(entity)));
+        Location.getLocationsByType(Dungeon.class).forEach(dungeon -> dtos.add(DungeonMapper.INSTANCE.dungeonToDungeonDto(dungeon)));
+        Location.getLocationsByType(Town.class).forEach(town -> dtos.add(TownMapper.INSTANCE.townToTownDto(town)));
+
+        records.clear();
+        long size = 0;
+        for (Object dto : dtos) {
+            byte[] record = saveFormat.encode(dto);
+            records.add(record);
+            size += record.length;
+        }
+        System.out.println();
+        System.out.println(format + ": " + records.size() + " records, " + size + " bytes");
+    }
+
+    @Benchmark
+    public void encode(Blackhole blackhole) {
+        for (Object dto : dtos) {
+            blackhole.consume(saveFormat.encode(dto));
+        }
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) {
+        for (int i = 0; i < records.size(); i++) {
+            blackhole.consume(saveFormat.decode(records.get(i), dtos.get(i).getClass()));
+        }
+    }
+}
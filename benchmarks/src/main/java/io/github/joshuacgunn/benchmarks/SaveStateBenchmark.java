@@ -0,0 +1,60 @@
+package io.github.joshuacgunn.benchmarks;
+
+import io.github.joshuacgunn.core.entity.Player;
+import io.github.joshuacgunn.core.item.Item;
+import io.github.joshuacgunn.core.save.SaveManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SaveManager#saveState(Player)} against world size.
+ * <p>
+ * {@code fullSave} re-serializes every object, which is what every save cost before dirty tracking.
+ * {@code incrementalSave} models a typical state switch, where only the player and a few items changed.
+ * Each benchmark waits for the background writer, so the score covers both the snapshot and the write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveStateBenchmark {
+
+    /** Number of dungeons in the world. A fifth as many towns are generated alongside them. */
+    @Param({"10", "50", "200", "400"})
+    public int dungeons;
+
+    private Player player;
+    private List<Item> items;
+    private int nextItem;
+
+    @Setup(Level.Trial)
+    public void loadWorld() {
+        player = WorldFixture.loadWorld(dungeons, Math.max(1, dungeons / 5));
+        items = new ArrayList<>(Item.itemMap.values());
+        SaveManager.saveState(player);
+        SaveManager.awaitPendingSaves();
+    }
+
+    @Benchmark
+    public void fullSave() {
+        WorldFixture.markAllDirty();
+        player.setEntityHp(player.getEntityHp() - 1);
+        SaveManager.saveState(player);
+        SaveManager.awaitPendingSaves();
+    }
+
+    @Benchmark
+    public void incrementalSave() {
+        for (int i = 0; i < 5; i++) {
+            items.get(nextItem++ % items.size()).markDirty();
+        }
+        player.setEntityHp(player.getEntityHp() - 1);
+        SaveManager.saveState(player);
+        SaveManager.awaitPendingSaves();
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.joshuacgunn.benchmarks;
+
+import io.github.joshuacgunn.core.tickmanager.TickManager;
+import io.github.joshuacgunn.core.tickmanager.Tickable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a tick in which every tickable has work to do, spread over a number of shards, to show how
+ * the tick engine spreads large ticks across cores. A single shard always runs on one thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TickShardBenchmark {
+
+    /** Number of tickables running every tick */
+    @Param({"50000"})
+    public int tickables;
+
+    /** Number of shards the tickables are spread over, such as locations */
+    @Param({"1", "64", "1024"})
+    public int shards;
+
+    /** Work done by each tickable per tick, in JMH CPU tokens */
+    @Param({"100"})
+    public int work;
+
+    private final List<Tickable> registered = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void register() {
+        WorldFixture.reset();
+        for (int i = 0; i < tickables; i++) {
+            Integer shard = i % shards;
+            Tickable tickable = new Tickable() {
+                @Override
+                public void onTick(long currentTick) {
+                    Blackhole.consumeCPU(work);
+                }
+
+                @Override
+                public Object getTickShard() {
+                    return shard;
+                }
+            };
+            registered.add(tickable);
+            TickManager.getInstance().register(tickable);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void unregister() {
+        registered.forEach(TickManager.getInstance()::unregister);
+        registered.clear();
+    }
+
+    @Benchmark
+    public void tick() {
+        TickManager.getInstance().tick();
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.joshuacgunn.benchmarks;
+
+import io.github.joshuacgunn.core.container.Container;
+import io.github.joshuacgunn.core.dto.*;
+import io.github.joshuacgunn.core.entity.Enemy;
+import io.github.joshuacgunn.core.entity.Entity;
+import io.github.joshuacgunn.core.entity.NPC;
+import io.github.joshuacgunn.core.entity.Player;
+import io.github.joshuacgunn.core.item.Armor;
+import io.github.joshuacgunn.core.item.Item;
+import io.github.joshuacgunn.core.item.Weapon;
+import io.github.joshuacgunn.core.location.Dungeon;
+import io.github.joshuacgunn.core.location.Location;
+import io.github.joshuacgunn.core.location.Town;
+import io.github.joshuacgunn.core.mapper.DungeonMapper;
+import io.github.joshuacgunn.core.mapper.EntityMapper;
+import io.github.joshuacgunn.core.mapper.ItemMapper;
+import io.github.joshuacgunn.core.mapper.TownMapper;
+import io.github.joshuacgunn.core.misc.RngService;
+import io.github.joshuacgunn.core.save.SaveFormat;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds game worlds for the benchmarks.
+ * Every world starts from empty global registries so one fixture never leaks into the next.
+ * <p>
+ * {@link #createWorld(int, int)} generates every world from the same seed, so a size always gives the same
+ * world, but generating a large one takes a while. Benchmarks that do not measure generation use
+ * {@link #loadWorld(int, int)} instead, which generates each world size once and reads it back from a
+ * fixture file on every later trial and run.
+ */
+public final class WorldFixture {
+
+    /** Directory the fixture files are kept in, relative to the working directory */
+    private static final Path FIXTURE_DIRECTORY = Path.of("fixtures");
+
+    /** Bumped whenever the fixture file layout changes, so older files are regenerated */
+    private static final int FIXTURE_VERSION = 1;
+
+    private static final SaveFormat FORMAT = SaveFormat.forName("binary");
+
+    /** The world seed every fixture world is generated from */
+    private static final long WORLD_SEED = 20250101L;
+
+    private WorldFixture() { }
+
+    /**
+     * Clears every global registry.
+     */
+    public static void reset() {
+        Entity.entityMap.clear();
+        Item.itemMap.clear();
+        Location.locationMap.clear();
+        Container.containerMap.clear();
+    }
+
+    /**
+     * Generates a fresh world with a new player standing in the first town.
+     *
+     * @param dungeons The number of dungeons to generate
+     * @param towns The number of towns to generate
+     * @return The player of the generated world
+     */
+    public static Player createWorld(int dungeons, int towns) {
+        reset();
+        RngService.setWorldSeed(WORLD_SEED);
+        Player player = RngService.generate(() -> new Player("Benchmark", RngService.nextUUID(), Player.PlayerClass.PALADIN, true));
+        for (int i = 0; i < dungeons; i++) {
+            RngService.generate(() -> new Dungeon(Dungeon.generateDungeonName(), RngService.nextUUID(), true));
+        }
+        for (int i = 0; i < towns; i++) {
+            Town town = RngService.generate(() -> new Town(RngService.nextUUID(), true));
+            if (player.getCurrentLocation() == null) {
+                player.setCurrentLocation(town);
+            }
+        }
+        return player;
+    }
+
+    /**
+     * Loads the fixture world of a size, which is the same on every call and every run.
+     * The world is generated and written to a fixture file the first time a size is asked for.
+     * Only what a save keeps is restored, so the world matches one loaded from a save.
+     *
+     * @param dungeons The number of dungeons in the world
+     * @param towns The number of towns in the world
+     * @return The player of the world
+     */
+    public static Player loadWorld(int dungeons, int towns) {
+        Path file = FIXTURE_DIRECTORY.resolve("world-" + dungeons + "-" + towns + ".v" + FIXTURE_VERSION + ".bin");
+        try {
+            if (!Files.exists(file)) {
+                writeFixture(createWorld(dungeons, towns), file);
+            }
+            return readFixture(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flags every object in the world as changed, as if it had never been saved.
+     */
+    public static void markAllDirty() {
+        Entity.entityMap.values().forEach(Entity::markDirty);
+        Item.itemMap.values().forEach(Item::markDirty);
+        Location.locationMap.values().forEach(Location::markDirty);
+    }
+
+    /**
+     * Writes every saved object of the world as sections of encoded records, in the order they are linked back.
+     */
+    private static void writeFixture(Player player, Path file) throws IOException {
+        List<List<Object>> sections = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        for (Item item : Item.itemMap.values()) {
+            if (item instanceof Armor || item instanceof Weapon) {
+                sections.get(0).add(ItemMapper.INSTANCE.itemToItemDTO(item));
+            }
+        }
+        for (Entity entity : Entity.entityMap.values()) {
+            if (entity instanceof NPC || (entity instanceof Enemy && entity.isAlive())) {
+                sections.get(1).add(EntityMapper.INSTANCE.entityToEntityDTO(entity));
+            }
+        }
+        Location.getLocationsByType(Dungeon.class).forEach(dungeon -> sections.get(2).add(DungeonMapper.INSTANCE.dungeonToDungeonDto(dungeon)));
+        Location.getLocationsByType(Town.class).forEach(town -> sections.get(3).add(TownMapper.INSTANCE.townToTownDto(town)));
+
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            for (List<Object> section : sections) {
+                out.writeInt(section.size());
+                for (Object dto : section) {
+                    writeRecord(out, FORMAT.encode(dto));
+                }
+            }
+            writeRecord(out, FORMAT.encode(EntityMapper.INSTANCE.entityToEntityDTO(player)));
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Player readFixture(Path file) throws IOException {
+        reset();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            for (int section = 0; section < 4; section++) {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    switch (FORMAT.decode(readRecord(in), Object.class)) {
+                        case ItemDTO item -> ItemMapper.INSTANCE.itemDtoToItem(item);
+                        case EntityDTO entity -> EntityMapper.INSTANCE.entityDtoToEntity(entity);
+                        case DungeonDTO dungeon -> DungeonMapper.INSTANCE.dungeonDtoToDungeon(dungeon);
+                        case TownDTO town -> TownMapper.INSTANCE.townDtoToTown(town);
+                        default -> throw new IOException("Unexpected record in " + file);
+                    }
+                }
+            }
+            return (Player) EntityMapper.INSTANCE.entityDtoToEntity(FORMAT.decode(readRecord(in), PlayerDTO.class));
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, byte[] record) throws IOException {
+        out.writeInt(record.length);
+        out.write(record);
+    }
+
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        byte[] record = new byte[in.readInt()];
+        in.readFully(record);
+        return record;
+    }
+}
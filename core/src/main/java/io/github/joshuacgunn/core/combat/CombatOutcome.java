@@ -0,0 +1,23 @@
+package io.github.joshuacgunn.core.combat;
+
+/**
+ * How a simulated fight ended.
+ *
+ * @param result Who won
+ * @param rounds How many rounds were played
+ * @param playerHp The player's health left
+ * @param enemyHp The enemy's health left
+ */
+public record CombatOutcome(Result result, int rounds, float playerHp, float enemyHp) {
+
+    public enum Result {
+        /** The enemy died */
+        PLAYER_WON,
+        /** The player died */
+        ENEMY_WON,
+        /** The player ran away */
+        FLED,
+        /** Neither side could finish the other within {@link CombatResolver#MAX_ROUNDS} rounds */
+        DRAW
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.joshuacgunn.core.combat;
+
+/**
+ * Decides what the player does at the start of each round of a simulated fight.
+ * Policies are called from many threads at once, so they must not keep state between calls.
+ */
+@FunctionalInterface
+public interface CombatPolicy {
+
+    /** What the player can do in a round */
+    enum Action {
+        /** Attack the enemy, then take its attack */
+        ATTACK,
+        /** Run away, which ends the fight */
+        FLEE
+    }
+
+    /** Fights to the end */
+    CombatPolicy ALWAYS_ATTACK = (round, playerHp, enemyHp) -> Action.ATTACK;
+
+    /**
+     * Picks the player's action for a round.
+     *
+     * @param round The round about to be played, starting at 1
+     * @param playerHp The player's health left
+     * @param enemyHp The enemy's health left
+     * @return The action
+     */
+    Action choose(int round, float playerHp, float enemyHp);
+
+    /**
+     * Fights until the player's health drops below a threshold, then runs.
+     *
+     * @param hp The health below which the player runs
+     * @return The policy
+     */
+    static CombatPolicy fleeBelow(float hp) {
+        return (round, playerHp, enemyHp) -> playerHp < hp ? Action.FLEE : Action.ATTACK;
+    }
+}
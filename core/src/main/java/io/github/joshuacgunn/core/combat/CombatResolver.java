@@ -0,0 +1,79 @@
+package io.github.joshuacgunn.core.combat;
+
+/**
+ * The rules of a fight between the player and an enemy, without any input, output or waiting. The game's
+ * {@code CombatState} plays each round it shows through {@link #playRound(Combatant, Combatant)}, and the
+ * simulations play whole fights with {@link #resolve(Combatant, Combatant, CombatPolicy)}, so both follow
+ * the same rules.
+ * <p>
+ * Each round the player attacks first, then the enemy strikes back, even in the round the player's attack
+ * kills it. A hit deals the attacker's damage. As in {@code Entity.takeDamage}, a side dies when a hit is
+ * larger than the health it has left. If both sides die in the same round, the player loses.
+ */
+public final class CombatResolver {
+    /** Fights that last longer than this are called a draw, such as when neither side can do damage */
+    public static final int MAX_ROUNDS = 1000;
+
+    private CombatResolver() { }
+
+    /**
+     * What happened in one round of a fight.
+     *
+     * @param playerHit The damage the player's attack dealt
+     * @param enemyHit The damage the enemy's attack dealt
+     * @param playerHp The player's health left
+     * @param enemyHp The enemy's health left
+     * @param playerDied Whether the enemy's attack killed the player
+     * @param enemyDied Whether the player's attack killed the enemy
+     */
+    public record Round(float playerHit, float enemyHit, float playerHp, float enemyHp,
+                        boolean playerDied, boolean enemyDied) { }
+
+    /**
+     * Plays a fight to the end.
+     *
+     * @param player The player
+     * @param enemy The enemy
+     * @param policy Decides what the player does each round
+     * @return How the fight ended
+     */
+    public static CombatOutcome resolve(Combatant player, Combatant enemy, CombatPolicy policy) {
+        float playerHp = player.hp();
+        float enemyHp = enemy.hp();
+
+        for (int round = 1; round <= MAX_ROUNDS; round++) {
+            if (policy.choose(round, playerHp, enemyHp) == CombatPolicy.Action.FLEE) {
+                return new CombatOutcome(CombatOutcome.Result.FLED, round - 1, playerHp, enemyHp);
+            }
+            Round played = playRound(player.damage(), enemy.damage(), playerHp, enemyHp);
+            playerHp = played.playerHp();
+            enemyHp = played.enemyHp();
+            if (played.playerDied()) {
+                return new CombatOutcome(CombatOutcome.Result.ENEMY_WON, round, playerHp, enemyHp);
+            }
+            if (played.enemyDied()) {
+                return new CombatOutcome(CombatOutcome.Result.PLAYER_WON, round, playerHp, enemyHp);
+            }
+        }
+        return new CombatOutcome(CombatOutcome.Result.DRAW, MAX_ROUNDS, playerHp, enemyHp);
+    }
+
+    /**
+     * Plays one round between two sides as they are now.
+     *
+     * @param player The player
+     * @param enemy The enemy
+     * @return What happened
+     */
+    public static Round playRound(Combatant player, Combatant enemy) {
+        return playRound(player.damage(), enemy.damage(), player.hp(), enemy.hp());
+    }
+
+    private static Round playRound(float playerHit, float enemyHit, float playerHp, float enemyHp) {
+        boolean enemyDied = playerHit > enemyHp;
+        enemyHp = enemyDied ? 0 : enemyHp - playerHit;
+        boolean playerDied = enemyHit > playerHp;
+        playerHp = playerDied ? 0 : playerHp - enemyHit;
+        return new Round(playerHit, enemyHit, playerHp, enemyHp, playerDied, enemyDied);
+    }
+}
@@ -0,0 +1,295 @@
+package io.github.joshuacgunn.core.combat;
+
+import io.github.joshuacgunn.core.entity.Enemy;
+import io.github.joshuacgunn.core.entity.Entity;
+import io.github.joshuacgunn.core.entity.Player;
+import io.github.joshuacgunn.core.misc.RegistryBatch;
+import io.github.joshuacgunn.core.misc.RngService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Plays simulated fights between every player class and every enemy type, for balancing.
+ * <p>
+ * A set of players of each class and enemies of each type is generated from the seed first, the way the
+ * game generates them, but without adding them to the world. Each fight then pairs a random player of the
+ * class with a random enemy of the type and plays it with {@link CombatResolver}, by the rules the game
+ * plays by, so a fight costs a few
+ * arithmetic operations and millions of them take seconds. The fights of each pairing are split into
+ * chunks that run on a fork-join pool. Each chunk draws from its own random stream, seeded from its place in
+ * the run, so the same seed gives the same results on any number of threads.
+ * <p>
+ * Run it with {@code gradlew core:combatSweep}.
+ */
+public final class CombatSweep {
+    /** How many players of each class and enemies of each type are generated for the fights to pick from */
+    public static final int DEFAULT_VARIANTS = 64;
+
+    /** Fights played by one task before it stops splitting */
+    private static final int FIGHTS_PER_TASK = 8192;
+
+    /** Bosses have no stats of their own yet, so they are left out */
+    private static final Enemy.EnemyType[] ENEMY_TYPES = Arrays.stream(Enemy.EnemyType.values())
+            .filter(type -> type != Enemy.EnemyType.BOSS)
+            .toArray(Enemy.EnemyType[]::new);
+
+    private CombatSweep() { }
+
+    /**
+     * The results of the fights between one player class and one enemy type.
+     */
+    public static final class MatchupStats {
+        private final Player.PlayerClass playerClass;
+        private final Enemy.EnemyType enemyType;
+        private long fights;
+        private long wins;
+        private long losses;
+        private long fled;
+        private long draws;
+
+        /** How many won fights took each number of rounds, indexed by rounds */
+        private final long[] roundsToKill = new long[CombatResolver.MAX_ROUNDS + 1];
+
+        private MatchupStats(Player.PlayerClass playerClass, Enemy.EnemyType enemyType) {
+            this.playerClass = playerClass;
+            this.enemyType = enemyType;
+        }
+
+        private void record(CombatOutcome outcome) {
+            fights++;
+            switch (outcome.result()) {
+                case PLAYER_WON -> {
+                    wins++;
+                    roundsToKill[outcome.rounds()]++;
+                }
+                case ENEMY_WON -> losses++;
+                case FLED -> fled++;
+                case DRAW -> draws++;
+            }
+        }
+
+        private MatchupStats merge(MatchupStats other) {
+            fights += other.fights;
+            wins += other.wins;
+            losses += other.losses;
+            fled += other.fled;
+            draws += other.draws;
+            for (int rounds = 0; rounds < roundsToKill.length; rounds++) {
+                roundsToKill[rounds] += other.roundsToKill[rounds];
+            }
+            return this;
+        }
+
+        public Player.PlayerClass getPlayerClass() {
+            return playerClass;
+        }
+
+        public Enemy.EnemyType getEnemyType() {
+            return enemyType;
+        }
+
+        public long getFights() {
+            return fights;
+        }
+
+        public long getWins() {
+            return wins;
+        }
+
+        public long getLosses() {
+            return losses;
+        }
+
+        public long getFled() {
+            return fled;
+        }
+
+        public long getDraws() {
+            return draws;
+        }
+
+        /**
+         * @return The share of fights the player won, from 0 to 1
+         */
+        public double winRate() {
+            return fights == 0 ? 0 : (double) wins / fights;
+        }
+
+        /**
+         * @return The average number of rounds the player took to kill the enemy, over the fights they won
+         */
+        public double meanRoundsToKill() {
+            if (wins == 0) {
+                return 0;
+            }
+            double total = 0;
+            for (int rounds = 0; rounds < roundsToKill.length; rounds++) {
+                total += (double) rounds * roundsToKill[rounds];
+            }
+            return total / wins;
+        }
+
+        /**
+         * Gets a percentile of the number of rounds the player took to kill the enemy, over the fights they won.
+         *
+         * @param percentile The percentile, from 0 to 100
+         * @return The number of rounds, or 0 if the player never won
+         */
+        public int roundsToKillPercentile(double percentile) {
+            if (wins == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * wins));
+            long seen = 0;
+            for (int rounds = 0; rounds < roundsToKill.length; rounds++) {
+                seen += roundsToKill[rounds];
+                if (seen >= rank) {
+                    return rounds;
+                }
+            }
+            return CombatResolver.MAX_ROUNDS;
+        }
+    }
+
+    /**
+     * Plays fights between every player class and enemy type.
+     *
+     * @param seed The seed the combatants and fights are drawn from
+     * @param fightsPerMatchup How many fights to play for each class and enemy type
+     * @param variants How many players of each class and enemies of each type to generate
+     * @param policy Decides what the players do each round
+     * @param pool The pool to play the fights on
+     * @return The results, by player class and then enemy type
+     */
+    public static List<MatchupStats> run(long seed, long fightsPerMatchup, int variants, CombatPolicy policy, ForkJoinPool pool) {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        Player.PlayerClass[] playerClasses = Player.PlayerClass.values();
+        Combatant[][] players = new Combatant[playerClasses.length][];
+        for (Player.PlayerClass playerClass : playerClasses) {
+            players[playerClass.ordinal()] = generate(variants, seeds.nextLong(),
+                    () -> new Player(playerClass.name(), RngService.nextUUID(), playerClass, true));
+        }
+        Combatant[][] enemies = new Combatant[ENEMY_TYPES.length][];
+        for (int i = 0; i < ENEMY_TYPES.length; i++) {
+            Enemy.EnemyType type = ENEMY_TYPES[i];
+            enemies[i] = generate(variants, seeds.nextLong(), () -> new Enemy(type, RngService.nextUUID(), true));
+        }
+
+        List<Fights> matchups = new ArrayList<>();
+        for (Player.PlayerClass playerClass : playerClasses) {
+            for (int i = 0; i < ENEMY_TYPES.length; i++) {
+                matchups.add(new Fights(playerClass, ENEMY_TYPES[i], players[playerClass.ordinal()], enemies[i],
+                        policy, seeds.nextLong(), 0, fightsPerMatchup));
+            }
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(matchups)));
+        return matchups.stream().map(ForkJoinTask::join).toList();
+    }
+
+    /**
+     * Formats results as a table, one line for each class and enemy type.
+     *
+     * @param results The results of {@link #run}
+     * @return The table
+     */
+    public static String format(List<MatchupStats> results) {
+        StringBuilder table = new StringBuilder(String.format("%-8s %-14s %10s %7s %7s %7s %8s %5s %5s %5s%n",
+                "Class", "Enemy", "Fights", "Win %", "Loss %", "Fled %", "TTK avg", "p50", "p90", "p99"));
+        for (MatchupStats stats : results) {
+            double fights = Math.max(1, stats.getFights());
+            table.append(String.format("%-8s %-14s %10d %7.2f %7.2f %7.2f %8.2f %5d %5d %5d%n",
+                    stats.getPlayerClass(), stats.getEnemyType().getName(), stats.getFights(),
+                    100 * stats.winRate(), 100 * stats.getLosses() / fights, 100 * stats.getFled() / fights,
+                    stats.meanRoundsToKill(), stats.roundsToKillPercentile(50), stats.roundsToKillPercentile(90),
+                    stats.roundsToKillPercentile(99)));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Plays a sweep and prints the results.
+     *
+     * @param args The number of fights for each class and enemy type, default 1,000,000,
+     *             and the seed, default random
+     */
+    public static void main(String[] args) {
+        long fights = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : new SplittableRandom().nextLong();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        long start = System.nanoTime();
+        List<MatchupStats> results = run(seed, fights, DEFAULT_VARIANTS, CombatPolicy.ALWAYS_ATTACK, pool);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        System.out.print(format(results));
+        System.out.println("Played " + fights * results.size() + " fights with seed " + seed + " in " + elapsed
+                + " ms on " + pool.getParallelism() + " threads");
+    }
+
+    /**
+     * Generates combatants from a seed without adding what is generated to the world.
+     */
+    private static Combatant[] generate(int count, long seed, Supplier<? extends Entity> generator) {
+        RegistryBatch discarded = new RegistryBatch();
+        return discarded.collect(() -> RngService.generate(seed, () -> {
+            Combatant[] combatants = new Combatant[count];
+            for (int i = 0; i < count; i++) {
+                combatants[i] = Combatant.of(generator.get());
+            }
+            return combatants;
+        }));
+    }
+
+    /**
+     * Plays a range of the fights of one class and enemy type, splitting it while it is large.
+     */
+    private static final class Fights extends RecursiveTask<MatchupStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final Player.PlayerClass playerClass;
+        private final Enemy.EnemyType enemyType;
+        private final transient Combatant[] players;
+        private final transient Combatant[] enemies;
+        private final transient CombatPolicy policy;
+        private final long seed;
+        private final long from;
+        private final long to;
+
+        private Fights(Player.PlayerClass playerClass, Enemy.EnemyType enemyType, Combatant[] players, Combatant[] enemies,
+                       CombatPolicy policy, long seed, long from, long to) {
+            this.playerClass = playerClass;
+            this.enemyType = enemyType;
+            this.players = players;
+            this.enemies = enemies;
+            this.policy = policy;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected MatchupStats compute() {
+            if (to - from > FIGHTS_PER_TASK) {
+                long middle = (from + to) >>> 1;
+                Fights first = new Fights(playerClass, enemyType, players, enemies, policy, seed, from, middle);
+                Fights second = new Fights(playerClass, enemyType, players, enemies, policy, seed, middle, to);
+                first.fork();
+                return second.compute().merge(first.join());
+            }
+            // Seeded from where the chunk starts, so the split does not depend on which thread runs it
+            SplittableRandom random = new SplittableRandom(RngService.mix(seed + from));
+            MatchupStats stats = new MatchupStats(playerClass, enemyType);
+            for (long fight = from; fight < to; fight++) {
+                Combatant player = players[random.nextInt(players.length)];
+                Combatant enemy = enemies[random.nextInt(enemies.length)];
+                stats.record(CombatResolver.resolve(player, enemy, policy));
+            }
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.joshuacgunn.core.combat;
+
+import io.github.joshuacgunn.core.entity.Entity;
+import io.github.joshuacgunn.core.entity.Player;
+import io.github.joshuacgunn.core.item.Weapon;
+
+/**
+ * The numbers a fight needs about one side, read off a player or an enemy once so that fights can be
+ * resolved without touching the entity again.
+ *
+ * @param name The entity's name
+ * @param hp The entity's health when the fight starts
+ * @param damage The damage of one attack, using {@link Player#calculateWeaponDamage()} for players
+ *               and 0 without a weapon
+ */
+public record Combatant(String name, float hp, float damage) {
+
+    /**
+     * Reads a combatant off an entity as it is now.
+     *
+     * @param entity The player or enemy
+     * @return The combatant
+     */
+    public static Combatant of(Entity entity) {
+        Weapon weapon = entity.getCurrentWeapon();
+        float damage = 0;
+        if (weapon != null) {
+            damage = entity instanceof Player player ? player.calculateWeaponDamage() : weapon.getWeaponDamage();
+        }
+        return new Combatant(entity.getEntityName(), entity.getEntityHp(), damage);
+    }
+
+    /**
+     * @return A copy of this combatant with different health, such as a player who is hurt from an earlier fight
+     */
+    public Combatant withHp(float hp) {
+        return new Combatant(name, hp, damage);
+    }
+}
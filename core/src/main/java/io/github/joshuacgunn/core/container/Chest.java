@@ -4,9 +4,11 @@ import io.github.joshuacgunn.core.item.Armor;
 import io.github.joshuacgunn.core.item.Item;
 import io.github.joshuacgunn.core.item.Weapon;
 import io.github.joshuacgunn.core.location.DungeonFloor;
-import org.reflections.Reflections;
+import io.github.joshuacgunn.core.misc.RngService;
+import io.github.joshuacgunn.core.misc.TypeRegistry;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a chest container that can hold items in a dungeon floor.
@@ -76,7 +78,8 @@ public class Chest extends Container{
         this.chestRarity = chestRarity;
         this.locked = locked;
         this.parentFloor = parentFloor;
-        this.items = generateItems();
+        // Generated items add themselves to the chest
+        generateItems();
     }
 
     /**
@@ -99,7 +102,7 @@ public class Chest extends Container{
      * @return A list of generated items for this chest
      */
     public <T extends Item> List<T> generateItems() {
-        Random random = new Random();
+        RandomGenerator random = RngService.current();
 
         // Base item count from floor difficulty
         float baseCount = parentFloor.getDifficultyRating();
@@ -138,9 +141,9 @@ public class Chest extends Container{
     /**
      * Generates a random item for this chest based on reflection and probability.
      *
-     * <p>This method uses reflection to discover all subclasses of Item in the
-     * com.joshuacgunn package. It then generates an item based on calculated
-     * probabilities, where each item type has an equal chance of being selected.
+     * <p>This method looks up all subclasses of Item in the {@link TypeRegistry}. It then
+     * generates an item based on calculated probabilities, where each item type has an
+     * equal chance of being selected.
      *
      * <p>Currently, this implementation specifically supports:
      * <ul>
@@ -160,13 +163,8 @@ public class Chest extends Container{
     @SuppressWarnings("unchecked")
     public <T extends Item> T generateItem() {
         try {
-            Random rand = new Random();
-            Reflections reflection = new Reflections("com.github.joshuacgunn");
-            Set<Class<? extends Item>> itemClasses = reflection.getSubTypesOf(Item.class);
-            int extendedClasses = 0;
-            for (Class<?> itemClass : itemClasses) {
-                extendedClasses += 1;
-            }
+            RandomGenerator rand = RngService.current();
+            int extendedClasses = TypeRegistry.countSubTypesOf(Item.class);
 
             Item.ItemRarity rarityToUse;
             float rarityChance = rand.nextFloat();
@@ -205,4 +203,15 @@ public class Chest extends Container{
     public ChestRarity getChestRarity() {
         return this.chestRarity;
     }
+
+    /**
+     * Marks this chest and the floor it sits on as changed.
+     */
+    @Override
+    public void markDirty() {
+        super.markDirty();
+        if (parentFloor != null) {
+            parentFloor.markDirty();
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package io.github.joshuacgunn.core.container;
 
 import io.github.joshuacgunn.core.item.Item;
+import io.github.joshuacgunn.core.misc.RegistryBatch;
+import io.github.joshuacgunn.core.save.Trackable;
 
 import java.util.*;
 
@@ -9,19 +11,25 @@ import java.util.*;
  * Provides common functionality for all container types and manages
  * a global registry of all containers.
  */
-public abstract class Container {
+public abstract class Container implements Trackable {
     /** Unique identifier for this container */
     protected UUID containerUUID;
 
     /** The name of this container */
     protected String containerName;
 
-    /** The list of items in this container */
-    protected List<Item> items = new ArrayList<>();
+    /** The list of items in this container, which keeps {@link Item#getContainer()} up to date */
+    protected final List<Item> items = new ContainerItems(this);
 
     /** Global registry mapping UUIDs to all created containers */
     public static Map<UUID, Container> containerMap = new HashMap<>();
 
+    /**
+     * Whether the contents of this container have changed since they were last saved.
+     * New containers start dirty so the next save writes them.
+     */
+    private boolean dirty = true;
+
     /**
      * Creates a new container and registers it in the global container map.
      *
@@ -31,7 +39,7 @@ public abstract class Container {
     public Container(UUID containerUUID, String containerName) {
         this.containerUUID = containerUUID;
         this.containerName = containerName;
-        containerMap.put(containerUUID, this);
+        RegistryBatch.register(containerMap, containerUUID, this);
     }
 
     /**
@@ -45,6 +53,18 @@ public abstract class Container {
 
     public void setContainerUUID(UUID uuid) {
         this.containerUUID = uuid;
+        markDirty();
+    }
+
+    /**
+     * Gets the items held by a container.
+     *
+     * @param containerUUID The UUID of the container
+     * @return The items in the container, or an empty list if no such container is registered
+     */
+    public static List<Item> getItemsIn(UUID containerUUID) {
+        Container container = containerMap.get(containerUUID);
+        return container == null ? Collections.emptyList() : Collections.unmodifiableList(container.items);
     }
 
     /**
@@ -54,6 +74,7 @@ public abstract class Container {
      */
     public void addItem(Item item) {
         items.add(item);
+        markDirty();
     }
 
     /**
@@ -64,4 +85,23 @@ public abstract class Container {
     public List<Item> getItems() {
         return items;
     }
+
+    /**
+     * Marks this container as changed. Containers are saved as part of whatever owns them,
+     * so subclasses also mark their owner.
+     */
+    @Override
+    public void markDirty() {
+        this.dirty = true;
+    }
+
+    @Override
+    public boolean isDirty() {
+        return this.dirty;
+    }
+
+    @Override
+    public void markClean() {
+        this.dirty = false;
+    }
 }
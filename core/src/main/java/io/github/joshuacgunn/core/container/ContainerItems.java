@@ -0,0 +1,74 @@
+package io.github.joshuacgunn.core.container;
+
+import io.github.joshuacgunn.core.item.Item;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The item list of a container, which records on each item which container holds it.
+ * Every way of changing the list goes through {@link #add(int, Item)}, {@link #set(int, Item)} and
+ * {@link #remove(int)}, so {@link Item#getContainer()} stays right however the list is changed.
+ */
+final class ContainerItems extends AbstractList<Item> implements RandomAccess {
+    private final Container owner;
+    private final List<Item> items = new ArrayList<>();
+
+    ContainerItems(Container owner) {
+        this.owner = owner;
+    }
+
+    @Override
+    public Item get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public void add(int index, Item item) {
+        items.add(index, item);
+        modCount++;
+        held(item);
+    }
+
+    @Override
+    public Item set(int index, Item item) {
+        Item previous = items.set(index, item);
+        released(previous);
+        held(item);
+        return previous;
+    }
+
+    @Override
+    public Item remove(int index) {
+        Item removed = items.remove(index);
+        modCount++;
+        released(removed);
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        items.forEach(this::released);
+        items.clear();
+        modCount++;
+    }
+
+    private void held(Item item) {
+        if (item != null) {
+            item.setContainer(owner);
+        }
+    }
+
+    private void released(Item item) {
+        if (item != null && item.getContainer() == owner) {
+            item.setContainer(null);
+        }
+    }
+}
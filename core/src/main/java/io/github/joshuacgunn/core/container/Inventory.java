@@ -45,6 +45,18 @@ public class Inventory extends Container {
     public void dropItem(Item item) {
         if (this.getItems().contains(item)) {
             this.items.remove(item);
+            markDirty();
+        }
+    }
+
+    /**
+     * Marks this inventory and its owning entity as changed.
+     */
+    @Override
+    public void markDirty() {
+        super.markDirty();
+        if (parentEntity != null) {
+            parentEntity.markDirty();
         }
     }
 }
@@ -27,6 +27,9 @@ public class DungeonFloorDTO implements Serializable {
 
     private ChestDTO chest;
 
+    /** The seed of a floor whose contents have not been generated, which is saved instead of them */
+    private Long seed;
+
     public DungeonFloorDTO() { }
 
     /**
@@ -113,4 +116,12 @@ public class DungeonFloorDTO implements Serializable {
     public void setChest(ChestDTO chest) {
         this.chest = chest;
     }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
 }
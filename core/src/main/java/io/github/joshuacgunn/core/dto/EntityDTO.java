@@ -22,7 +22,8 @@ public class EntityDTO {
     private UUID currentWeaponUUID;
     private List<UUID> equippedArmorUUIDs = new ArrayList<>();
     private InventoryDTO inventory;
-    private Map<Entity.StatusEffect, Integer> statusEffects = new HashMap<>();
+    private Map<Entity.StatusEffect, Integer> statusEffects;
+    private Map<Entity.StatusEffect, Long> statusEffectExpiries;
 
 
     public EntityDTO() {
@@ -109,6 +110,9 @@ public class EntityDTO {
         this.entityType = entityType;
     }
 
+    /**
+     * @return The ticks left on each status effect, as saves from before expiries were kept wrote them, or null
+     */
     public Map<Entity.StatusEffect, Integer> getStatusEffects() {
         return statusEffects;
     }
@@ -117,6 +121,17 @@ public class EntityDTO {
         this.statusEffects = statusEffects;
     }
 
+    /**
+     * @return The game tick each active status effect wears off at, or null for older saves
+     */
+    public Map<Entity.StatusEffect, Long> getStatusEffectExpiries() {
+        return statusEffectExpiries;
+    }
+
+    public void setStatusEffectExpiries(Map<Entity.StatusEffect, Long> statusEffectExpiries) {
+        this.statusEffectExpiries = statusEffectExpiries;
+    }
+
     public int getEntityStatsValue(EntityStats.Stat stat) {
         switch (stat) {
             case LUCK:
@@ -0,0 +1,80 @@
+package io.github.joshuacgunn.core.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) listing what a top-level location owns, so a save can
+ * load the location on demand without reading every other location first.
+ * One is saved alongside every dungeon and town.
+ */
+public class LocationIndexDTO {
+    /** Unique identifier of the dungeon or town */
+    private UUID locationUUID;
+
+    /** The simple class name of the location, either "Dungeon" or "Town" */
+    private String locationType;
+
+    /** The name of the location, so town names stay unique before every town is loaded */
+    private String locationName;
+
+    /** The floors of a dungeon or the shops of a town */
+    private List<UUID> childLocationUUIDs = new ArrayList<>();
+
+    /** The enemies or NPCs found in the location */
+    private List<UUID> entityUUIDs = new ArrayList<>();
+
+    /** The items held by those entities or lying in the location's chests */
+    private List<UUID> itemUUIDs = new ArrayList<>();
+
+    public LocationIndexDTO() { }
+
+    public UUID getLocationUUID() {
+        return locationUUID;
+    }
+
+    public void setLocationUUID(UUID locationUUID) {
+        this.locationUUID = locationUUID;
+    }
+
+    public String getLocationType() {
+        return locationType;
+    }
+
+    public void setLocationType(String locationType) {
+        this.locationType = locationType;
+    }
+
+    public String getLocationName() {
+        return locationName;
+    }
+
+    public void setLocationName(String locationName) {
+        this.locationName = locationName;
+    }
+
+    public List<UUID> getChildLocationUUIDs() {
+        return childLocationUUIDs;
+    }
+
+    public void setChildLocationUUIDs(List<UUID> childLocationUUIDs) {
+        this.childLocationUUIDs = childLocationUUIDs;
+    }
+
+    public List<UUID> getEntityUUIDs() {
+        return entityUUIDs;
+    }
+
+    public void setEntityUUIDs(List<UUID> entityUUIDs) {
+        this.entityUUIDs = entityUUIDs;
+    }
+
+    public List<UUID> getItemUUIDs() {
+        return itemUUIDs;
+    }
+
+    public void setItemUUIDs(List<UUID> itemUUIDs) {
+        this.itemUUIDs = itemUUIDs;
+    }
+}
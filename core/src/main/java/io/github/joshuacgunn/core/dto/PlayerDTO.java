@@ -13,6 +13,9 @@ public class PlayerDTO extends EntityDTO {
     public String previousGameState;
     public UUID lastGameLocationUUID;
     public int playerLevel;
+    public Long worldSeed;
+    public long locationsGenerated;
+    public long worldTick;
 
 
     public PlayerDTO() {
@@ -59,4 +62,34 @@ public class PlayerDTO extends EntityDTO {
     public void setLastGameLocationUUID(UUID uuid) {
         this.lastGameLocationUUID = uuid;
     }
+
+    /**
+     * @return The seed of the player's world, or null for saves from before worlds were seeded
+     */
+    public Long getWorldSeed() {
+        return worldSeed;
+    }
+
+    public void setWorldSeed(Long worldSeed) {
+        this.worldSeed = worldSeed;
+    }
+
+    public long getLocationsGenerated() {
+        return locationsGenerated;
+    }
+
+    public void setLocationsGenerated(long locationsGenerated) {
+        this.locationsGenerated = locationsGenerated;
+    }
+
+    /**
+     * @return The game tick the save was taken at, or 0 for saves from before the clock was saved
+     */
+    public long getWorldTick() {
+        return worldTick;
+    }
+
+    public void setWorldTick(long worldTick) {
+        this.worldTick = worldTick;
+    }
 }
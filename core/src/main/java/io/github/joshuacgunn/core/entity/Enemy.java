@@ -3,8 +3,9 @@ package io.github.joshuacgunn.core.entity;
 import io.github.joshuacgunn.core.item.Armor;
 import io.github.joshuacgunn.core.item.Weapon;
 import io.github.joshuacgunn.core.item.Item;
+import io.github.joshuacgunn.core.location.DungeonFloor;
+import io.github.joshuacgunn.core.misc.RngService;
 
-import java.util.Random;
 import java.util.UUID;
 
 /**
@@ -12,7 +13,6 @@ import java.util.UUID;
  */
 public class Enemy extends Entity {
 
-    private static final Random rand = new Random();
 
     /**
      * Enum representing different types of enemies with their specific attributes.
@@ -55,6 +55,13 @@ public class Enemy extends Entity {
             return name;
         }
 
+        /**
+         * @return The most health an enemy of this type is generated with
+         */
+        public float getMaxHp() {
+            return maxHp;
+        }
+
         public Item.ItemRarity getWeaponRarity() {
             return weaponRarity;
         }
@@ -80,7 +87,7 @@ public class Enemy extends Entity {
         this.type = type;
 
         // Set HP based on enemy type
-        this.entityHp = rand.nextFloat(type.minHp, type.maxHp);
+        this.entityHp = RngService.current().nextFloat(type.minHp, type.maxHp);
 
         if (newEnemy) {
             generateEquipment();
@@ -99,12 +106,27 @@ public class Enemy extends Entity {
         return type;
     }
 
+    /**
+     * Sets whether this enemy is alive. An enemy that dies this way also leaves its floor,
+     * as one killed in combat does, so floors only ever hold living enemies.
+     *
+     * @param status Whether the enemy is alive
+     */
+    @Override
+    public void setDeathStatus(boolean status) {
+        boolean died = isAlive() && !status;
+        super.setDeathStatus(status);
+        if (died && getCurrentLocation() instanceof DungeonFloor floor) {
+            floor.removeEnemy(this);
+        }
+    }
+
     /**
      * Generates appropriate equipment for this enemy based on its type.
      */
     private void generateEquipment() {
         // Generate armor pieces
-        int armorPieces = rand.nextInt(type.minArmorPieces, type.maxArmorPieces + 1);
+        int armorPieces = RngService.current().nextInt(type.minArmorPieces, type.maxArmorPieces + 1);
 
         for (int i = 0; i < armorPieces; i++) {
             Armor.generateArmor(type.getArmorRarity(), this.getInventory(), true);
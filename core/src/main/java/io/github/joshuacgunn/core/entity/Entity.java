@@ -8,6 +8,9 @@ import io.github.joshuacgunn.core.item.Item;
 import io.github.joshuacgunn.core.item.Weapon;
 import io.github.joshuacgunn.core.location.DungeonFloor;
 import io.github.joshuacgunn.core.location.Location;
+import io.github.joshuacgunn.core.misc.RegistryBatch;
+import io.github.joshuacgunn.core.misc.RngService;
+import io.github.joshuacgunn.core.save.Trackable;
 import io.github.joshuacgunn.core.tickmanager.TickManager;
 import io.github.joshuacgunn.core.tickmanager.Tickable;
 
@@ -22,7 +25,7 @@ import static io.github.joshuacgunn.core.item.Potion.consumePotion;
  * @version 1.0
  */
 
-public abstract class Entity implements Tickable {
+public abstract class Entity implements Tickable, Trackable {
     /**
      * The name of the entity.
      */
@@ -72,10 +75,26 @@ public abstract class Entity implements Tickable {
     /**
      * A static map of all entities in the game.
      * The key is the entity's UUID, and the value is the Entity object.
+     * Entities are also indexed by type, see {@link EntityRegistry}.
      */
-    public static Map<UUID, Entity> entityMap = new HashMap<>();
+    public static EntityRegistry entityMap = new EntityRegistry();
 
-    private Map<StatusEffect, Integer> activeStatusEffects = new HashMap<>();
+    private static final StatusEffect[] STATUS_EFFECTS = StatusEffect.values();
+
+    /** Ticks between health regeneration for players */
+    private static final int REGEN_INTERVAL = 10;
+
+    /** The tick each status effect wears off at, indexed by {@link StatusEffect#ordinal()} */
+    private final long[] statusEffectExpiries = new long[STATUS_EFFECTS.length];
+
+    /** One bit per active status effect, set at the bit of the effect's ordinal */
+    private int activeStatusEffects = 0;
+
+    /**
+     * Whether this entity has changed since it was last saved.
+     * New entities start dirty so the next save writes them.
+     */
+    private boolean dirty = true;
 
     /**
      * @param name Sets entity name
@@ -84,9 +103,8 @@ public abstract class Entity implements Tickable {
     public Entity(String name, UUID uuid) {
         this.entityName = name;
         this.entityUUID = uuid;
-        entityMap.put(uuid, this);
-        inventory = new Inventory(UUID.randomUUID(), this);
-        TickManager.getInstance().register(this);
+        RegistryBatch.register(entityMap, uuid, this);
+        inventory = new Inventory(RngService.nextUUID(), this);
         if (!(this instanceof Player)) {
             entityStats = new EntityStats();
         }
@@ -98,6 +116,7 @@ public abstract class Entity implements Tickable {
 
     public void setEntityHp(float amount) {
         this.entityHp = (10 * amount) / 10.0f;
+        markDirty();
     }
 
     /**
@@ -115,7 +134,10 @@ public abstract class Entity implements Tickable {
      * @param currentLocation The dungeon to place the player in
      */
     public void setCurrentLocation(Location currentLocation) {
+        Location previous = this.currentLocation;
         this.currentLocation = currentLocation;
+        entityMap.moved(this, previous);
+        markDirty();
     }
 
 
@@ -152,7 +174,15 @@ public abstract class Entity implements Tickable {
      * @return A list of all active entity's of entityClass type
      */
     public static <T extends Entity> List<T> getEntitiesByType(Class<T> entityClass) {
-        return entityMap.values().stream().filter(entityClass::isInstance).map(entityClass::cast).toList();
+        return entityMap.getByType(entityClass);
+    }
+
+    /**
+     * @param location The location to look in
+     * @return The entities whose current location is the given location
+     */
+    public static Set<Entity> getEntitiesAt(Location location) {
+        return entityMap.getAt(location.getLocationUUID());
     }
 
     /**
@@ -171,10 +201,12 @@ public abstract class Entity implements Tickable {
      */
     public void setCurrentWeapon(Weapon weapon) {
         this.currentWeapon = weapon;
+        markDirty();
     }
 
     public void setCurrentLocationType(String currentLocationType) {
         this.currentLocationType = currentLocationType;
+        markDirty();
     }
 
     public String getCurrentLocationType() {
@@ -188,6 +220,7 @@ public abstract class Entity implements Tickable {
      * @param damage The amount of damage to be taken by the entity.
      */
     public void takeDamage(float damage) {
+        markDirty();
         if (damage > this.entityHp) {
             this.entityHp = 0;
             this.isAlive = false;
@@ -196,7 +229,8 @@ public abstract class Entity implements Tickable {
                 for (Item item : this.getInventory().getItems()) {
                     Item.itemMap.remove(item.getItemUUID());
                 }
-                dungeonFloor.getEnemiesOnFloor().remove(this);
+                // Takes the enemy out of the floor's saved enemy list and its difficulty rating
+                dungeonFloor.removeEnemy((Enemy) this);
                 Entity.entityMap.remove(this.getEntityUUID());
             }
         } else {
@@ -210,6 +244,7 @@ public abstract class Entity implements Tickable {
 
     public void setDeathStatus(boolean status) {
         this.isAlive = status;
+        markDirty();
     }
 
     public float getEntityDefense() {
@@ -230,6 +265,7 @@ public abstract class Entity implements Tickable {
             armors.put(armor.getArmorSlot(), armor);
             entityDefense += armor.getArmorDefense();
             this.getInventory().getItems().remove(armor);
+            markDirty();
         }
     }
 
@@ -247,6 +283,7 @@ public abstract class Entity implements Tickable {
             entityDefense -= armor.getArmorDefense();
             armors.remove(armor.getArmorSlot());
             this.getInventory().addItem(armor);
+            markDirty();
         }
     }
 
@@ -267,34 +304,78 @@ public abstract class Entity implements Tickable {
         this.inventory.addItem(item);
     }
 
+    /**
+     * Runs when a status effect wears off or, for players, when health regeneration is due.
+     * Entities are only woken when one of those comes due, see {@link #scheduleNextTick()}.
+     */
     @Override
-    public void onTick(int currentTick) {
-        Iterator<Map.Entry<StatusEffect, Integer>> iterator = activeStatusEffects.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<StatusEffect, Integer> entry = iterator.next();
-            int remainingDuration = entry.getValue() - 1;
-
-            if (remainingDuration <= 0) {
-                removeStatusEffect(entry.getKey());
-                iterator.remove();
-            } else {
-                entry.setValue(remainingDuration);
+    public void onTick(long currentTick) {
+        // Walk the set bits only, so only active effects are looked at
+        int active = activeStatusEffects;
+        while (active != 0) {
+            int effect = Integer.numberOfTrailingZeros(active);
+            active &= active - 1;
+            if (statusEffectExpiries[effect] <= currentTick) {
+                activeStatusEffects &= ~(1 << effect);
+                removeStatusEffect(STATUS_EFFECTS[effect]);
+                markDirty();
             }
         }
 
         // Other time-based logic like health regeneration
-        if (currentTick % 10 == 0 && this instanceof Player player) { // Every 10 seconds
+        if (currentTick % REGEN_INTERVAL == 0 && this instanceof Player player) { // Every 10 seconds
             if (!(player.getGameState() instanceof CombatState || player.getGameState() instanceof DungeonState)) { // Don't regenerate health in combat
                 if (player.getEntityHp() < 100 && player.getEntityHp() > 0) {
                     player.setEntityHp(player.getEntityHp() + ((float) player.getSpecificStatValue(EntityStats.Stat.VITALITY) / 10));
                 }
             }
         }
+        scheduleNextTick();
+    }
+
+    /**
+     * Entities tick in the shard of their location, so entities in different places may tick side by side.
+     *
+     * @return The UUID of the entity's location, or its own UUID if it is nowhere
+     */
+    @Override
+    public Object getTickShard() {
+        Location location = currentLocation;
+        return location != null ? location.getLocationUUID() : entityUUID;
+    }
+
+    /**
+     * Asks the {@link TickManager} to wake this entity when its next status effect wears off or, for players,
+     * at the next health regeneration. Entities with nothing coming due are not woken at all.
+     * Only registered entities are scheduled; the entity registry calls this when an entity is added.
+     */
+    void scheduleNextTick() {
+        if (entityMap.get(entityUUID) != this) {
+            return;
+        }
+        TickManager ticks = TickManager.getInstance();
+        long now = ticks.getCurrentTick();
+        long next = Long.MAX_VALUE;
+        int active = activeStatusEffects;
+        while (active != 0) {
+            int effect = Integer.numberOfTrailingZeros(active);
+            active &= active - 1;
+            next = Math.min(next, statusEffectExpiries[effect]);
+        }
+        if (this instanceof Player) {
+            next = Math.min(next, now + REGEN_INTERVAL - Math.floorMod(now, REGEN_INTERVAL));
+        }
+        if (next != Long.MAX_VALUE) {
+            ticks.schedule(this, next - now);
+        }
     }
 
     public void addStatusEffect(StatusEffect effect, int durationInTicks) {
-        activeStatusEffects.put(effect, durationInTicks);
+        statusEffectExpiries[effect.ordinal()] = TickManager.getInstance().getCurrentTick() + durationInTicks;
+        activeStatusEffects |= 1 << effect.ordinal();
         applyStatusEffect(effect);
+        markDirty();
+        scheduleNextTick();
     }
 
     private void applyStatusEffect(StatusEffect effect) {
@@ -329,23 +410,99 @@ public abstract class Entity implements Tickable {
         }
     }
 
+    /**
+     * @param effect A status effect
+     * @return true if the effect is active on this entity
+     */
+    public boolean hasStatusEffect(StatusEffect effect) {
+        return (activeStatusEffects & (1 << effect.ordinal())) != 0;
+    }
+
+    /**
+     * @param effect A status effect
+     * @return The ticks left on the effect, or 0 if it is not active
+     */
+    public int getStatusEffectDuration(StatusEffect effect) {
+        if (!hasStatusEffect(effect)) {
+            return 0;
+        }
+        long remaining = statusEffectExpiries[effect.ordinal()] - TickManager.getInstance().getCurrentTick();
+        return (int) Math.max(0, Math.min(remaining, Integer.MAX_VALUE));
+    }
+
+    /**
+     * @return A copy of the active status effects and the ticks left on each
+     */
     public Map<StatusEffect, Integer> getActiveStatusEffects() {
-        return activeStatusEffects;
+        Map<StatusEffect, Integer> effects = new EnumMap<>(StatusEffect.class);
+        for (StatusEffect effect : STATUS_EFFECTS) {
+            if (hasStatusEffect(effect)) {
+                effects.put(effect, getStatusEffectDuration(effect));
+            }
+        }
+        return effects;
+    }
+
+    /**
+     * @return A copy of the active status effects and the tick each wears off at
+     */
+    public Map<StatusEffect, Long> getStatusEffectExpiries() {
+        Map<StatusEffect, Long> expiries = new EnumMap<>(StatusEffect.class);
+        for (StatusEffect effect : STATUS_EFFECTS) {
+            if (hasStatusEffect(effect)) {
+                expiries.put(effect, statusEffectExpiries[effect.ordinal()]);
+            }
+        }
+        return expiries;
+    }
+
+    /**
+     * Replaces the active status effects, without applying them again. Effects whose tick has already
+     * passed wear off on the next tick.
+     *
+     * @param expiries The effects to make active and the tick each wears off at
+     */
+    public void setStatusEffectExpiries(Map<StatusEffect, Long> expiries) {
+        this.activeStatusEffects = 0;
+        if (expiries != null) {
+            expiries.forEach((effect, expiry) -> {
+                statusEffectExpiries[effect.ordinal()] = expiry;
+                this.activeStatusEffects |= 1 << effect.ordinal();
+            });
+        }
+        markDirty();
+        scheduleNextTick();
     }
 
+    /**
+     * Replaces the active status effects, without applying them again.
+     *
+     * @param activeStatusEffects The effects to make active and the ticks left on each
+     */
     public void setActiveStatusEffects(Map<StatusEffect, Integer> activeStatusEffects) {
-        this.activeStatusEffects = activeStatusEffects;
+        long now = TickManager.getInstance().getCurrentTick();
+        this.activeStatusEffects = 0;
+        if (activeStatusEffects != null) {
+            activeStatusEffects.forEach((effect, duration) -> {
+                statusEffectExpiries[effect.ordinal()] = now + duration;
+                this.activeStatusEffects |= 1 << effect.ordinal();
+            });
+        }
+        markDirty();
+        scheduleNextTick();
     }
 
     public void addTemporaryStat(EntityStats.Stat stat, int amount) {
         if (this instanceof Player player) {
             player.getEntityStats().setStatValue(stat, player.getEntityStats().getStatValue(stat) + amount);
+            markDirty();
         }
     }
 
     public void removeTemporaryStat(EntityStats.Stat stat, int amount) {
         if (this instanceof Player player) {
             player.getEntityStats().setStatValue(stat, player.getEntityStats().getStatValue(stat) - amount);
+            markDirty();
         }
     }
 
@@ -355,6 +512,22 @@ public abstract class Entity implements Tickable {
 
     public void setEntityStats(EntityStats entityStats) {
         this.entityStats = entityStats;
+        markDirty();
+    }
+
+    @Override
+    public void markDirty() {
+        this.dirty = true;
+    }
+
+    @Override
+    public boolean isDirty() {
+        return this.dirty;
+    }
+
+    @Override
+    public void markClean() {
+        this.dirty = false;
     }
 
 
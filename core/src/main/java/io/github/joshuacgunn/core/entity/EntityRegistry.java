@@ -0,0 +1,218 @@
+package io.github.joshuacgunn.core.entity;
+
+import io.github.joshuacgunn.core.location.Location;
+import io.github.joshuacgunn.core.tickmanager.TickManager;
+
+import java.util.*;
+
+/**
+ * The global registry of entities, which also keeps the entities of each class apart so they can be
+ * listed without walking every entity.
+ * <p>
+ * Entities are indexed by their exact class when they are added and dropped from that index when they are
+ * removed, however they are removed. {@link #getByType(Class)} returns a list that is built once and reused
+ * until an entity of a matching class is added or removed, and {@link #getPlayer()} is a plain field read.
+ * <p>
+ * Entities are also indexed by the UUID of their current location, which {@link Entity#setCurrentLocation(Location)}
+ * keeps up to date, so {@link #getAt(UUID)} costs as much as the entities it returns.
+ * <p>
+ * Entities tick while they are registered: adding an entity schedules its next tick, and removing it
+ * drops it from the {@link TickManager}.
+ * Only used from the game thread.
+ */
+public class EntityRegistry extends AbstractMap<UUID, Entity> {
+    /** Every entity, keyed by its UUID */
+    private final Map<UUID, Entity> entities = new HashMap<>();
+
+    /** The entities of each exact class, in the order they were added */
+    private final Map<Class<? extends Entity>, Map<UUID, Entity>> byClass = new HashMap<>();
+
+    /** Lists handed out by {@link #getByType(Class)}, dropped when an entity of a matching class changes */
+    private final Map<Class<?>, List<? extends Entity>> views = new HashMap<>();
+
+    /** The entities at each location, keyed by location UUID, in the order they arrived */
+    private final Map<UUID, Set<Entity>> byLocation = new HashMap<>();
+
+    /** The first player still registered, or null if there is none */
+    private Player player;
+
+    private final Set<Entry<UUID, Entity>> entrySet = new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<UUID, Entity>> iterator() {
+            Iterator<Entry<UUID, Entity>> iterator = entities.entrySet().iterator();
+            return new Iterator<>() {
+                private Entity current;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Entry<UUID, Entity> next() {
+                    Entry<UUID, Entity> entry = iterator.next();
+                    current = entry.getValue();
+                    return entry;
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    unindex(current);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return entities.size();
+        }
+    };
+
+    /**
+     * Lists the registered entities of a class and its subclasses.
+     *
+     * @param type The type of entity to list (eg, Enemy.class)
+     * @return An unmodifiable list of the entities, which does not change if the registry does
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Entity> List<T> getByType(Class<T> type) {
+        List<? extends Entity> view = views.get(type);
+        if (view == null) {
+            List<Entity> matching = new ArrayList<>();
+            byClass.forEach((entityClass, ofClass) -> {
+                if (type.isAssignableFrom(entityClass)) {
+                    matching.addAll(ofClass.values());
+                }
+            });
+            view = Collections.unmodifiableList(matching);
+            views.put(type, view);
+        }
+        return (List<T>) view;
+    }
+
+    /**
+     * Lists the registered entities whose current location is a location. Entities in the shops of a
+     * town or the floors of a dungeon are at the shop or floor, not at the town or dungeon.
+     *
+     * @param locationUUID The UUID of the location
+     * @return An unmodifiable view of the entities at the location, to be looked up again after entities move
+     */
+    public Set<Entity> getAt(UUID locationUUID) {
+        Set<Entity> here = byLocation.get(locationUUID);
+        return here == null ? Collections.emptySet() : Collections.unmodifiableSet(here);
+    }
+
+    /**
+     * Moves a registered entity in the location index. Called when the entity's current location changes.
+     *
+     * @param entity The entity, which is ignored if it is not registered
+     * @param previous The location the entity was at before, or null
+     */
+    void moved(Entity entity, Location previous) {
+        if (entities.get(entity.getEntityUUID()) != entity) {
+            return;
+        }
+        leave(entity, previous);
+        arrive(entity);
+    }
+
+    /**
+     * @return The player, or null if no player is registered
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    @Override
+    public Entity put(UUID uuid, Entity entity) {
+        Entity previous = entities.put(uuid, entity);
+        if (previous != null) {
+            unindex(previous);
+        }
+        byClass.computeIfAbsent(entity.getClass(), entityClass -> new LinkedHashMap<>()).put(uuid, entity);
+        changed(entity.getClass());
+        arrive(entity);
+        if (player == null && entity instanceof Player added) {
+            player = added;
+        }
+        entity.scheduleNextTick();
+        return previous;
+    }
+
+    @Override
+    public Entity remove(Object key) {
+        Entity removed = entities.remove(key);
+        if (removed != null) {
+            unindex(removed);
+        }
+        return removed;
+    }
+
+    @Override
+    public Entity get(Object key) {
+        return entities.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return entities.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return entities.size();
+    }
+
+    @Override
+    public void clear() {
+        entities.values().forEach(TickManager.getInstance()::unregister);
+        entities.clear();
+        byClass.clear();
+        byLocation.clear();
+        views.clear();
+        player = null;
+    }
+
+    @Override
+    public Set<Entry<UUID, Entity>> entrySet() {
+        return entrySet;
+    }
+
+    /**
+     * Drops an entity that is no longer registered from the indexes.
+     */
+    private void unindex(Entity entity) {
+        Map<UUID, Entity> ofClass = byClass.get(entity.getClass());
+        if (ofClass == null || ofClass.remove(entity.getEntityUUID()) == null) {
+            return;
+        }
+        changed(entity.getClass());
+        leave(entity, entity.getCurrentLocation());
+        TickManager.getInstance().unregister(entity);
+        if (entity == player) {
+            Map<UUID, Entity> players = byClass.get(Player.class);
+            player = players == null || players.isEmpty() ? null : (Player) players.values().iterator().next();
+        }
+    }
+
+    private void arrive(Entity entity) {
+        if (entity.getCurrentLocation() != null) {
+            byLocation.computeIfAbsent(entity.getCurrentLocation().getLocationUUID(), uuid -> new LinkedHashSet<>()).add(entity);
+        }
+    }
+
+    private void leave(Entity entity, Location location) {
+        if (location == null) {
+            return;
+        }
+        Set<Entity> here = byLocation.get(location.getLocationUUID());
+        if (here != null && here.remove(entity) && here.isEmpty()) {
+            byLocation.remove(location.getLocationUUID());
+        }
+    }
+
+    private void changed(Class<? extends Entity> entityClass) {
+        views.keySet().removeIf(type -> type.isAssignableFrom(entityClass));
+    }
+}
@@ -1,13 +1,20 @@
 package io.github.joshuacgunn.core.entity;
 
+/**
+ * The stat block of an entity, with one value for each {@link Stat}, indexed by the stat's ordinal.
+ */
 public class EntityStats {
 
-    public int strength = Stat.STRENGTH.statValue;
-    public int dexterity = Stat.DEXTERITY.statValue;
-    public int vitality = Stat.VITALITY.statValue;
-    public int intelligence = Stat.INTELLIGENCE.statValue;
-    public int luck = Stat.LUCK.statValue;
-    public int charisma = Stat.CHARISMA.statValue;
+    private static final Stat[] STATS = Stat.values();
+
+    /** The value of each stat, indexed by {@link Stat#ordinal()} */
+    private final int[] values = new int[STATS.length];
+
+    public EntityStats() {
+        for (Stat stat : STATS) {
+            values[stat.ordinal()] = stat.statValue;
+        }
+    }
 
     public enum Stat {
         STRENGTH("Strength", 0),
@@ -35,44 +42,11 @@ public class EntityStats {
     }
 
     public int getStatValue(Stat stat) {
-        switch (stat) {
-            case LUCK:
-                return this.luck;
-            case CHARISMA:
-                return this.charisma;
-            case VITALITY:
-                return this.vitality;
-            case INTELLIGENCE:
-                return this.intelligence;
-            case STRENGTH:
-                return this.strength;
-            case DEXTERITY:
-                return this.dexterity;
-            default:
-                return 0;
-        }
+        return values[stat.ordinal()];
     }
 
     public void setStatValue(Stat stat, int statValue) {
-        switch (stat) {
-            case LUCK:
-                this.luck = statValue;
-                break;
-            case CHARISMA:
-                this.charisma = statValue;
-                break;
-            case VITALITY:
-                this.vitality = statValue;
-                break;
-            case INTELLIGENCE:
-                this.intelligence = statValue;
-                break;
-            case STRENGTH:
-                this.strength = statValue;
-                break;
-            case DEXTERITY:
-                this.dexterity = statValue;
-        }
+        values[stat.ordinal()] = statValue;
     }
 
     public void addTemporaryStat(Stat stat, int amount) {
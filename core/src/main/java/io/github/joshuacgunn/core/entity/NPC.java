@@ -1,7 +1,9 @@
 package io.github.joshuacgunn.core.entity;
 
-import java.util.Random;
+import io.github.joshuacgunn.core.misc.RngService;
+
 import java.util.UUID;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a Non-Player Character (NPC) in the game world.
@@ -36,9 +38,6 @@ public class NPC extends Entity {
     /** The personality trait of this NPC */
     private Personality npcPersonality;
 
-    /** Random number generator for personality assignment */
-    private final Random random = new Random();
-
     private boolean hasQuest = false;
 
     /**
@@ -51,6 +50,7 @@ public class NPC extends Entity {
     public NPC(String name, UUID uuid) {
         super(name, uuid);
         this.entityHp = 100;
+        RandomGenerator random = RngService.current();
         this.npcPersonality = Personality.values()[random.nextInt(Personality.values().length)];
         if (random.nextFloat() < 0.03 && npcPersonality != Personality.ANGRY && npcPersonality != Personality.LAZY && npcPersonality != Personality.DEPRESSED) {
             this.hasQuest = true;
@@ -63,6 +63,7 @@ public class NPC extends Entity {
 
     public void setHasQuest(boolean hasQuest) {
         this.hasQuest = hasQuest;
+        markDirty();
     }
 
     /**
@@ -81,5 +82,6 @@ public class NPC extends Entity {
      */
     public void setNpcPersonality(Personality personality) {
         this.npcPersonality = personality;
+        markDirty();
     }
 }
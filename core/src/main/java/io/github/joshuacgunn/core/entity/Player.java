@@ -6,6 +6,7 @@ import io.github.joshuacgunn.core.item.Item;
 import io.github.joshuacgunn.core.item.Potion;
 import io.github.joshuacgunn.core.item.Weapon;
 import io.github.joshuacgunn.core.location.Location;
+import io.github.joshuacgunn.core.misc.RngService;
 import io.github.joshuacgunn.core.quest.Quest;
 
 import java.util.UUID;
@@ -81,6 +82,7 @@ public class Player extends Entity {
 
     public void setPlayerLevel(int playerLevel) {
         this.playerLevel = playerLevel;
+        markDirty();
     }
 
     public String getGameStateName() {
@@ -128,6 +130,7 @@ public class Player extends Entity {
      */
     public void setCurrentWeapon(Weapon weapon) {
         this.currentWeapon = weapon;
+        markDirty();
     }
 
     public void setLastGameLocation(Location lastGameLocation) {
@@ -172,17 +175,25 @@ public class Player extends Entity {
         return baseDamage * (1f + strengthBonus + classBonus);
     }
 
-    public void usePotion(Potion potion) {
+    /**
+     * Drinks a potion from the player's inventory. Healing potions restore health, up to {@link #MAX_HP}.
+     *
+     * @param potion The potion to drink
+     * @return A message describing what happened
+     */
+    public String usePotion(Potion potion) {
+        getInventory().getItems().remove(potion);
+        markDirty();
         switch (potion.getPotionType()) {
             case HEALING:
-                System.out.println("Healing potion used!");
-                break;
+                setEntityHp(Math.min(MAX_HP, entityHp + potion.getRestoreAmount()));
+                return "Healing potion used!";
             case MANA:
-                System.out.println("Mana restoration potion used!");
-                break;
+                return "Mana restoration potion used!";
             case ALCOHOL:
-                System.out.println("Alcohol used!");
-                break;
+                return "Alcohol used!";
+            default:
+                return potion.getItemName() + " used!";
         }
     }
 
@@ -266,11 +277,11 @@ public class Player extends Entity {
         Armor chestplate;
         Armor leggings;
         Armor boots;
-        weapon = new Weapon("Basic sword", UUID.randomUUID(), Item.ItemRarity.COMMON, true);
-        helmet = new Armor(UUID.randomUUID(), Armor.ArmorSlot.HELMET, "Basic helmet", Item.ItemRarity.COMMON, true);
-        chestplate = new Armor(UUID.randomUUID(), Armor.ArmorSlot.CHESTPLATE, "Basic chestplate", Item.ItemRarity.COMMON, true);
-        leggings = new Armor(UUID.randomUUID(), Armor.ArmorSlot.LEGGINGS, "Basic leggings", Item.ItemRarity.COMMON, true);
-        boots = new Armor(UUID.randomUUID(), Armor.ArmorSlot.BOOTS, "Basic boots", Item.ItemRarity.COMMON, true);
+        weapon = new Weapon("Basic sword", RngService.nextUUID(), Item.ItemRarity.COMMON, true);
+        helmet = new Armor(RngService.nextUUID(), Armor.ArmorSlot.HELMET, "Basic helmet", Item.ItemRarity.COMMON, true);
+        chestplate = new Armor(RngService.nextUUID(), Armor.ArmorSlot.CHESTPLATE, "Basic chestplate", Item.ItemRarity.COMMON, true);
+        leggings = new Armor(RngService.nextUUID(), Armor.ArmorSlot.LEGGINGS, "Basic leggings", Item.ItemRarity.COMMON, true);
+        boots = new Armor(RngService.nextUUID(), Armor.ArmorSlot.BOOTS, "Basic boots", Item.ItemRarity.COMMON, true);
         player.equipArmor(helmet);
         player.equipArmor(chestplate);
         player.equipArmor(leggings);
@@ -1,12 +1,15 @@
 package io.github.joshuacgunn.core.gameplay;
 
+import io.github.joshuacgunn.core.combat.CombatResolver;
+import io.github.joshuacgunn.core.combat.Combatant;
 import io.github.joshuacgunn.core.entity.Enemy;
 import io.github.joshuacgunn.core.entity.Entity;
 import io.github.joshuacgunn.core.entity.Player;
 import io.github.joshuacgunn.core.location.Dungeon;
 import io.github.joshuacgunn.core.misc.GameMethods;
+import io.github.joshuacgunn.core.misc.RngService;
+import io.github.joshuacgunn.core.tickmanager.TickManager;
 
-import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.Scanner;
 
@@ -48,10 +51,10 @@ public class CombatState implements GameState {
         this.parentLoop = parentLoop;
         if (player.getCurrentLocation() instanceof Dungeon) {
             // Gets a random enemy from the players current dungeon
-            this.enemy = ((Dungeon) player.getCurrentLocation()).getCurrentFloor().getEnemiesOnFloor().get(new java.util.Random().nextInt(((Dungeon) player.getCurrentLocation()).getCurrentFloor().getEnemiesOnFloor().size()));
+            this.enemy = ((Dungeon) player.getCurrentLocation()).getCurrentFloor().getRandomEnemy(RngService.current());
         } else {
             // Edge case handling
-            this.enemy = new Enemy(Enemy.EnemyType.GOBLIN, UUID.randomUUID(), false);
+            this.enemy = new Enemy(Enemy.EnemyType.GOBLIN, RngService.nextUUID(), false);
             Entity.entityMap.remove(enemy.getEntityUUID());
         }
         printScreen(this);
@@ -84,6 +87,8 @@ public class CombatState implements GameState {
     @Override
     public void update() {
         if (!inCombat) return;
+        // Status effects keep wearing off during a fight. Autosaves wait until it is over, when the dungeon takes them
+        TickManager.getInstance().runDueTicks();
         System.out.println("What would you like to do?");
         System.out.println("1. Attack the enemy");
         System.out.println("2. Run away");
@@ -92,21 +97,22 @@ public class CombatState implements GameState {
         switch (currentAction) {
             case 1:
                 // Change order to factor in player and enemy stats to see which is faster
-                enemy.takeDamage(player.calculateWeaponDamage());
+                CombatResolver.Round round = CombatResolver.playRound(Combatant.of(player), Combatant.of(enemy));
+                enemy.takeDamage(round.playerHit());
                 if (enemy.isAlive()) {
-                    System.out.println("You dealt " + player.calculateWeaponDamage() + " damage to " + enemy.getEntityName() + "!" );
+                    System.out.println("You dealt " + round.playerHit() + " damage to " + enemy.getEntityName() + "!" );
                 }
-                player.takeDamage(enemy.getCurrentWeapon().getWeaponDamage());
+                player.takeDamage(round.enemyHit());
                 if (player.isAlive()) {
-                    System.out.println(enemy.getEntityName() + " dealt " + enemy.getCurrentWeapon().getWeaponDamage() + " damage to you!");
+                    System.out.println(enemy.getEntityName() + " dealt " + round.enemyHit() + " damage to you!");
                 }
                 if (!player.isAlive()) {
                     player.setDeathStatus(false);
-                    System.out.println("You took " + enemy.getCurrentWeapon().getWeaponDamage() + " damage, killing you!");
+                    System.out.println("You took " + round.enemyHit() + " damage, killing you!");
                     inCombat = false;
                 } else if (!enemy.isAlive()) {
                     enemy.setDeathStatus(false);
-                    System.out.println("You dealt " + player.calculateWeaponDamage() + " damage, killing the " + enemy.getEntityName() + "!" );
+                    System.out.println("You dealt " + round.playerHit() + " damage, killing the " + enemy.getEntityName() + "!" );
                     inCombat = false;
                 }
                 try {
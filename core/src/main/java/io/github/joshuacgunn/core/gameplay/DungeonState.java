@@ -4,9 +4,11 @@ import io.github.joshuacgunn.core.entity.Player;
 import io.github.joshuacgunn.core.location.Dungeon;
 import io.github.joshuacgunn.core.location.World;
 import io.github.joshuacgunn.core.misc.GameMethods;
+import io.github.joshuacgunn.core.misc.RngService;
+import io.github.joshuacgunn.core.save.SaveManager;
+import io.github.joshuacgunn.core.tickmanager.TickManager;
 
 import java.util.Scanner;
-import java.util.UUID;
 
 import static io.github.joshuacgunn.core.misc.GameMethods.printScreen;
 
@@ -41,7 +43,7 @@ public class DungeonState implements GameState {
         this.whichDungeon = (Dungeon) player.getCurrentLocation();
         if (isNew) {
             printScreen(this);
-            System.out.println("You have entered " + whichDungeon.getLocationName() + ", a dungeon with " + whichDungeon.getFloors().size() + " floors, and a difficulty of " + whichDungeon.getDifficultyRating());
+            System.out.println("You have entered " + whichDungeon.getLocationName() + ", a dungeon with " + whichDungeon.getFloors().size() + " floors. Floor " + whichDungeon.getCurrentFloor().getFloorNumber() + " has a difficulty of " + whichDungeon.getCurrentFloor().getDifficultyRating());
         } else if (player.getPreviousGameState() != null && player.getPreviousGameState().getGameStateName().equals("CombatState")) {
             printScreen(this);
             System.out.println("You have re-entered " + whichDungeon.getLocationName());
@@ -93,9 +95,11 @@ public class DungeonState implements GameState {
     @Override
     public void update() {
         if (!inDungeon) return;
+        TickManager.getInstance().runDueTicks();
+        SaveManager.autosaveIfRequested(player);
         if (whichDungeon.getCurrentFloor().getEnemiesOnFloor().isEmpty()) {
             whichDungeon.clearFloor();
-            System.out.println("You cleared the floor! Moving on to floor " + whichDungeon.getCurrentFloor().getFloorNumber());
+            System.out.println("You cleared the floor! Moving on to floor " + whichDungeon.getCurrentFloor().getFloorNumber() + ", with a difficulty of " + whichDungeon.getCurrentFloor().getDifficultyRating());
         }
         System.out.println("What would you like to do?");
         System.out.println("0. Back to the main menu");
@@ -118,7 +122,7 @@ public class DungeonState implements GameState {
                 break;
             case 4:
                 inDungeon = false;
-                player.setCurrentLocation(new World(UUID.randomUUID()));
+                player.setCurrentLocation(new World(RngService.nextUUID()));
                 break;
         }
     }
@@ -4,10 +4,13 @@ import io.github.joshuacgunn.core.entity.Player;
 import io.github.joshuacgunn.core.location.Dungeon;
 import io.github.joshuacgunn.core.location.Location;
 import io.github.joshuacgunn.core.location.Town;
+import io.github.joshuacgunn.core.location.WorldGenerator;
 import io.github.joshuacgunn.core.misc.GameMethods;
+import io.github.joshuacgunn.core.misc.RngService;
+import io.github.joshuacgunn.core.save.SaveManager;
+import io.github.joshuacgunn.core.tickmanager.TickManager;
 
 import java.util.ArrayList;
-import java.util.Random;
 import java.util.Scanner;
 
 import static io.github.joshuacgunn.core.gameplay.TownState.getShopsInTown;
@@ -63,6 +66,8 @@ public class ExploringState implements GameState {
     @Override
     public void update() {
         if (!isExploring) return;
+        TickManager.getInstance().runDueTicks();
+        SaveManager.autosaveIfRequested(player);
         System.out.println("What would you like to do?");
         System.out.println("0: Back to the main menu");
         System.out.println("1. Go to a previous town");
@@ -113,7 +118,7 @@ public class ExploringState implements GameState {
                 ArrayList<Dungeon> dungeons = new ArrayList<>(Location.getLocationsByType(Dungeon.class));
 
                 for (Dungeon dungeon : dungeons) {
-                    System.out.println(j + ": " + dungeon.getLocationName() + " (" + dungeon.getFloors().size() + " floors, " + dungeon.getDifficultyRating() + " difficulty)");
+                    System.out.println(j + ": " + dungeon.getLocationName() + " (" + dungeon.getFloors().size() + " floors, " + dungeon.describeDifficulty() + ")");
                 }
 
                 int dungeonIndex = scanner.nextInt();
@@ -128,8 +133,12 @@ public class ExploringState implements GameState {
                 player.setCurrentLocation(dungeons.get(dungeonIndex-1));
                 break;
             case 3:
-                printLoadingDots("Searching for a new place to go", new Random().nextInt(3, 5));
-                Location newLocation = Location.generateLocation();
+                WorldGenerator generator = WorldGenerator.getInstance();
+                if (!generator.isReady()) {
+                    printLoadingDots("Searching for a new place to go", RngService.current().nextInt(3, 5));
+                }
+                WorldGenerator.Candidate candidate = generator.next();
+                Location newLocation = candidate.getLocation();
                 System.out.println("You found a new " + newLocation.getClass().getSimpleName().toLowerCase() + " to go to: " + newLocation.getLocationName());
                 System.out.println("Would you like to go there? (y/n)");
                 System.out.print("Choice: ");
@@ -137,14 +146,14 @@ public class ExploringState implements GameState {
                 if (newLocation instanceof Town && input.equalsIgnoreCase("y") ) {
                     isExploring = false;
                     inTown = true;
-                    player.setCurrentLocation(newLocation);
+                    player.setCurrentLocation(candidate.accept());
                 } else if (newLocation instanceof Dungeon && input.equalsIgnoreCase("y") ) {
                     isExploring = false;
                     inDungeon = true;
-                    player.setCurrentLocation(newLocation);
+                    player.setCurrentLocation(candidate.accept());
                 } else {
                     System.out.println("You decided not to go there.");
-                    Location.locationMap.remove(newLocation.getLocationUUID());
+                    candidate.discard();
                     update();
                     break;
                 }
@@ -5,6 +5,7 @@ import io.github.joshuacgunn.core.location.Shop;
 import io.github.joshuacgunn.core.location.Town;
 import io.github.joshuacgunn.core.entity.Player;
 import io.github.joshuacgunn.core.location.Location;
+import io.github.joshuacgunn.core.save.SaveManager;
 import io.github.joshuacgunn.core.tickmanager.TickManager;
 
 
@@ -110,6 +111,7 @@ public class GameLoop{
      */
     public void stopGame() {
         TickManager.getInstance().stop();
+        SaveManager.awaitPendingSaves();
         this.currentGameState = null;
         System.exit(0);
     }
@@ -1,14 +1,13 @@
 package io.github.joshuacgunn.core.gameplay;
 
 import io.github.joshuacgunn.core.misc.GameMethods;
+import io.github.joshuacgunn.core.misc.RngService;
+import io.github.joshuacgunn.core.save.SaveManager;
 
 import java.io.File;
-import java.util.Random;
 import java.util.Scanner;
 
 import static io.github.joshuacgunn.core.misc.GameMethods.*;
-import static io.github.joshuacgunn.core.save.SaveManager.BACKUP_DIRECTORY;
-import static io.github.joshuacgunn.core.save.SaveManager.SAVE_DIRECTORY;
 
 public class MainMenuState implements GameState {
     Scanner scanner = new Scanner(System.in);
@@ -29,6 +28,8 @@ public class MainMenuState implements GameState {
 
     @Override
     public void handleGameState() {
+        // Let any save from the game being left finish before the save files are checked or deleted
+        SaveManager.awaitPendingSaves();
         while (inMainMenu) {
             update();
         }
@@ -48,17 +49,16 @@ public class MainMenuState implements GameState {
                 inMainMenu = false;
                 break;
             case 1:
-                if (new File("saves/player_save.json").exists()) {
+                if (SaveManager.hasSave()) {
                     System.out.println("You have already saved a game!");
                     System.out.println("Would you like to overwrite it? (y/n)");
                     System.out.print("Choice: ");
                     String input = scanner.nextLine();
                     switch (input) {
                         case "y":
-                            GameMethods.printLoadingDots("Starting new game", new Random().nextInt(1, 4));
+                            GameMethods.printLoadingDots("Starting new game", RngService.current().nextInt(1, 4));
                             try {
-                                deleteDirectory(new File(SAVE_DIRECTORY));
-                                deleteDirectory(new File(BACKUP_DIRECTORY));
+                                SaveManager.deleteSave();
                             } catch (Exception e) {
                                 e.printStackTrace();
                             }
@@ -70,13 +70,17 @@ public class MainMenuState implements GameState {
                     }
                 } else {
                     System.out.print("Starting new game");
-                    GameMethods.printLoadingDots("Starting new game", new Random().nextInt(1, 4));
+                    GameMethods.printLoadingDots("Starting new game", RngService.current().nextInt(1, 4));
                     GameMethods.initializeGame();
                     break;
                 }
                 break;
             case 2:
-                if (new File("saves/player_save.json").exists() || new File("backups/saves/").exists()) {
+                if (SaveManager.hasSave()) {
+                    GameMethods.initializeGame();
+                } else if (SaveManager.hasBackup()) {
+                    // Restore first, since a game is only loaded if the save directory holds a save
+                    System.out.println("Loaded backup from: " + SaveManager.loadBackup());
                     GameMethods.initializeGame();
                 } else {
                     System.out.println("You don't have a save!");
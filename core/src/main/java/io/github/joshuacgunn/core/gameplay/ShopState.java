@@ -6,9 +6,11 @@ import io.github.joshuacgunn.core.location.Location;
 import io.github.joshuacgunn.core.location.Shop;
 import io.github.joshuacgunn.core.location.Town;
 import io.github.joshuacgunn.core.misc.GameMethods;
+import io.github.joshuacgunn.core.misc.RngService;
+import io.github.joshuacgunn.core.save.SaveManager;
+import io.github.joshuacgunn.core.tickmanager.TickManager;
 
 import java.util.Scanner;
-import java.util.UUID;
 
 
 public class ShopState implements GameState {
@@ -33,8 +35,8 @@ public class ShopState implements GameState {
         if (player.getCurrentLocation() != null && player.getCurrentLocation() instanceof Shop) {
             this.whichShop = (Shop) parentLoop.getPlayer().getCurrentLocation();
         } else {
-            Town town = new Town(UUID.randomUUID(), false);
-            Shop shop = new Shop(Shop.ShopType.BLACKSMITH, UUID.randomUUID(), new NPC("TestNPC", UUID.randomUUID()), false, town);
+            Town town = new Town(RngService.nextUUID(), false);
+            Shop shop = new Shop(Shop.ShopType.BLACKSMITH, RngService.nextUUID(), new NPC("TestNPC", RngService.nextUUID()), false, town);
             this.whichShop = shop;
             Location.locationMap.remove(shop.getLocationUUID());
             Location.locationMap.remove(town.getLocationUUID());
@@ -75,6 +77,8 @@ public class ShopState implements GameState {
     @Override
     public void update() {
         if (!inShop) return;
+        TickManager.getInstance().runDueTicks();
+        SaveManager.autosaveIfRequested(player);
         System.out.println("What would you like to do?");
         System.out.println("0: Back to the main menu");
         System.out.println("1. Buy an item");
@@ -6,9 +6,11 @@ import io.github.joshuacgunn.core.location.Shop;
 import io.github.joshuacgunn.core.location.Town;
 import io.github.joshuacgunn.core.location.World;
 import io.github.joshuacgunn.core.misc.GameMethods;
+import io.github.joshuacgunn.core.misc.RngService;
+import io.github.joshuacgunn.core.save.SaveManager;
+import io.github.joshuacgunn.core.tickmanager.TickManager;
 
 import java.util.Scanner;
-import java.util.UUID;
 
 import static io.github.joshuacgunn.core.misc.GameMethods.printScreen;
 
@@ -36,7 +38,7 @@ public class TownState implements GameState {
         if (player.getCurrentLocation() != null && player.getCurrentLocation() instanceof Town ) {
             this.whichTown = (Town) player.getCurrentLocation();
         } else {
-            Town town = new Town(UUID.randomUUID(), false);
+            Town town = new Town(RngService.nextUUID(), false);
             whichTown = town;
             Location.locationMap.remove(town.getLocationUUID());
         }
@@ -71,7 +73,7 @@ public class TownState implements GameState {
         }
         if (inGame && !inShop) {
             System.out.println("You have left the town");
-            player.setCurrentLocation(new World(UUID.randomUUID()));
+            player.setCurrentLocation(new World(RngService.nextUUID()));
             player.setPreviousGameState(this);
             ExploringState exploringState = new ExploringState(parentLoop, true);
             GameMethods.switchGameStates(player, exploringState);
@@ -88,6 +90,8 @@ public class TownState implements GameState {
     @Override
     public void update() {
         if (!inTown) return;
+        TickManager.getInstance().runDueTicks();
+        SaveManager.autosaveIfRequested(player);
         System.out.println("What would you like to do?");
         System.out.println("0: Back to the main menu");
         System.out.println("1. Visit a shop");
@@ -3,8 +3,10 @@ package io.github.joshuacgunn.core.gson;
 import io.github.joshuacgunn.core.dto.EntityDTO;
 import io.github.joshuacgunn.core.dto.ItemDTO;
 import io.github.joshuacgunn.core.entity.Entity;
+import io.github.joshuacgunn.core.entity.EntityStats;
 import io.github.joshuacgunn.core.item.Item;
 import io.github.joshuacgunn.core.typeadapter.EntityDTOTypeAdapter;
+import io.github.joshuacgunn.core.typeadapter.EntityStatsTypeAdapter;
 import io.github.joshuacgunn.core.typeadapter.EntityTypeAdapter;
 import io.github.joshuacgunn.core.typeadapter.ItemDTOTypeAdapter;
 import io.github.joshuacgunn.core.typeadapter.ItemTypeAdapter;
@@ -17,6 +19,7 @@ public class GsonProvider {
             .registerTypeAdapter(ItemDTO.class, new ItemDTOTypeAdapter())
             .registerTypeAdapter(Entity.class, new EntityTypeAdapter())
             .registerTypeAdapter(EntityDTO.class, new EntityDTOTypeAdapter())
+            .registerTypeAdapter(EntityStats.class, new EntityStatsTypeAdapter())
             .setPrettyPrinting()
             .create();
 }
@@ -5,9 +5,11 @@ import io.github.joshuacgunn.core.container.Container;
 import io.github.joshuacgunn.core.container.Inventory;
 import io.github.joshuacgunn.core.entity.Entity;
 import io.github.joshuacgunn.core.entity.NPC;
+import io.github.joshuacgunn.core.misc.RegistryBatch;
+import io.github.joshuacgunn.core.misc.RngService;
 
 import java.util.UUID;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class Armor extends Item {
     private float armorDefense;
@@ -78,7 +80,6 @@ public class Armor extends Item {
     private ArmorSlot armorSlot;
     private ArmorQuality armorQuality;
     private ArmorMaterial armorMaterial;
-    Random rand = new Random();
     /**
      * Creates a new item and registers it in the global item map.
      *
@@ -117,14 +118,17 @@ public class Armor extends Item {
 
     public void setArmorMaterial(ArmorMaterial material) {
         this.armorMaterial = material;
+        markDirty();
     }
 
     public void setArmorQuality(ArmorQuality quality) {
         this.armorQuality = quality;
+        markDirty();
     }
 
     public void setArmorDefense(float value) {
         this.armorDefense = value;
+        markDirty();
     }
 
     /**
@@ -134,6 +138,7 @@ public class Armor extends Item {
     public void updateArmor() {
         updateQualityMaterial();
         this.armorDefense = calculateDefense();
+        markDirty();
     }
 
     /**
@@ -142,7 +147,7 @@ public class Armor extends Item {
      * of getting an exceptional quality upgrade.
      */
     public void updateQualityMaterial() {
-        Random random = new Random();
+        RandomGenerator random = RngService.current();
         float extraQualityChance = random.nextFloat();
 
         switch (this.itemRarity) {
@@ -220,7 +225,7 @@ public class Armor extends Item {
         float baseDefense = this.armorQuality.defenseValue * this.armorSlot.defenseMult;
 
         // Add small random variation (±10%) to make identical armor pieces slightly different
-        float variationFactor = 0.6f + (rand.nextFloat() * 0.2f);
+        float variationFactor = 0.6f + (RngService.current().nextFloat() * 0.2f);
 
         return Math.round(((baseDefense * this.armorMaterial.baseDefenseMultiplier) * variationFactor));
     }
@@ -239,7 +244,7 @@ public class Armor extends Item {
      * @return The generated armor piece
      */
     public static Armor generateArmor(ItemRarity rarity, Container container, boolean equipArmor) {
-        final Random rand = new Random();
+        final RandomGenerator rand = RngService.current();
         Entity entity = null;
 
         if (container instanceof Inventory inventory) {
@@ -247,13 +252,13 @@ public class Armor extends Item {
         }
         Armor.ArmorSlot slot = Armor.ArmorSlot.values()[rand.nextInt(0, 4)];
 
-        Armor generatedArmor = new Armor(UUID.randomUUID(), slot, "Generated Armor", rarity, true);
+        Armor generatedArmor = new Armor(RngService.nextUUID(), slot, "Generated Armor", rarity, true);
 
         if (equipArmor && entity != null && entity.armors.containsKey(generatedArmor.getArmorSlot())) {
             while (entity.armors.containsKey(generatedArmor.getArmorSlot())) {
-                Item.itemMap.remove(generatedArmor.getItemUUID());
+                RegistryBatch.unregister(Item.itemMap, generatedArmor.getItemUUID());
                 slot = Armor.ArmorSlot.values()[rand.nextInt(0, 4)];
-                generatedArmor = new Armor(UUID.randomUUID(), slot, "Generated Armor", rarity, true);
+                generatedArmor = new Armor(RngService.nextUUID(), slot, "Generated Armor", rarity, true);
             }
         }
 
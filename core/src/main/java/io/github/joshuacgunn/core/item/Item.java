@@ -1,5 +1,9 @@
 package io.github.joshuacgunn.core.item;
 
+import io.github.joshuacgunn.core.container.Container;
+import io.github.joshuacgunn.core.misc.RegistryBatch;
+import io.github.joshuacgunn.core.save.Trackable;
+
 import java.util.*;
 
 /**
@@ -7,7 +11,7 @@ import java.util.*;
  * Provides common functionality for all item types and manages
  * a global registry of all items.
  */
-public class Item {
+public class Item implements Trackable {
     /** Global registry mapping UUIDs to all created items */
     public static Map<UUID, Item> itemMap = new HashMap<>();
     protected String itemName;
@@ -15,6 +19,16 @@ public class Item {
     public boolean isEquippable = false;
     protected float itemValue;
     protected ItemRarity itemRarity;
+
+    /**
+     * Whether this item has changed since it was last saved.
+     * New items start dirty so the next save writes them.
+     */
+    private boolean dirty = true;
+
+    /** The container holding this item, kept up to date by the container's item list */
+    private Container container;
+
     public enum ItemRarity {
         COMMON,
         UNCOMMON,
@@ -34,7 +48,7 @@ public class Item {
     public Item(String itemName, UUID itemUUID) {
         this.itemName = itemName;
         this.itemUUID = itemUUID;
-        itemMap.put(itemUUID, this);
+        RegistryBatch.register(itemMap, itemUUID, this);
     }
 
     /**
@@ -55,8 +69,27 @@ public class Item {
         return itemUUID;
     }
 
+    /**
+     * Gets the container holding this item, such as an inventory or a chest.
+     *
+     * @return The container, or null if no container holds this item
+     */
+    public Container getContainer() {
+        return container;
+    }
+
+    /**
+     * Records which container holds this item. Containers call this when their items change.
+     *
+     * @param container The container now holding this item, or null
+     */
+    public void setContainer(Container container) {
+        this.container = container;
+    }
+
     public void setItemName(String name) {
         this.itemName = name;
+        markDirty();
     }
 
     public ItemRarity getItemRarity() {
@@ -78,6 +111,22 @@ public class Item {
 
     public void setItemValue(float value) {
         this.itemValue = value;
+        markDirty();
+    }
+
+    @Override
+    public void markDirty() {
+        this.dirty = true;
+    }
+
+    @Override
+    public boolean isDirty() {
+        return this.dirty;
+    }
+
+    @Override
+    public void markClean() {
+        this.dirty = false;
     }
 
     /**
@@ -2,17 +2,16 @@ package io.github.joshuacgunn.core.item;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.UUID;
 
 import io.github.joshuacgunn.core.entity.Entity;
+import io.github.joshuacgunn.core.misc.RngService;
 
 public class Potion extends Item {
 
     private PotionType potionType;
     private int restoreAmount;
     private List<Entity.StatusEffect> potionEffects;
-    private Random rand = new Random();
 
     public enum PotionType {
         HEALING("Healing potion"),
@@ -56,12 +55,19 @@ public class Potion extends Item {
         return potionType;
     }
 
+    /**
+     * @return How much health or mana the potion gives back
+     */
+    public int getRestoreAmount() {
+        return restoreAmount;
+    }
+
     private void generatePotionEffects() {
         switch (potionType) {
-            case HEALING:
-                this.restoreAmount = rand.nextInt(10,(itemRarity.ordinal()+1) * 10);
-            case MANA:
-                this.restoreAmount = rand.nextInt(10,(itemRarity.ordinal()+1) * 10);
+            case HEALING, MANA:
+                // Common potions restore exactly 10, each rarity above adds up to 10 more
+                this.restoreAmount = RngService.current().nextInt(10, (itemRarity.ordinal() + 1) * 10 + 1);
+                break;
         }
     }
 
@@ -4,9 +4,10 @@ import io.github.joshuacgunn.core.container.Container;
 import io.github.joshuacgunn.core.container.Inventory;
 import io.github.joshuacgunn.core.entity.Entity;
 import io.github.joshuacgunn.core.entity.NPC;
+import io.github.joshuacgunn.core.misc.RngService;
 
-import java.util.Random;
 import java.util.UUID;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a weapon used for combat in the game world.
@@ -140,10 +141,12 @@ public class Weapon extends Item {
 
     public void setWeaponQuality(WeaponQuality quality) {
         this.weaponQuality = quality;
+        markDirty();
     }
 
     public void setWeaponMaterial(WeaponMaterial material) {
         this.weaponMaterial = material;
+        markDirty();
     }
 
     /**
@@ -153,6 +156,7 @@ public class Weapon extends Item {
      */
     public void setWeaponDamage(float damage) {
         this.weaponDamage = damage;
+        markDirty();
     }
 
     /**
@@ -162,6 +166,7 @@ public class Weapon extends Item {
      */
     public void setWeaponDurability(float durability) {
         this.weaponDurability = durability;
+        markDirty();
     }
 
     /**
@@ -180,10 +185,11 @@ public class Weapon extends Item {
      */
     public void setArmorPenetration(float armorPenetration) {
         this.armorPenetration = armorPenetration;
+        markDirty();
     }
 
     public void updateQualityMaterial() {
-        Random random = new Random();
+        RandomGenerator random = RngService.current();
         float extraQualityChance = random.nextFloat();
 
         switch (this.itemRarity) {
@@ -256,7 +262,7 @@ public class Weapon extends Item {
      */
     public static Weapon generateWeapon(ItemRarity rarity, Container container) {
 
-        Weapon generatedWeapon = new Weapon("Weapon", UUID.randomUUID(), rarity, true);
+        Weapon generatedWeapon = new Weapon("Weapon", RngService.nextUUID(), rarity, true);
 
         if (container instanceof Inventory inventory) {
             Entity entity = inventory.getOwner();
@@ -289,7 +295,7 @@ public class Weapon extends Item {
     public void updateAttributes() {
         updateQualityMaterial();
 
-        Random rand = new Random();
+        RandomGenerator rand = RngService.current();
 
         // Base damage from quality
         float baseDamage = weaponQuality.damage;
@@ -313,5 +319,6 @@ public class Weapon extends Item {
         }
 
         this.weaponDurability = 30f * weaponQuality.durabilityMult;
+        markDirty();
     }
 }
@@ -1,9 +1,10 @@
 package io.github.joshuacgunn.core.location;
 
+import io.github.joshuacgunn.core.misc.RngService;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a dungeon location in the game world.
@@ -23,13 +24,12 @@ public class Dungeon extends Location {
 
     public boolean isCleared;
 
+    /** The sum of the difficulty ratings of the floors generated so far, kept up to date by the floors */
     private float difficultyRating;
 
-    Random rand = new Random();
-
     /**
      * Creates a new dungeon with the specified name and UUID.
-     * Automatically creates and adds the first floor.
+     * A new dungeon gets between 4 and 8 floors, whose contents are generated when they are first needed.
      *
      * @param name The name of the dungeon
      * @param uuid The unique identifier for the dungeon
@@ -37,7 +37,7 @@ public class Dungeon extends Location {
     public Dungeon(String name, UUID uuid, boolean newDungeon) {
         super(name, uuid);
         if (newDungeon) {
-            float floorsToMake = rand.nextFloat();
+            float floorsToMake = RngService.current().nextFloat();
             for (int i = 0; i < 3; i++) {
                 addFloor();
             }
@@ -63,23 +63,22 @@ public class Dungeon extends Location {
                 addFloor();
             }
         }
-        for (DungeonFloor floor : floors) {
-            this.difficultyRating += floor.getDifficultyRating();
-        }
     }
 
     /**
      * Adds a new floor to the dungeon.
      * The floor number is automatically assigned based on the current number of floors.
      * If this is the first floor, it is set as the current floor.
+     * Only the seed of the floor's contents is drawn now; the contents are generated when they are first needed.
      */
     public void addFloor() {
         int floorNumber = floors.size() + 1;
-        DungeonFloor newFloor = new DungeonFloor(UUID.randomUUID(), this, floorNumber, false);
+        DungeonFloor newFloor = new DungeonFloor(RngService.nextUUID(), this, floorNumber, RngService.current().nextLong());
         floors.add(newFloor);
         if (currentFloor == null) {
             currentFloor = newFloor;
         }
+        markDirty();
     }
 
     /**
@@ -89,6 +88,7 @@ public class Dungeon extends Location {
      * @return true if the floor was successfully cleared and the dungeon is marked as cleared; false otherwise
      */
     public boolean clearFloor() {
+        markDirty();
         currentFloor = floors.get(currentFloor.getFloorNumber());
         if (currentFloor != null && currentFloor.getFloorNumber() <= 1) {
             isCleared = true;
@@ -106,10 +106,70 @@ public class Dungeon extends Location {
         return floors;
     }
 
+    /**
+     * Gets the difficulty rating of this dungeon, the sum of the ratings of its floors.
+     * Rating the dungeon for the first time generates the contents of every floor, so screens show
+     * {@link #describeDifficulty()} instead and leave floors nobody has reached as seeds.
+     *
+     * @return The difficulty rating
+     */
     public float getDifficultyRating() {
+        for (DungeonFloor floor : floors) {
+            floor.generateContents();
+        }
+        return difficultyRating;
+    }
+
+    /**
+     * Gets the sum of the difficulty ratings of the floors generated so far, without generating any more.
+     * Once {@link #isRated()}, this is the rating of the whole dungeon.
+     *
+     * @return The difficulty rating of the generated floors
+     */
+    public float getGeneratedDifficultyRating() {
         return difficultyRating;
     }
 
+    /**
+     * Describes how difficult this dungeon is, as far as is known without generating floors nobody has reached.
+     *
+     * @return The rating if every floor has been generated, a lower bound if some have, or "unexplored"
+     */
+    public String describeDifficulty() {
+        if (isRated()) {
+            return difficultyRating + " difficulty";
+        }
+        return difficultyRating > 0 ? "at least " + difficultyRating + " difficulty" : "unexplored";
+    }
+
+    /**
+     * Checks whether this dungeon has been rated, without rating it.
+     *
+     * @return true if every floor has been generated, so the difficulty rating is known
+     */
+    public boolean isRated() {
+        for (DungeonFloor floor : floors) {
+            if (!floor.isGenerated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds up the ratings of the generated floors again, after one of them changed.
+     * Floors keep their own rating up to date, so this only goes through the floors, not their enemies.
+     */
+    void updateDifficultyRating() {
+        float rating = 0;
+        for (DungeonFloor floor : floors) {
+            if (floor.isGenerated()) {
+                rating += floor.getDifficultyRating();
+            }
+        }
+        this.difficultyRating = rating;
+    }
+
     /**
      * Gets the current floor of the dungeon.
      *
@@ -126,10 +186,12 @@ public class Dungeon extends Location {
      */
     public void setCurrentFloor(DungeonFloor currentFloor) {
         this.currentFloor = currentFloor;
+        markDirty();
     }
 
     public void setDifficultyRating(float rating) {
         this.difficultyRating = rating;
+        markDirty();
     }
 
     /**
@@ -148,7 +210,7 @@ public class Dungeon extends Location {
     }
 
     public static String generateDungeonName() {
-        Random rand = new Random();
+        RandomGenerator rand = RngService.current();
 
         String[] prefixes = {
                 "Forgotten", "Ancient", "Cursed", "Haunted", "Shadow",
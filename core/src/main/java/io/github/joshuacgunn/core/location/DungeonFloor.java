@@ -2,14 +2,21 @@ package io.github.joshuacgunn.core.location;
 
 import io.github.joshuacgunn.core.container.Chest;
 import io.github.joshuacgunn.core.entity.Enemy;
+import io.github.joshuacgunn.core.item.Weapon;
+import io.github.joshuacgunn.core.misc.RngService;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a floor within a dungeon in the game world.
  * Each floor is identified by a unique UUID and has a specific floor number
  * within its parent dungeon. Floors contain enemies, may have a chest with
  * items, and have a difficulty rating based on various factors.
+ * <p>
+ * A newly generated floor only holds the seed of its contents. Its enemies and chest are generated
+ * from the seed the first time anything asks for them, so floors the player never reaches cost
+ * nothing to generate or save. The same seed always generates the same contents, whenever that is.
  */
 public class DungeonFloor extends Location{
     /** The number of this floor within its parent dungeon */
@@ -17,15 +24,69 @@ public class DungeonFloor extends Location{
 
     /**
      * The calculated difficulty rating of this floor based on enemies
-     * and floor number
+     * and floor number, kept up to date as enemies join the floor and die
      */
     private float difficultyRating;
 
+    /**
+     * The stats of the living enemies on this floor, added up as they join the floor. Health counts the most
+     * each enemy's type can have rather than what it has left, so a floor is rated the same after it is loaded.
+     */
+    private float totalHp;
+    private float totalDamage;
+    private float totalDefense;
+
+    /** How many living enemies of each type are on this floor, indexed by ordinal */
+    private final int[] enemyTypeCounts = new int[Enemy.EnemyType.values().length];
+
+    /** How many types have at least one living enemy on this floor, for the variety bonus */
+    private int enemyTypesPresent;
+
+    /**
+     * Where each living enemy is in {@link #enemies}, and what it added to the totals when it joined,
+     * so the same amount comes off when it dies
+     */
+    private final Map<Enemy, EnemySlot> enemySlots = new IdentityHashMap<>();
+
+    private static final class EnemySlot {
+        private int index;
+        private final float hp;
+        private final float damage;
+        private final float defense;
+
+        private EnemySlot(int index, float hp, float damage, float defense) {
+            this.index = index;
+            this.hp = hp;
+            this.damage = damage;
+            this.defense = defense;
+        }
+    }
+
     /** Reference to the parent dungeon that contains this floor */
     private final Dungeon parentDungeon;
 
-    /** List of enemies present on this floor */
-    private ArrayList<? extends Enemy> enemiesOnFloor = new ArrayList<>();
+    /**
+     * The living enemies on this floor, in the first {@link #enemyCount} slots.
+     * An enemy that dies is replaced by the last one, so removing it does not shift the rest.
+     */
+    private Enemy[] enemies = new Enemy[8];
+
+    /** How many living enemies are on this floor */
+    private int enemyCount;
+
+    /** A read-only view of the living enemies, handed out instead of a copy */
+    private final List<Enemy> enemiesView = new AbstractList<>() {
+        @Override
+        public Enemy get(int index) {
+            Objects.checkIndex(index, enemyCount);
+            return enemies[index];
+        }
+
+        @Override
+        public int size() {
+            return enemyCount;
+        }
+    };
 
     /** Indicates whether this floor contains a chest */
     private boolean hasChest;
@@ -33,8 +94,8 @@ public class DungeonFloor extends Location{
     /** The chest on this floor, if any */
     private Chest chest;
 
-    /** Random number generator for enemy and loot generation */
-    Random rand = new Random();
+    /** The seed the enemies and chest of this floor are generated from, or null once they have been */
+    private Long seed;
 
     /**
      * Creates a new dungeon floor with a specified UUID.
@@ -45,18 +106,75 @@ public class DungeonFloor extends Location{
      * @param skipEnemyGeneration If true, enemies will not be generated automatically
      */
     public DungeonFloor(UUID floorUUID, Dungeon parentDungeon, int floorNumber, boolean skipEnemyGeneration) {
+        this(floorUUID, parentDungeon, floorNumber, (Long) null);
+        generateContents(skipEnemyGeneration);
+    }
+
+    /**
+     * Creates a new dungeon floor whose enemies and chest are generated from a seed when they are first needed.
+     *
+     * @param floorUUID The unique identifier for this floor
+     * @param parentDungeon The dungeon that contains this floor
+     * @param floorNumber The number of this floor within the dungeon
+     * @param seed The seed to generate the contents of the floor from
+     */
+    public DungeonFloor(UUID floorUUID, Dungeon parentDungeon, int floorNumber, long seed) {
+        this(floorUUID, parentDungeon, floorNumber, Long.valueOf(seed));
+    }
+
+    private DungeonFloor(UUID floorUUID, Dungeon parentDungeon, int floorNumber, Long seed) {
         super("Floor " + floorNumber + " in " + parentDungeon.getLocationName(), floorUUID );
         this.floorNumber = floorNumber;
         this.parentDungeon = parentDungeon;
+        this.seed = seed;
+    }
+
+    /**
+     * Generates the enemies and chest of this floor from its seed, if they have not been generated yet.
+     * Floors below this one are generated first, since each floor is harder than the one before it.
+     */
+    public void generateContents() {
+        if (seed == null) {
+            return;
+        }
+        long floorSeed = seed;
+        seed = null;
+        RngService.generate(floorSeed, () -> {
+            generateContents(false);
+            return this;
+        });
+        // The floor is now saved with its contents instead of its seed
+        markDirty();
+    }
+
+    /**
+     * Checks whether the contents of this floor have been generated.
+     *
+     * @return true if the floor has its enemies and chest, false if it only has its seed
+     */
+    public boolean isGenerated() {
+        return seed == null;
+    }
+
+    /**
+     * Gets the seed the contents of this floor will be generated from.
+     *
+     * @return The seed, or null if the contents have been generated
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    private void generateContents(boolean skipEnemyGeneration) {
         if (!skipEnemyGeneration) {
             generateEnemies();
-            for (Enemy enemy : enemiesOnFloor) {
-                enemy.setCurrentLocation(this);
+            for (int i = 0; i < enemyCount; i++) {
+                enemies[i].setCurrentLocation(this);
             }
         }
-        this.difficultyRating = calculateDifficulty();
+        updateDifficultyRating();
         this.hasChest = true;
-        this.chest = new Chest(Chest.ChestRarity.COMMON, UUID.randomUUID(), false,this);
+        this.chest = new Chest(Chest.ChestRarity.COMMON, RngService.nextUUID(), false,this);
     }
 
     /**
@@ -66,22 +184,86 @@ public class DungeonFloor extends Location{
      * @param enemiesOnFloor The list of enemies to place on this floor
      */
     public void setEnemiesOnFloor(ArrayList<Enemy> enemiesOnFloor) {
-        this.enemiesOnFloor = enemiesOnFloor;
+        generateContents();
+        clearEnemies();
+        for (Enemy enemy : enemiesOnFloor) {
+            addEnemy(enemy);
+        }
+        updateDifficultyRating();
+        markDirty();
     }
 
     /**
-     * Gets the list of enemies currently on this floor.
+     * Removes an enemy that died from this floor, taking it out of the floor's difficulty rating.
      *
-     * @return List of enemies on this floor
+     * @param enemy The enemy to remove
      */
-    public ArrayList<? extends Enemy> getEnemiesOnFloor() {
-        ArrayList<Enemy> aliveEnemies = new ArrayList<>();
-        for (Enemy enemy : enemiesOnFloor) {
-            if (enemy.isAlive()) {
-                aliveEnemies.add(enemy);
-            }
+    public void removeEnemy(Enemy enemy) {
+        generateContents();
+        if (!enemySlots.containsKey(enemy)) {
+            return;
+        }
+        // The next floor is generated from this floor's rating and enemies, so generate it before they change
+        List<DungeonFloor> floors = parentDungeon.getFloors();
+        if (floorNumber < floors.size()) {
+            floors.get(floorNumber).generateContents();
+        }
+        EnemySlot slot = enemySlots.remove(enemy);
+        // Move the last enemy into the gap
+        Enemy last = enemies[--enemyCount];
+        enemies[slot.index] = last;
+        enemies[enemyCount] = null;
+        if (last != enemy) {
+            enemySlots.get(last).index = slot.index;
         }
-        return aliveEnemies;
+
+        if (--enemyTypeCounts[enemy.getType().ordinal()] == 0) {
+            enemyTypesPresent--;
+        }
+        if (enemyCount == 0) {
+            // Start again from zero rather than keep whatever rounding error the subtractions left
+            totalHp = 0;
+            totalDamage = 0;
+            totalDefense = 0;
+        } else {
+            totalHp -= slot.hp;
+            totalDamage -= slot.damage;
+            totalDefense -= slot.defense;
+        }
+        updateDifficultyRating();
+        markDirty();
+    }
+
+    /**
+     * Gets the enemies currently on this floor. The list is a read-only view that changes as enemies die,
+     * not a copy, so copy it first to kill enemies while going through it.
+     *
+     * @return List of enemies on this floor
+     */
+    public List<Enemy> getEnemiesOnFloor() {
+        generateContents();
+        return enemiesView;
+    }
+
+    /**
+     * Gets how many enemies are currently on this floor.
+     *
+     * @return The number of living enemies
+     */
+    public int getEnemyCount() {
+        generateContents();
+        return enemyCount;
+    }
+
+    /**
+     * Picks one of the enemies on this floor at random.
+     *
+     * @param random The random generator to pick with
+     * @return The enemy, or null if the floor has been cleared
+     */
+    public Enemy getRandomEnemy(RandomGenerator random) {
+        generateContents();
+        return enemyCount == 0 ? null : enemies[random.nextInt(enemyCount)];
     }
 
     /**
@@ -108,11 +290,16 @@ public class DungeonFloor extends Location{
      * @param rating The new difficulty rating value
      */
     public void setDifficultyRating(float rating) {
+        generateContents();
         this.difficultyRating = rating;
+        parentDungeon.updateDifficultyRating();
+        markDirty();
     }
 
     public void setChest(Chest chest) {
+        generateContents();
         this.chest = chest;
+        markDirty();
     }
 
     /**
@@ -121,6 +308,7 @@ public class DungeonFloor extends Location{
      * @return The difficulty rating
      */
     public float getDifficultyRating() {
+        generateContents();
         return this.difficultyRating;
     }
 
@@ -130,6 +318,7 @@ public class DungeonFloor extends Location{
      * @return true if the floor has a chest, false otherwise
      */
     public boolean isHasChest() {
+        generateContents();
         return hasChest;
     }
 
@@ -139,7 +328,21 @@ public class DungeonFloor extends Location{
      * @param hasChest true if the floor should have a chest, false otherwise
      */
     public void setHasChest(boolean hasChest) {
+        generateContents();
         this.hasChest = hasChest;
+        markDirty();
+    }
+
+    /**
+     * Marks this floor as changed. Floors are saved as part of their parent dungeon,
+     * so the dungeon is marked as well.
+     */
+    @Override
+    public void markDirty() {
+        super.markDirty();
+        if (parentDungeon != null) {
+            parentDungeon.markDirty();
+        }
     }
 
     /**
@@ -148,6 +351,7 @@ public class DungeonFloor extends Location{
      * @return The chest object on this floor, or null if no chest exists
      */
     public Chest getChest() {
+        generateContents();
         return chest;
     }
 
@@ -161,33 +365,85 @@ public class DungeonFloor extends Location{
      * by the difficulty rating and highest enemy type from the previous floor.
      * Newly generated enemies are assigned a random type and unique identifier (UUID).
      *
-     * The generated list of enemies is assigned to the `enemiesOnFloor` field.
+     * The generated enemies are placed on this floor.
      */
     private void generateEnemies() {
-        ArrayList<Enemy> enemies = new ArrayList<>();
-        Random rand = new Random();
+        clearEnemies();
+        RandomGenerator rand = RngService.current();
 
         if (floorNumber == 1) {
             for (int i = 0; i < rand.nextInt(3, 5); i++) {
-                Enemy enemy = new Enemy(Enemy.EnemyType.values()[rand.nextInt(0, 4)], UUID.randomUUID(), true);
-                enemies.add(enemy);
+                Enemy enemy = new Enemy(Enemy.EnemyType.values()[rand.nextInt(0, 4)], RngService.nextUUID(), true);
+                addEnemy(enemy);
             }
         } else {
-            int previousFloorDifficulty = (int) Math.ceil(parentDungeon.getFloors().get(floorNumber - 2).difficultyRating);
-            int previousHighestEnemy = 0;
+            DungeonFloor previousFloor = parentDungeon.getFloors().get(floorNumber - 2);
+            int previousFloorDifficulty = (int) Math.ceil(previousFloor.getDifficultyRating());
+            int previousHighestEnemy = previousFloor.getHighestEnemyType();
 
-            for (Enemy enemy : parentDungeon.getFloors().get(floorNumber - 2).getEnemiesOnFloor()) {
-                if (enemy.getType().ordinal() > previousHighestEnemy) {
-                    previousHighestEnemy = enemy.getType().ordinal();
-                }
+            for (int i = 0; i < Math.min(Math.floor(this.floorNumber * 1.3), Math.ceil(previousFloorDifficulty*1.9)) + 1; i++) {
+                Enemy enemy = new Enemy(Enemy.EnemyType.values()[rand.nextInt(Math.max(0, previousHighestEnemy-1), Math.min(Enemy.EnemyType.values().length-2, previousHighestEnemy+1))] , RngService.nextUUID(), true);
+                addEnemy(enemy);
             }
+        }
+    }
 
-            for (int i = 0; i < Math.min(Math.floor(this.floorNumber * 1.3), Math.ceil(previousFloorDifficulty*1.9)) + 1; i++) {
-                Enemy enemy = new Enemy(Enemy.EnemyType.values()[rand.nextInt(Math.max(0, previousHighestEnemy-1), Math.min(Enemy.EnemyType.values().length-2, previousHighestEnemy+1))] , UUID.randomUUID(), true);
-                enemies.add(enemy);
+    /**
+     * Gets the strongest type among the living enemies on this floor.
+     *
+     * @return The ordinal of the strongest enemy type, or 0 if there are no enemies
+     */
+    public int getHighestEnemyType() {
+        generateContents();
+        for (int type = enemyTypeCounts.length - 1; type > 0; type--) {
+            if (enemyTypeCounts[type] > 0) {
+                return type;
             }
         }
-        enemiesOnFloor = enemies;
+        return 0;
+    }
+
+    /**
+     * Puts an enemy on this floor and adds it to the running totals.
+     * Does not rate the floor again, so several enemies can be added first.
+     */
+    private void addEnemy(Enemy enemy) {
+        if (enemySlots.containsKey(enemy)) {
+            return;
+        }
+        if (enemyCount == enemies.length) {
+            enemies = Arrays.copyOf(enemies, enemyCount * 2);
+        }
+        Weapon weapon = enemy.getCurrentWeapon();
+        EnemySlot slot = new EnemySlot(enemyCount, enemy.getType().getMaxHp(), weapon == null ? 0 : weapon.getWeaponDamage(),
+                enemy.getEntityDefense());
+        enemies[enemyCount++] = enemy;
+        enemySlots.put(enemy, slot);
+        totalHp += slot.hp;
+        totalDamage += slot.damage;
+        totalDefense += slot.defense;
+        if (enemyTypeCounts[enemy.getType().ordinal()]++ == 0) {
+            enemyTypesPresent++;
+        }
+    }
+
+    private void clearEnemies() {
+        Arrays.fill(enemies, 0, enemyCount, null);
+        enemyCount = 0;
+        totalHp = 0;
+        totalDamage = 0;
+        totalDefense = 0;
+        Arrays.fill(enemyTypeCounts, 0);
+        enemyTypesPresent = 0;
+        enemySlots.clear();
+    }
+
+    /**
+     * Rates this floor again from the running totals and passes the new rating on to the dungeon.
+     */
+    private void updateDifficultyRating() {
+        this.difficultyRating = calculateDifficulty();
+        parentDungeon.updateDifficultyRating();
     }
 
 
@@ -197,43 +453,32 @@ public class DungeonFloor extends Location{
      * - Enemy statistics (HP, damage, defense)
      * - Number of enemies
      * - Variety of enemy types
+     * <p>
+     * The stats come from running totals kept as enemies join the floor and die,
+     * so this does not go through the enemies.
      *
      * @return The calculated difficulty rating as a float
      */
     public float calculateDifficulty() {
+        generateContents();
         // Handle empty enemy list case
-        if (enemiesOnFloor.isEmpty()) {
+        if (enemyCount == 0) {
             return 0.0f;
         }
 
         // Base difficulty starts with the floor number
         float difficulty = floorNumber * 0.2f;
 
-        // Total stats across all enemies
-        float totalHp = 0;
-        float totalDamage = 0;
-        float totalDefense = 0;
-
-        // Count different enemy types for variety bonus
-        Set<String> enemyTypes = new HashSet<>();
-
-        for (Enemy enemy : enemiesOnFloor) {
-            totalHp += enemy.getEntityHp();
-            totalDamage += enemy.getCurrentWeapon().getWeaponDamage();
-            totalDefense += enemy.getEntityDefense();
-            enemyTypes.add(enemy.getClass().getSimpleName());
-        }
-
         // Calculate average stats but don't divide by enemy count
         float hpFactor = totalHp / 60f;
         float damageFactor = totalDamage / 25f;
         float defenseFactor = totalDefense / 25f;
 
         // Number of enemies is a multiplier rather than divisor
-        float enemyCountFactor = 0.75f + (enemiesOnFloor.size() * 0.25f);
+        float enemyCountFactor = 0.75f + (enemyCount * 0.25f);
 
         // Variety bonus (more types = more difficult)
-        float varietyBonus = (enemyTypes.size() - 1) * 0.15f;
+        float varietyBonus = (enemyTypesPresent - 1) * 0.15f;
 
         // Combine factors
         difficulty += (hpFactor + damageFactor + defenseFactor) * enemyCountFactor + varietyBonus;
@@ -1,6 +1,9 @@
 package io.github.joshuacgunn.core.location;
 
-import org.reflections.Reflections;
+import io.github.joshuacgunn.core.misc.RegistryBatch;
+import io.github.joshuacgunn.core.misc.RngService;
+import io.github.joshuacgunn.core.misc.TypeRegistry;
+import io.github.joshuacgunn.core.save.Trackable;
 
 import java.util.*;
 
@@ -9,15 +12,21 @@ import java.util.*;
  * Provides common functionality for all location types and manages
  * a global registry of all locations.
  */
-public abstract class Location {
+public abstract class Location implements Trackable {
     /** The name of this location */
     protected String locationName;
 
     /** Unique identifier for this location */
     protected UUID locationUUID;
 
-    /** Global registry mapping UUIDs to all created locations */
-    public static Map<UUID, Location> locationMap = new HashMap<>();
+    /** Global registry mapping UUIDs to all created locations, loading saved ones on demand */
+    public static LocationRegistry locationMap = new LocationRegistry();
+
+    /**
+     * Whether this location has changed since it was last saved.
+     * New locations start dirty so the next save writes them.
+     */
+    private boolean dirty = true;
 
     /**
      * Creates a new location and registers it in the global location map.
@@ -28,7 +37,7 @@ public abstract class Location {
     public Location(String name, UUID uuid) {
         this.locationName = name;
         this.locationUUID = uuid;
-        locationMap.put(uuid, this);
+        RegistryBatch.register(locationMap, uuid, this);
     }
 
     /**
@@ -71,25 +80,56 @@ public abstract class Location {
 
     public void setLocationName(String locationName) {
         this.locationName = locationName;
+        markDirty();
+    }
+
+    @Override
+    public void markDirty() {
+        this.dirty = true;
+    }
+
+    @Override
+    public boolean isDirty() {
+        return this.dirty;
+    }
+
+    @Override
+    public void markClean() {
+        this.dirty = false;
     }
 
+    /**
+     * Generates the next location of the world, a dungeon or a town, from its own seed,
+     * so the same world seed always generates the same locations in the same order.
+     *
+     * @return The generated location
+     */
     public static Location generateLocation() {
-        Random rand = new Random();
-        try {
-            Reflections reflection = new Reflections("com.github.joshuacgunn");
-            Set<Class<? extends Location>> locationClasses = reflection.getSubTypesOf(Location.class);
-
-            int extendedClasses = locationClasses.size();
-            float generatePercent = (100.0f / extendedClasses) / 100.0f;
-            float chanceToGenerate = rand.nextFloat();
-
-            if (chanceToGenerate < 0.5f) {
-                return new Dungeon(Dungeon.generateDungeonName(), UUID.randomUUID(), true);
-            } else {
-                return new Town(UUID.randomUUID(), true);
+        return generateLocation(RngService.nextLocationSeed());
+    }
+
+    /**
+     * Generates a dungeon or a town from a location seed. The same seed always generates the same location,
+     * whichever thread generates it.
+     *
+     * @param seed The location seed, from {@link RngService#nextLocationSeed()}
+     * @return The generated location
+     */
+    public static Location generateLocation(long seed) {
+        return RngService.generate(seed, () -> {
+            try {
+                int extendedClasses = TypeRegistry.countSubTypesOf(Location.class);
+                float generatePercent = (100.0f / extendedClasses) / 100.0f;
+                float chanceToGenerate = RngService.current().nextFloat();
+
+                if (chanceToGenerate < 0.5f) {
+                    return new Dungeon(Dungeon.generateDungeonName(), RngService.nextUUID(), true);
+                } else {
+                    return new Town(RngService.nextUUID(), true);
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
             }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        });
     }
 }
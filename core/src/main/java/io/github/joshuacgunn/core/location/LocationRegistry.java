@@ -0,0 +1,201 @@
+package io.github.joshuacgunn.core.location;
+
+import io.github.joshuacgunn.core.misc.NameService;
+
+import java.util.*;
+
+/**
+ * The global registry of locations, which can also hold locations that are saved but not loaded yet.
+ * <p>
+ * A save can install a {@link Loader} that knows which dungeons and towns are still on disk. Looking up
+ * one of them, or one of its floors or shops, with {@link #get(Object)} or {@link #containsKey(Object)}
+ * loads it on the calling thread first. Anything that walks the whole registry, such as {@link #values()},
+ * loads every pending location so callers always see the complete world. While a location is being
+ * loaded, walking the registry only sees the locations that are already loaded, so building one
+ * location never pulls in the rest.
+ * <p>
+ * Removing a town, or clearing the registry, frees the town names in {@link NameService}.
+ */
+public class LocationRegistry extends AbstractMap<UUID, Location> {
+    /**
+     * Loads saved locations into the registry on demand.
+     */
+    public interface Loader {
+        /**
+         * @param uuid The UUID of a location or of one of its floors or shops
+         * @return true if the location is saved but not loaded yet
+         */
+        boolean isPending(UUID uuid);
+
+        /**
+         * Loads a pending location, with everything it owns, into the registry.
+         *
+         * @param uuid The UUID of the location or of one of its floors or shops
+         */
+        void load(UUID uuid);
+
+        /**
+         * Loads every pending location.
+         */
+        void loadAll();
+
+        /**
+         * Forgets a pending location without loading it, so it is treated as removed.
+         *
+         * @param uuid The UUID of the location
+         */
+        void discard(UUID uuid);
+    }
+
+    /** Every loaded location, keyed by its UUID */
+    private final Map<UUID, Location> locations = new HashMap<>();
+
+    private final Set<Entry<UUID, Location>> entrySet = new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<UUID, Location>> iterator() {
+            Iterator<Entry<UUID, Location>> iterator = locations.entrySet().iterator();
+            return new Iterator<>() {
+                private Location current;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Entry<UUID, Location> next() {
+                    Entry<UUID, Location> entry = iterator.next();
+                    current = entry.getValue();
+                    return entry;
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    removed(current);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return locations.size();
+        }
+    };
+
+    /** Loads pending locations, or null if every location is loaded */
+    private Loader loader;
+
+    /** Set while the loader is running */
+    private boolean loading = false;
+
+    /**
+     * Sets what loads pending locations. Pass null once every location is loaded or the world is replaced.
+     *
+     * @param loader The loader, or null
+     */
+    public void setLoader(Loader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * @return The loader of pending locations, or null if there is none
+     */
+    public Loader getLoader() {
+        return loader;
+    }
+
+    /**
+     * Returns the locations that are loaded, without loading pending ones.
+     *
+     * @return A view of the loaded locations
+     */
+    public Collection<Location> loadedValues() {
+        return locations.values();
+    }
+
+    /**
+     * @param uuid A location UUID
+     * @return true if the location is saved but not loaded yet
+     */
+    public boolean isPending(UUID uuid) {
+        return loader != null && !locations.containsKey(uuid) && loader.isPending(uuid);
+    }
+
+    private void loadIfPending(Object key) {
+        if (key instanceof UUID uuid && isPending(uuid)) {
+            runLoader(() -> loader.load(uuid));
+        }
+    }
+
+    private void loadAll() {
+        if (loader != null && !loading) {
+            runLoader(loader::loadAll);
+        }
+    }
+
+    private void runLoader(Runnable load) {
+        boolean outermost = !loading;
+        loading = true;
+        try {
+            load.run();
+        } finally {
+            if (outermost) {
+                loading = false;
+            }
+        }
+    }
+
+    @Override
+    public Location put(UUID uuid, Location location) {
+        return locations.put(uuid, location);
+    }
+
+    @Override
+    public Location get(Object key) {
+        loadIfPending(key);
+        return locations.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        loadIfPending(key);
+        return locations.containsKey(key);
+    }
+
+    @Override
+    public Location remove(Object key) {
+        if (key instanceof UUID uuid && isPending(uuid)) {
+            loader.discard(uuid);
+            return null;
+        }
+        Location removed = locations.remove(key);
+        removed(removed);
+        return removed;
+    }
+
+    @Override
+    public Set<Entry<UUID, Location>> entrySet() {
+        loadAll();
+        return entrySet;
+    }
+
+    @Override
+    public int size() {
+        loadAll();
+        return locations.size();
+    }
+
+    @Override
+    public void clear() {
+        loader = null;
+        locations.clear();
+        NameService.clearTownNames();
+    }
+
+    private static void removed(Location location) {
+        if (location instanceof Town town) {
+            town.releaseName();
+        }
+    }
+}
@@ -1,16 +1,17 @@
 package io.github.joshuacgunn.core.location;
 
-import com.github.javafaker.Faker;
 import io.github.joshuacgunn.core.entity.NPC;
 import io.github.joshuacgunn.core.item.Armor;
 import io.github.joshuacgunn.core.item.Item;
 import io.github.joshuacgunn.core.item.Weapon;
 import io.github.joshuacgunn.core.misc.GameMethods;
+import io.github.joshuacgunn.core.misc.NameService;
+import io.github.joshuacgunn.core.misc.RngService;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.UUID;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a shop location in the game world where players can interact with NPCs,
@@ -127,6 +128,19 @@ public class Shop extends Location {
      */
     public void setNpcsInShop(List<NPC> npcsInShop) {
         this.npcsInShop = npcsInShop;
+        markDirty();
+    }
+
+    /**
+     * Marks this shop as changed. Shops are saved as part of their parent town,
+     * so the town is marked as well.
+     */
+    @Override
+    public void markDirty() {
+        super.markDirty();
+        if (parentTown != null) {
+            parentTown.markDirty();
+        }
     }
 
     /**
@@ -136,13 +150,12 @@ public class Shop extends Location {
      * @return List of newly generated NPCs
      */
     public List<NPC> generateNPCs() {
-        Faker faker = new Faker();
         List<NPC> npcsToReturn = new ArrayList<>();
-        Random random = new Random();
+        RandomGenerator random = RngService.current();
         int npcsToGenerate = random.nextInt(1, shopType.maxNpcCount);
 
         for (int i = 0; i <= npcsToGenerate; i++) {
-            NPC npc = new NPC(faker.name().firstName(), UUID.randomUUID());
+            NPC npc = new NPC(NameService.firstName(), RngService.nextUUID());
             npcsToReturn.add(npc);
             npc.setCurrentLocation(this);
         }
@@ -152,7 +165,7 @@ public class Shop extends Location {
 
     public List<Item> generateVendorItems() {
         List<Item> items = new ArrayList<>();
-        Random random = new Random();
+        RandomGenerator random = RngService.current();
         // Common 3-4
         // Uncommon 2-3
         // Rare 1-2
@@ -1,17 +1,21 @@
 package io.github.joshuacgunn.core.location;
 
-import com.github.javafaker.Faker;
 import io.github.joshuacgunn.core.entity.Entity;
 import io.github.joshuacgunn.core.entity.NPC;
+import io.github.joshuacgunn.core.misc.NameService;
+import io.github.joshuacgunn.core.misc.RegistryBatch;
+import io.github.joshuacgunn.core.misc.RngService;
 
 import java.util.ArrayList;
-import java.util.Random;
 import java.util.UUID;
 
 public class Town extends Location {
     private int shopCount;
     private ArrayList<Shop> shopsInTown = new ArrayList<>();
 
+    /** Whether this town holds its name, which a new town only does once it joins the world */
+    private boolean nameTaken;
+
     /**
      * Creates a new town instance with a randomly generated name and shops.
      *
@@ -22,11 +26,12 @@ public class Town extends Location {
     public Town(UUID uuid, boolean isNew) {
         super(generateTownName(), uuid);
         if (isNew) {
-            this.shopCount = Math.max(1, new Random().nextInt(Shop.ShopType.values().length)+1);
+            RegistryBatch.whenPublished(this::takeName);
+            this.shopCount = Math.max(1, RngService.current().nextInt(Shop.ShopType.values().length)+1);
             // If shopcount is only 1, generate a tavern. Wouldn't want to live somewhere you couldn't drink right?
             if (shopCount == 1) {
-                NPC npc = new NPC(new Faker().name().firstName(), UUID.randomUUID());
-                Shop shop = new Shop(Shop.ShopType.TAVERN, UUID.randomUUID(), npc, true, this);
+                NPC npc = new NPC(NameService.firstName(), RngService.nextUUID());
+                Shop shop = new Shop(Shop.ShopType.TAVERN, RngService.nextUUID(), npc, true, this);
                 npc.setCurrentLocation(shop);
                 shopsInTown.add(shop);
             } else {
@@ -45,10 +50,12 @@ public class Town extends Location {
 
     public void setShopCount(int shopCount) {
         this.shopCount = shopCount;
+        markDirty();
     }
 
     public void setShopsInTown(ArrayList<Shop> shopsInTown) {
         this.shopsInTown = shopsInTown;
+        markDirty();
     }
 
     /**
@@ -59,19 +66,18 @@ public class Town extends Location {
      */
 
     public ArrayList<Shop> generateShops() {
-        Faker faker = new Faker();
         ArrayList<Shop> shops = new ArrayList<>();
         int i = 0;
         outerloop: while (i < shopCount) {
-            NPC npc = new NPC(faker.name().firstName(), UUID.randomUUID());
-            Shop.ShopType shopToMake = Shop.ShopType.values()[new Random().nextInt(Shop.ShopType.values().length)];
+            NPC npc = new NPC(NameService.firstName(), RngService.nextUUID());
+            Shop.ShopType shopToMake = Shop.ShopType.values()[RngService.current().nextInt(Shop.ShopType.values().length)];
             for (Shop shop : shops) {
                 if (shop.getShopType() == shopToMake) {
-                    Entity.entityMap.remove(npc.getEntityUUID());
+                    RegistryBatch.unregister(Entity.entityMap, npc.getEntityUUID());
                     continue outerloop;
                 }
             }
-            Shop shop = new Shop(shopToMake, UUID.randomUUID(), npc, true, this);
+            Shop shop = new Shop(shopToMake, RngService.nextUUID(), npc, true, this);
             npc.setCurrentLocation(shop);
             shops.add(shop);
             i++;
@@ -80,66 +86,61 @@ public class Town extends Location {
     }
 
     /**
-     * Generates a unique town name using various fantasy-themed sources.
+     * Renames the town, freeing its old name for other towns and taking the new one.
+     *
+     * @param locationName The new name
+     */
+    @Override
+    public void setLocationName(String locationName) {
+        releaseName();
+        NameService.takeTownName(locationName);
+        nameTaken = true;
+        super.setLocationName(locationName);
+    }
+
+    /**
+     * Settles what this town is called when it joins the world, taking the name it picked or the next free one.
+     */
+    private void takeName() {
+        super.setLocationName(NameService.takeFreeTownName(getLocationName()));
+        nameTaken = true;
+    }
+
+    /**
+     * Renames a town that has not joined the world yet to the name it would get if it joined now,
+     * without taking it.
+     */
+    void previewName() {
+        if (!nameTaken) {
+            super.setLocationName(NameService.freeTownName(getLocationName()));
+        }
+    }
+
+    /**
+     * Frees this town's name for other towns, if it holds it.
+     */
+    void releaseName() {
+        if (nameTaken) {
+            NameService.releaseTownName(getLocationName());
+            nameTaken = false;
+        }
+    }
+
+    /**
+     * Generates a town name using various fantasy-themed sources.
      * Names can be drawn from:
      * - Pokemon locations
      * - Game of Thrones cities
      * - The Witcher locations
      * - Lord of the Rings locations
      *
-     * Ensures generated names are unique across all existing towns.
+     * The name is not taken yet; a new town takes it, or the next free name, when it joins the world,
+     * so names stay unique across all existing towns.
      *
-     * @return A unique generated town name
+     * @return A generated town name
      */
 
     public static String generateTownName() {
-        Random rand = new Random();
-        float nameChance = rand.nextFloat();
-        Faker faker = new Faker();
-        boolean generated = false;
-
-        outerloop: while (!generated) {
-            if (nameChance < 0.25f) {
-                String name = faker.pokemon().location();
-                for (Town town : Location.getLocationsByType(Town.class)) {
-                    if (name.equals(town.getLocationName())) {
-                        continue outerloop;
-                    }
-                }
-                generated = true;
-                return name;
-            } else if (nameChance < .5f) {
-                String name = faker.gameOfThrones().city();
-                for (Town town : Location.getLocationsByType(Town.class)) {
-                    if (name.equals(town.getLocationName())) {
-                        continue outerloop;
-                    }
-                }
-                generated = true;
-                return name;
-            } else if (nameChance < .75f) {
-                String name = faker.witcher().location();
-                for (Town town : Location.getLocationsByType(Town.class)) {
-                    if (name.equals(town.getLocationName())) {
-                        continue outerloop;
-                    }
-                }
-                generated = true;
-                return name;
-            } else if (nameChance < .96f) {
-                String name = faker.lordOfTheRings().location();
-                for (Town town : Location.getLocationsByType(Town.class)) {
-                    if (name.equals(town.getLocationName())) {
-                        continue outerloop;
-                    }
-                }
-                generated = true;
-                return name;
-            } else {
-                generated = true;
-                return "Silver Skalitz";
-            }
-        }
-        return null;
+        return NameService.townName();
     }
 }
@@ -0,0 +1,194 @@
+package io.github.joshuacgunn.core.location;
+
+import io.github.joshuacgunn.core.misc.RegistryBatch;
+import io.github.joshuacgunn.core.misc.RngService;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates new locations ahead of time, so exploring finds one straight away.
+ * <p>
+ * The generator keeps a pool of candidate dungeons and towns, built in the background on a pool of
+ * worker threads. Each candidate is built from the next location seed of the world, taken in order on
+ * the thread that asks for it, and candidates are handed out first in, first out, so the world gets the
+ * same locations in the same order as when they were generated one at a time. Taking a candidate starts
+ * building another one to replace it.
+ * <p>
+ * A candidate is not part of the world until it is accepted. Everything it creates is held in a
+ * {@link RegistryBatch} instead of being added to the global registries from a worker thread, and
+ * {@link Candidate#accept()} registers it all on the game thread. A town built ahead of time only picks the
+ * name it would like; it takes its name when it is accepted, so name clashes are settled on the game thread
+ * in the order the towns join the world, whichever worker finished first.
+ * <p>
+ * The pool size comes from the {@value #POOL_SIZE_PROPERTY} system property.
+ */
+public class WorldGenerator {
+    /** The system property holding how many locations are generated ahead of time */
+    public static final String POOL_SIZE_PROPERTY = "dungeoncrawler.pregeneratedLocations";
+
+    private static final int DEFAULT_POOL_SIZE = 4;
+
+    /** Leaves a core free for the game thread */
+    private static final int GENERATOR_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    /** Builds candidates */
+    private static final ExecutorService workers = Executors.newFixedThreadPool(GENERATOR_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "world-generator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static WorldGenerator instance;
+
+    /**
+     * A generated location that is not part of the world yet.
+     */
+    public static final class Candidate {
+        private final Location location;
+        private final RegistryBatch batch;
+
+        private Candidate(Location location, RegistryBatch batch) {
+            this.location = location;
+            this.batch = batch;
+        }
+
+        /**
+         * @return The location, which is not registered until it is accepted
+         */
+        public Location getLocation() {
+            return location;
+        }
+
+        /**
+         * Adds the location, and everything generated with it, to the world. Call from the game thread.
+         *
+         * @return The location
+         */
+        public Location accept() {
+            batch.publish();
+            return location;
+        }
+
+        /**
+         * Throws the location away. Nothing it generated joined the world, so nothing has to be undone.
+         */
+        public void discard() {
+            batch.discard();
+        }
+    }
+
+    /** Candidates being built or ready, oldest first */
+    private final Deque<Future<Candidate>> pool = new ArrayDeque<>();
+
+    private int poolSize;
+
+    private WorldGenerator() {
+        this.poolSize = Integer.getInteger(POOL_SIZE_PROPERTY, DEFAULT_POOL_SIZE);
+    }
+
+    public static synchronized WorldGenerator getInstance() {
+        if (instance == null) {
+            instance = new WorldGenerator();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts filling the pool in the background.
+     */
+    public synchronized void start() {
+        refill();
+    }
+
+    /**
+     * Takes the oldest candidate, waiting for it if it is still being built, and starts building one to
+     * replace it. With a pool size of 0 the candidate is built on the calling thread. A town is shown under
+     * the name it would get if it were accepted now. Call from the game thread.
+     *
+     * @return The candidate, to be accepted or discarded
+     */
+    public Candidate next() {
+        Future<Candidate> oldest;
+        synchronized (this) {
+            refill();
+            oldest = pool.poll();
+            refill();
+        }
+        Candidate candidate;
+        if (oldest == null) {
+            candidate = build(RngService.nextLocationSeed());
+        } else {
+            candidate = await(oldest);
+        }
+        if (candidate.location instanceof Town town) {
+            town.previewName();
+        }
+        return candidate;
+    }
+
+    private static Candidate await(Future<Candidate> candidate) {
+        try {
+            return candidate.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating a location", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to generate a location", e.getCause());
+        }
+    }
+
+    /**
+     * @return Whether {@link #next()} would return without waiting
+     */
+    public synchronized boolean isReady() {
+        return !pool.isEmpty() && pool.peek().isDone();
+    }
+
+    /**
+     * Throws away every candidate, such as when another world is loaded. Candidates still being built are
+     * cancelled, since none of them has changed the world.
+     */
+    public synchronized void clear() {
+        for (Future<Candidate> candidate : pool) {
+            candidate.cancel(false);
+        }
+        pool.clear();
+    }
+
+    /**
+     * Sets how many candidates are kept ready. A smaller pool shrinks as candidates are taken.
+     *
+     * @param poolSize The number of candidates, at least 0
+     */
+    public synchronized void setPoolSize(int poolSize) {
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("Pool size cannot be negative: " + poolSize);
+        }
+        this.poolSize = poolSize;
+    }
+
+    public synchronized int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Starts building candidates until the pool is full, taking their seeds in order on the calling thread.
+     */
+    private void refill() {
+        while (pool.size() < poolSize) {
+            long seed = RngService.nextLocationSeed();
+            pool.add(workers.submit(() -> build(seed)));
+        }
+    }
+
+    private static Candidate build(long seed) {
+        RegistryBatch batch = new RegistryBatch();
+        Location location = batch.collect(() -> Location.generateLocation(seed));
+        return new Candidate(location, batch);
+    }
+}
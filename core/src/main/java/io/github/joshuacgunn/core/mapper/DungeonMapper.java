@@ -43,11 +43,20 @@ public interface DungeonMapper {
         dungeonDTO.setDungeonUUID(dungeon.getLocationUUID());
         dungeonDTO.setCurrentFloorUUID(dungeon.getCurrentFloor().getLocationUUID());
         ArrayList<DungeonFloorDTO> floorDTOs = new ArrayList<>();
-        float difficulty = 0;
+        boolean allGenerated = true;
         for (DungeonFloor floor : dungeon.getFloors()) {
             DungeonFloorDTO floorDTO = new DungeonFloorDTO();
             floorDTO.setFloorNumber(floor.getFloorNumber());
             floorDTO.setFloorUUID(floor.getLocationUUID());
+            floorDTOs.add(floorDTO);
+
+            // A floor nobody has been to yet is saved as its seed
+            if (!floor.isGenerated()) {
+                floorDTO.setSeed(floor.getSeed());
+                allGenerated = false;
+                continue;
+            }
+
             floorDTO.setDifficultyRating(floor.getDifficultyRating());
 
             if (floor.isHasChest()) {
@@ -62,18 +71,15 @@ public interface DungeonMapper {
                 floorDTO.getChest().setChestContents(chestContents);
             }
 
-            difficulty += floor.getDifficultyRating();
-
             ArrayList<UUID> enemyUUIDs = new ArrayList<>();
             for (Enemy enemy : floor.getEnemiesOnFloor()) {
                 enemyUUIDs.add(enemy.getEntityUUID());
             }
             floorDTO.setEnemyUUIDs(enemyUUIDs);
-
-            floorDTOs.add(floorDTO);
         }
         dungeonDTO.setFloors(floorDTOs);
-        dungeonDTO.setDifficultyRating(difficulty);
+        // Rating a dungeon generates all of its floors, so one with a floor left to generate has no rating yet
+        dungeonDTO.setDifficultyRating(allGenerated ? dungeon.getDifficultyRating() : 0);
         return dungeonDTO;
     }
 
@@ -90,7 +96,17 @@ public interface DungeonMapper {
         Dungeon dungeon = new Dungeon(dungeonDTO.getDungeonName(), dungeonDTO.getDungeonUUID(), false);
 
         for (DungeonFloorDTO floorDTO : dungeonDTO.getFloors()) {
+            if (floorDTO.getSeed() != null) {
+                DungeonFloor floor = new DungeonFloor(floorDTO.getFloorUUID(), dungeon, floorDTO.getFloorNumber(), floorDTO.getSeed().longValue());
+                dungeon.getFloors().add(floor);
+                if (floorDTO.getFloorUUID().equals(dungeonDTO.getCurrentFloorUUID())) {
+                    dungeon.setCurrentFloor(floor);
+                }
+                continue;
+            }
+
             DungeonFloor floor = new DungeonFloor(floorDTO.getFloorUUID(), dungeon, floorDTO.getFloorNumber(), true);
+            dungeon.getFloors().add(floor);
 
             ArrayList<Enemy> enemies = new ArrayList<>();
             for (UUID enemyUUID : floorDTO.getEnemyUUIDs()) {
@@ -99,10 +115,9 @@ public interface DungeonMapper {
                 Entity.entityMap.get(enemyUUID).setCurrentLocation(floor);
             }
 
+            // The floor rates itself as the enemies are added
             floor.setEnemiesOnFloor(enemies);
 
-            floor.setDifficultyRating(floor.calculateDifficulty());
-
             if (floorDTO.hasChest()) {
                 floor.getChest().setContainerUUID(floorDTO.getChest().getChestUUID());
                 floor.setHasChest(true);
@@ -112,13 +127,10 @@ public interface DungeonMapper {
                 }
             }
 
-            dungeon.getFloors().add(floor);
-
             if (floorDTO.getFloorUUID().equals(dungeonDTO.getCurrentFloorUUID())) {
                 dungeon.setCurrentFloor(floor);
             }
         }
-        dungeon.setDifficultyRating(dungeonDTO.getDifficultyRating());
         return dungeon;
     }
 
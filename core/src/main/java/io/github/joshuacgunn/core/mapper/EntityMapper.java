@@ -14,6 +14,8 @@ import io.github.joshuacgunn.core.item.Item;
 import io.github.joshuacgunn.core.item.Weapon;
 import io.github.joshuacgunn.core.location.Location;
 import io.github.joshuacgunn.core.entity.EntityStats;
+import io.github.joshuacgunn.core.misc.RngService;
+import io.github.joshuacgunn.core.tickmanager.TickManager;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
@@ -77,7 +79,8 @@ public interface EntityMapper {
         dto.setEntityHp(entity.getEntityHp());
         dto.setEntityDefense(entity.getEntityDefense());
         dto.setAlive(entity.isAlive());
-        dto.setStatusEffects(entity.getActiveStatusEffects());
+        // A copy, since the DTO may be serialized on the save writer thread
+        dto.setStatusEffectExpiries(entity.getStatusEffectExpiries());
 
 
         if (entity.getCurrentLocation() != null) {
@@ -117,7 +120,7 @@ public interface EntityMapper {
         }
 
         if (entity.getEntityStats() != null) {
-            dto.setEntityStats(entity.getEntityStats());
+            dto.setEntityStats(new EntityStats());
             dto.setEntityStatsValue(EntityStats.Stat.STRENGTH, entity.getEntityStats().getStatValue(EntityStats.Stat.STRENGTH));
             dto.setEntityStatsValue(EntityStats.Stat.DEXTERITY, entity.getEntityStats().getStatValue(EntityStats.Stat.DEXTERITY));
             dto.setEntityStatsValue(EntityStats.Stat.INTELLIGENCE, entity.getEntityStats().getStatValue(EntityStats.Stat.INTELLIGENCE));
@@ -159,6 +162,10 @@ public interface EntityMapper {
 
         dto.setPlayerLevel(player.getPlayerLevel() );
 
+        dto.setWorldSeed(RngService.getWorldSeed());
+        dto.setLocationsGenerated(RngService.getLocationsGenerated());
+        dto.setWorldTick(TickManager.getInstance().getCurrentTick());
+
         return dto;
     }
 
@@ -242,8 +249,10 @@ public interface EntityMapper {
             entity.getEntityStats().setStatValue(EntityStats.Stat.VITALITY, dto.getEntityStatsValue(EntityStats.Stat.VITALITY));
         }
 
-        // Handle status effects
-        if (dto.getStatusEffects() != null) {
+        // Handle status effects, kept as ticks left by older saves
+        if (dto.getStatusEffectExpiries() != null) {
+            entity.setStatusEffectExpiries(dto.getStatusEffectExpiries());
+        } else if (dto.getStatusEffects() != null) {
             entity.setActiveStatusEffects(dto.getStatusEffects());
         }
 
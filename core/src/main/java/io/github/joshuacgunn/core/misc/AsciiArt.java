@@ -8,7 +8,6 @@ import io.github.joshuacgunn.core.location.Shop;
 import io.github.joshuacgunn.core.location.Town;
 
 import java.util.List;
-import java.util.Random;
 
 /**
  * Utility class that stores ASCII art used throughout the game.
@@ -646,7 +645,7 @@ public class AsciiArt {
             "Some NPC's will give you quests, which can reward you with items and gold.");
 
     public static String getRandomHint() {
-        return HINT_LIST.get(new Random().nextInt(HINT_LIST.size()));
+        return HINT_LIST.get(RngService.current().nextInt(HINT_LIST.size()));
     }
 
     public static final String HINTS = "===================================================================\n" +
@@ -671,7 +670,7 @@ public class AsciiArt {
                 WILDERNESS_7,
         };
 
-        int randIndex = new Random().nextInt(wilderness.length);
+        int randIndex = RngService.current().nextInt(wilderness.length);
         return wilderness[randIndex];
     }
 
@@ -681,7 +680,7 @@ public class AsciiArt {
                 LOADING_2,
         };
 
-        int randIndex = new Random().nextInt(loadingExploring.length);
+        int randIndex = RngService.current().nextInt(loadingExploring.length);
         return loadingExploring[randIndex];
     }
 
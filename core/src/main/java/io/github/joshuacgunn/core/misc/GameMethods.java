@@ -11,6 +11,7 @@ import io.github.joshuacgunn.core.location.Dungeon;
 import io.github.joshuacgunn.core.location.Location;
 import io.github.joshuacgunn.core.location.Shop;
 import io.github.joshuacgunn.core.location.Town;
+import io.github.joshuacgunn.core.location.WorldGenerator;
 import io.github.joshuacgunn.core.item.Armor;
 import io.github.joshuacgunn.core.item.Item;
 import io.github.joshuacgunn.core.item.Weapon;
@@ -26,9 +27,6 @@ import org.jline.terminal.TerminalBuilder;
 
 import java.awt.event.KeyListener;
 
-import static io.github.joshuacgunn.core.gameplay.MainMenuState.deleteDirectory;
-import static io.github.joshuacgunn.core.save.SaveManager.BACKUP_DIRECTORY;
-import static io.github.joshuacgunn.core.save.SaveManager.SAVE_DIRECTORY;
 
 /**
  * A utility class that manages and handles various game-related events and actions
@@ -38,7 +36,7 @@ import static io.github.joshuacgunn.core.save.SaveManager.SAVE_DIRECTORY;
 public abstract class GameMethods implements KeyListener {
 
     public static Player getLoadedPlayer() {
-        return Entity.getEntitiesByType(Player.class).getFirst();
+        return Entity.entityMap.getPlayer();
     }
 
     /**
@@ -354,7 +352,7 @@ public abstract class GameMethods implements KeyListener {
 
         if (isNewGame) {
             player = createPlayer();
-            Town startingTown = new Town(UUID.randomUUID(), true);
+            Town startingTown = RngService.generate(() -> new Town(RngService.nextUUID(), true));
             player.setCurrentLocation(startingTown);
         } else {
             printLoadingScreen();
@@ -363,6 +361,8 @@ public abstract class GameMethods implements KeyListener {
         }
 
         TickManager.getInstance().start();
+        WorldGenerator.getInstance().start();
+        SaveManager.startAutosave();
 
         GameLoop gameLoop = new GameLoop(player, isNewGame);
         if (isNewGame) {
@@ -393,8 +393,9 @@ public abstract class GameMethods implements KeyListener {
 
     public static void printScreen(GameState gameState) {
         clearConsole();
-        if (!Entity.getEntitiesByType(Player.class).isEmpty() && !(gameState instanceof MainMenuState)) {
-            Location location = Entity.getEntitiesByType(Player.class).getFirst().getCurrentLocation();
+        Player player = Entity.entityMap.getPlayer();
+        if (player != null && !(gameState instanceof MainMenuState)) {
+            Location location = player.getCurrentLocation();
             System.out.println(AsciiArt.getArtForLocation(location, gameState));
         } else {
             System.out.println(AsciiArt.MAIN_MENU);
@@ -447,7 +448,7 @@ public abstract class GameMethods implements KeyListener {
      * @return A newly created NPC instance
      */
     public static NPC generateUniqueNPC(String name, NPC.Personality personality) {
-        NPC npc = new NPC(name, UUID.randomUUID());
+        NPC npc = new NPC(name, RngService.nextUUID());
         npc.setNpcPersonality(personality);
         return npc;
     }
@@ -501,9 +502,9 @@ public abstract class GameMethods implements KeyListener {
         System.out.print("Class: ");
         int playerClass = scanner.nextInt();
         scanner.nextLine();
-        UUID uuid = UUID.randomUUID();
         Player.PlayerClass playerClassEnum = Player.PlayerClass.values()[playerClass - 1];
-        Player player = new Player(name, uuid, playerClassEnum, true);
+        // Generated from the world seed, so the same seed gives the same starting gear
+        Player player = RngService.generateStart(() -> new Player(name, RngService.nextUUID(), playerClassEnum, true));
         System.out.println("You chose " + playerClassEnum.name().toLowerCase() + "!");
         System.out.println(player.getPlayerStatsString());
         printContinuePrompt();
@@ -516,8 +517,7 @@ public abstract class GameMethods implements KeyListener {
      */
     public static void playerDeath() {
         Player player = getLoadedPlayer();
-        deleteDirectory(new File(SAVE_DIRECTORY));
-        deleteDirectory(new File(BACKUP_DIRECTORY));
+        SaveManager.deleteSave();
         clearConsole();
         System.out.println(AsciiArt.DEATH_SCREEN);
         System.out.println("You died at level " + player.getPlayerLevel() + "!");
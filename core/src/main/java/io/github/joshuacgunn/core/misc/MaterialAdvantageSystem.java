@@ -16,6 +16,8 @@ public class MaterialAdvantageSystem {
     };
 
     public static float getAdvantageMultiplier(Weapon.WeaponMaterial weaponMaterial, Armor.ArmorMaterial armorMaterial) {
-        return ADVANTAGE_MATRIX[weaponMaterial.ordinal()][armorMaterial.ordinal()];
+        // Demonite weapons have no row of their own yet, so they use the strongest one
+        int row = Math.min(weaponMaterial.ordinal(), ADVANTAGE_MATRIX.length - 1);
+        return ADVANTAGE_MATRIX[row][armorMaterial.ordinal()];
     }
 }
@@ -0,0 +1,184 @@
+package io.github.joshuacgunn.core.misc;
+
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Hands out the names of generated towns and NPCs.
+ * <p>
+ * The names come from the locale files bundled with Faker. Each file is read once, the first time one of
+ * its names is needed, into a plain array, instead of every caller building a Faker that parses all of
+ * them again. Names are picked with {@link RngService#current()}, so they follow the world seed.
+ * <p>
+ * No two towns in a world share a name. The names in use are kept in a hash set, so checking and taking a
+ * name costs the same however many towns there are, and town names never have to be compared one by one.
+ * Towns generated ahead of time only pick the name they would like, since which names are free depends on
+ * which towns join the world first. The name is taken when the town joins the world, on the game thread, so
+ * clashes are settled in the order the world gets its towns. Thread safe.
+ */
+public final class NameService {
+    /** The name a town gets on a rare roll, or when every name it could have had is taken */
+    public static final String FALLBACK_TOWN_NAME = "Silver Skalitz";
+
+    /** Names of the towns in this world */
+    private static final Set<String> townNames = ConcurrentHashMap.newKeySet();
+
+    /** Loaded the first time an NPC is named */
+    private static final class FirstNames {
+        static final String[] MALE = load("name", "name", "male_first_name");
+        static final String[] FEMALE = load("name", "name", "female_first_name");
+    }
+
+    /** Loaded the first time a town is named */
+    private static final class TownNames {
+        static final String[] POKEMON = load("pokemon", "games", "pokemon", "locations");
+        static final String[] GAME_OF_THRONES = load("game_of_thrones", "game_of_thrones", "cities");
+        static final String[] WITCHER = load("witcher", "games", "witcher", "locations");
+        static final String[] LORD_OF_THE_RINGS = load("lord_of_the_rings", "lord_of_the_rings", "locations");
+        static final String[][] ALL = {POKEMON, GAME_OF_THRONES, WITCHER, LORD_OF_THE_RINGS};
+    }
+
+    private NameService() { }
+
+    /**
+     * Picks a first name, as likely to be a woman's as a man's.
+     *
+     * @return The name
+     */
+    public static String firstName() {
+        RandomGenerator random = RngService.current();
+        String[] names = random.nextBoolean() ? FirstNames.FEMALE : FirstNames.MALE;
+        return names[random.nextInt(names.length)];
+    }
+
+    /**
+     * Picks a name for a new town, without taking it. A town is named after a Pokémon location, a Game of
+     * Thrones city, a Witcher location or a Lord of the Rings location, or rarely {@value #FALLBACK_TOWN_NAME}.
+     * The name may already be taken; {@link #takeFreeTownName(String)} settles that when the town joins the world.
+     *
+     * @return The name
+     */
+    public static String townName() {
+        RandomGenerator random = RngService.current();
+        float nameChance = random.nextFloat();
+        String[] names;
+        if (nameChance < 0.25f) {
+            names = TownNames.POKEMON;
+        } else if (nameChance < .5f) {
+            names = TownNames.GAME_OF_THRONES;
+        } else if (nameChance < .75f) {
+            names = TownNames.WITCHER;
+        } else if (nameChance < .96f) {
+            names = TownNames.LORD_OF_THE_RINGS;
+        } else {
+            return FALLBACK_TOWN_NAME;
+        }
+        return names[random.nextInt(names.length)];
+    }
+
+    /**
+     * Finds the name a town picked with {@link #townName()} would get if it joined the world now, without
+     * taking it. If the name picked is taken, the next free name from the same source is used instead,
+     * and {@value #FALLBACK_TOWN_NAME} if every one of them is taken.
+     *
+     * @param picked The name the town picked
+     * @return The name
+     */
+    public static String freeTownName(String picked) {
+        if (picked == null || picked.equals(FALLBACK_TOWN_NAME) || !townNames.contains(picked)) {
+            return picked;
+        }
+        for (String[] names : TownNames.ALL) {
+            for (int start = 0; start < names.length; start++) {
+                if (!names[start].equals(picked)) {
+                    continue;
+                }
+                for (int i = 1; i < names.length; i++) {
+                    String name = names[(start + i) % names.length];
+                    if (!townNames.contains(name)) {
+                        return name;
+                    }
+                }
+                return FALLBACK_TOWN_NAME;
+            }
+        }
+        return FALLBACK_TOWN_NAME;
+    }
+
+    /**
+     * Takes the name a town picked with {@link #townName()}, or the next free one as
+     * {@link #freeTownName(String)} finds it. Call from the game thread, when the town joins the world.
+     *
+     * @param picked The name the town picked
+     * @return The name the town gets
+     */
+    public static synchronized String takeFreeTownName(String picked) {
+        String name = freeTownName(picked);
+        takeTownName(name);
+        return name;
+    }
+
+    /**
+     * Marks a town name as taken, such as the name of a town loaded from a save.
+     *
+     * @param name The name
+     */
+    public static void takeTownName(String name) {
+        if (name != null) {
+            townNames.add(name);
+        }
+    }
+
+    /**
+     * Frees the name of a town that no longer exists.
+     *
+     * @param name The name
+     */
+    public static void releaseTownName(String name) {
+        if (name != null) {
+            townNames.remove(name);
+        }
+    }
+
+    /**
+     * Frees every town name, when the world is cleared.
+     */
+    public static void clearTownNames() {
+        townNames.clear();
+    }
+
+    /**
+     * Reads a list of names out of one of Faker's English locale files.
+     *
+     * @param file The locale file, without its extension
+     * @param path The keys leading to the list, below {@code en.faker}
+     * @return The names
+     */
+    private static String[] load(String file, String... path) {
+        String resource = "/en/" + file + ".yml";
+        try (InputStream in = NameService.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing name file " + resource);
+            }
+            Object node = new Yaml().load(in);
+            node = node instanceof Map<?, ?> locale ? locale.get("en") : null;
+            node = node instanceof Map<?, ?> en ? en.get("faker") : null;
+            for (String key : path) {
+                node = node instanceof Map<?, ?> map ? map.get(key) : null;
+            }
+            if (!(node instanceof List<?> names) || names.isEmpty()) {
+                throw new IllegalStateException("No names at " + String.join(".", path) + " in " + resource);
+            }
+            return names.stream().map(String::valueOf).toArray(String[]::new);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load names from " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.joshuacgunn.core.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Holds back the registrations of objects built off the game thread until the game thread publishes them.
+ * <p>
+ * Entities, items, containers and locations add themselves to their global registry when they are
+ * created, and those registries are only safe to use from the game thread. Constructors register through
+ * {@link #register(Map, UUID, Object)} instead of putting into the registry themselves. On a thread that is
+ * running {@link #collect(Supplier)}, the registration is kept in the batch, so whatever is being built
+ * stays out of the world; everywhere else it goes straight into the registry. {@link #publish()} later
+ * replays the batch into the registries, in the order the objects were created. Other changes to the world,
+ * such as a new town taking its name, are held back the same way with {@link #whenPublished(Runnable)}.
+ * <p>
+ * A batch is only filled by the thread collecting into it and only published once it has finished.
+ */
+public final class RegistryBatch {
+    /** The batch the calling thread is collecting into, or null */
+    private static final ThreadLocal<RegistryBatch> collecting = new ThreadLocal<>();
+
+    private record Registration(Map<UUID, Object> registry, UUID uuid, Object value) { }
+
+    private final List<Registration> registrations = new ArrayList<>();
+
+    private final List<Runnable> actions = new ArrayList<>();
+
+    private boolean published = false;
+
+    /**
+     * Runs a builder with the registrations it makes held in this batch.
+     *
+     * @param builder Builds something, such as a new location
+     * @return What the builder returned
+     */
+    public <T> T collect(Supplier<T> builder) {
+        RegistryBatch outer = collecting.get();
+        collecting.set(this);
+        try {
+            return builder.get();
+        } finally {
+            if (outer == null) {
+                collecting.remove();
+            } else {
+                collecting.set(outer);
+            }
+        }
+    }
+
+    /**
+     * Registers everything in the batch, in the order it was created, then runs the actions held back,
+     * in the order they were added. Call from the game thread.
+     */
+    public void publish() {
+        if (published) {
+            throw new IllegalStateException("Batch was already published or discarded");
+        }
+        published = true;
+        for (Registration registration : registrations) {
+            registration.registry().put(registration.uuid(), registration.value());
+        }
+        registrations.clear();
+        for (Runnable action : actions) {
+            action.run();
+        }
+        actions.clear();
+    }
+
+    /**
+     * Throws the batch away without registering anything in it, so it can no longer be published.
+     */
+    public void discard() {
+        published = true;
+        registrations.clear();
+        actions.clear();
+    }
+
+    /**
+     * @return How many objects are waiting to be registered
+     */
+    public int size() {
+        return registrations.size();
+    }
+
+    /**
+     * Adds an object to its registry, or to the batch the calling thread is collecting into.
+     *
+     * @param registry The global registry the object belongs in
+     * @param uuid The object's UUID
+     * @param value The object
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> void register(Map<UUID, ? super V> registry, UUID uuid, V value) {
+        RegistryBatch batch = collecting.get();
+        if (batch == null) {
+            registry.put(uuid, value);
+        } else {
+            batch.registrations.add(new Registration((Map<UUID, Object>) registry, uuid, value));
+        }
+    }
+
+    /**
+     * Removes an object from its registry, or from the batch the calling thread is collecting into.
+     * Used to throw away something that was built and turned out not to be needed.
+     *
+     * @param registry The global registry the object belongs in
+     * @param uuid The object's UUID
+     */
+    public static void unregister(Map<UUID, ?> registry, UUID uuid) {
+        RegistryBatch batch = collecting.get();
+        if (batch == null) {
+            registry.remove(uuid);
+        } else {
+            batch.registrations.removeIf(registration -> registration.registry() == registry && registration.uuid().equals(uuid));
+        }
+    }
+
+    /**
+     * Runs an action that changes the world, or holds it in the batch the calling thread is collecting into
+     * until the batch is published.
+     *
+     * @param action The action, such as a new town taking its name
+     */
+    public static void whenPublished(Runnable action) {
+        RegistryBatch batch = collecting.get();
+        if (batch == null) {
+            action.run();
+        } else {
+            batch.actions.add(action);
+        }
+    }
+}
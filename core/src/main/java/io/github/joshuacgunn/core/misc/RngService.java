@@ -0,0 +1,186 @@
+package io.github.joshuacgunn.core.misc;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Hands out the random numbers the game is generated and played with.
+ * <p>
+ * Every world has a seed. Each location generated in it gets a seed of its own, worked out from the world
+ * seed and the number of locations generated before it, and {@link #generate(Supplier)} binds a stream
+ * seeded with it to the calling thread while the location is built. Everything built inside, floors,
+ * chests, items, enemies and NPCs, draws from {@link #current()}, so a world seed generates the same
+ * locations in the same order, and a location generates the same way whichever thread builds it.
+ * <p>
+ * Streams are never shared between threads, so locations can be generated side by side without locking,
+ * and drawing a number from a stream allocates nothing. Outside generation, such as in combat,
+ * {@link #current()} is a stream of the calling thread's own. Those streams are seeded from fresh entropy
+ * rather than the world seed, so play does not repeat itself from one session to the next and UUIDs handed
+ * out outside generation never repeat ones handed out before a save was loaded.
+ * <p>
+ * The world seed comes from the {@value #WORLD_SEED_PROPERTY} system property, or is picked at random.
+ */
+public final class RngService {
+    /** The system property holding the seed of new worlds */
+    public static final String WORLD_SEED_PROPERTY = "dungeoncrawler.worldSeed";
+
+    /** Odd constant spacing the seeds of consecutive locations, from SplitMix64 */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private static long worldSeed;
+
+    /** How many location seeds have been handed out in this world */
+    private static long locationsGenerated;
+
+    /** Splits off the stream of each thread that is not generating a location, seeded from entropy */
+    private static final SplittableRandom threadStreams = new SplittableRandom();
+
+    /** The stream of the location the calling thread is generating, or null */
+    private static final ThreadLocal<SplittableRandom> bound = new ThreadLocal<>();
+
+    /** The calling thread's own stream */
+    private static final ThreadLocal<SplittableRandom> unbound = ThreadLocal.withInitial(RngService::splitThreadStream);
+
+    static {
+        String seed = System.getProperty(WORLD_SEED_PROPERTY);
+        setWorldSeed(seed != null ? Long.parseLong(seed) : new SplittableRandom().nextLong(), 0);
+    }
+
+    private RngService() { }
+
+    /**
+     * Starts a world from a seed, as if no location had been generated in it yet.
+     *
+     * @param seed The world seed
+     */
+    public static void setWorldSeed(long seed) {
+        setWorldSeed(seed, 0);
+    }
+
+    /**
+     * Restores the state of a saved world, so locations generated from now on carry on where it left off.
+     *
+     * @param seed The world seed
+     * @param generated How many locations had been generated in the world
+     */
+    public static synchronized void setWorldSeed(long seed, long generated) {
+        worldSeed = seed;
+        locationsGenerated = generated;
+    }
+
+    public static synchronized long getWorldSeed() {
+        return worldSeed;
+    }
+
+    /**
+     * @return How many location seeds have been handed out in this world
+     */
+    public static synchronized long getLocationsGenerated() {
+        return locationsGenerated;
+    }
+
+    /**
+     * Hands out the seed of the next location in this world. Seeds are handed out in order, so locations
+     * generated in parallel should take their seeds up front, in the order they would be generated in.
+     *
+     * @return The seed
+     */
+    public static synchronized long nextLocationSeed() {
+        return mix(worldSeed + GOLDEN_GAMMA * ++locationsGenerated);
+    }
+
+    /**
+     * Generates the starting state of a new game, such as the player and their starting gear, from the
+     * world seed, so the same seed starts the same way. It uses the seed no location is given.
+     *
+     * @param generator Builds the starting state, drawing random numbers from {@link #current()}
+     * @return What the generator returned
+     */
+    public static <T> T generateStart(Supplier<T> generator) {
+        long seed;
+        synchronized (RngService.class) {
+            seed = mix(worldSeed);
+        }
+        return generate(seed, generator);
+    }
+
+    /**
+     * Generates the next location in this world from its own seed.
+     *
+     * @param generator Builds the location, drawing random numbers from {@link #current()}
+     * @return What the generator returned
+     */
+    public static <T> T generate(Supplier<T> generator) {
+        return generate(nextLocationSeed(), generator);
+    }
+
+    /**
+     * Runs a generator with a stream seeded from a seed bound to the calling thread, so it generates the
+     * same thing every time it is given the same seed. Generators can be nested; the outer stream is
+     * bound again once the inner generator returns.
+     *
+     * @param seed The seed of the stream
+     * @param generator Builds something, drawing random numbers from {@link #current()}
+     * @return What the generator returned
+     */
+    public static <T> T generate(long seed, Supplier<T> generator) {
+        SplittableRandom outer = bound.get();
+        bound.set(new SplittableRandom(seed));
+        try {
+            return generator.get();
+        } finally {
+            if (outer == null) {
+                bound.remove();
+            } else {
+                bound.set(outer);
+            }
+        }
+    }
+
+    /**
+     * Gets the stream to draw from on the calling thread: the stream of the location being generated, or
+     * the thread's own stream. The stream must not be handed to another thread.
+     *
+     * @return The stream
+     */
+    public static RandomGenerator current() {
+        SplittableRandom random = bound.get();
+        if (random != null) {
+            return random;
+        }
+        return unbound.get();
+    }
+
+    /**
+     * Draws a random UUID from the calling thread's stream, laid out like {@link UUID#randomUUID()}, so
+     * things generated from a seed get the same UUIDs every time.
+     *
+     * @return The UUID
+     */
+    public static UUID nextUUID() {
+        RandomGenerator random = current();
+        long most = (random.nextLong() & ~0xf000L) | 0x4000L;
+        long least = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(most, least);
+    }
+
+    private static synchronized SplittableRandom splitThreadStream() {
+        return threadStreams.split();
+    }
+
+    /**
+     * Scrambles a seed with the SplitMix64 finalizer, so neighbouring seeds give unrelated streams.
+     * Seeding a {@link SplittableRandom} with {@code seed + n * 0x9e3779b97f4a7c15L} without mixing gives
+     * the stream of {@code seed} shifted by {@code n} draws.
+     *
+     * @param z The seed
+     * @return The scrambled seed
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
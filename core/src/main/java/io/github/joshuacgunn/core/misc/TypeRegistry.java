@@ -0,0 +1,46 @@
+package io.github.joshuacgunn.core.misc;
+
+import org.reflections.Reflections;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index of the game's class hierarchy, used by generators that pick between the subtypes of a class.
+ * <p>
+ * The game's package is scanned once, the first time any subtypes are asked for, and the subtypes of each
+ * class are kept after the first lookup, so later lookups cost a map read instead of a classpath scan.
+ * Safe to use from any thread.
+ */
+public final class TypeRegistry {
+    /** The package holding every game class */
+    private static final String GAME_PACKAGE = "io.github.joshuacgunn.core";
+
+    /** The subtypes of each class looked up so far */
+    private static final Map<Class<?>, Set<? extends Class<?>>> subTypes = new ConcurrentHashMap<>();
+
+    private TypeRegistry() { }
+
+    /** Holds the scan, so the package is only scanned once it is first needed */
+    private static final class Scan {
+        static final Reflections REFLECTIONS = new Reflections(GAME_PACKAGE);
+    }
+
+    /**
+     * @param type A game class
+     * @return Every class in the game that extends or implements it, not including the class itself
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Set<Class<? extends T>> getSubTypesOf(Class<T> type) {
+        return (Set<Class<? extends T>>) subTypes.computeIfAbsent(type, key -> Set.copyOf(Scan.REFLECTIONS.getSubTypesOf(type)));
+    }
+
+    /**
+     * @param type A game class
+     * @return The number of classes in the game that extend or implement it
+     */
+    public static int countSubTypesOf(Class<?> type) {
+        return getSubTypesOf(type).size();
+    }
+}
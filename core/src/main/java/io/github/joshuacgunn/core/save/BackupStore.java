@@ -0,0 +1,368 @@
+package io.github.joshuacgunn.core.save;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Keeps backups of the save directory as manifests over a shared, content-addressed chunk store.
+ * <p>
+ * Every file in the save directory is split into chunks of {@value #CHUNK_SIZE} bytes, and each chunk
+ * is stored once under the SHA-256 hash of its contents in {@code objects/}. A backup is a manifest in
+ * {@code manifests/} listing each file's path, size and chunk hashes. Generations never change once
+ * committed and journals only grow at the end, so a backup of a save that barely changed writes a new
+ * manifest and, at most, the last chunk of a journal.
+ * <p>
+ * If the store's {@link Compression} is on, each chunk is compressed on its own and stored with a
+ * {@value #COMPRESSED_EXTENSION} extension, unless compressing it does not make it smaller. Chunks are
+ * hashed before compression, so changing the level never stores the same chunk twice under different names.
+ * <p>
+ * This class is not thread safe. {@link SaveManager} only uses it from its writer thread.
+ */
+public class BackupStore {
+
+    /** Size of the pieces files are split into before hashing */
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    /** Extension of manifest files */
+    private static final String MANIFEST_EXTENSION = ".manifest";
+
+    /** Extension of chunks stored compressed */
+    private static final String COMPRESSED_EXTENSION = ".z";
+
+    /** Directory that held full copies of the save directory before manifests */
+    private static final String LEGACY_DIRECTORY = "saves";
+
+    /**
+     * How many backups to keep, and for how long. The newest backup is always kept.
+     *
+     * @param maxBackups The number of backups to keep
+     * @param maxAge How old a backup may get before it is deleted
+     */
+    public record RetentionPolicy(int maxBackups, Duration maxAge) {
+        /** The policy the game uses: ten backups, none older than a week */
+        public static final RetentionPolicy DEFAULT = new RetentionPolicy(10, Duration.ofDays(7));
+    }
+
+    /**
+     * One file of a backup.
+     *
+     * @param path The file's path relative to the save directory, with '/' as separator
+     * @param size The file's size in bytes
+     * @param chunks The hashes of the file's chunks, in order
+     */
+    private record FileEntry(String path, long size, List<String> chunks) { }
+
+    /**
+     * Identifies a file on disk well enough to tell that it has not changed since it was last hashed.
+     */
+    private record FileKey(String path, long size, FileTime modified) { }
+
+    /** The backup directory */
+    private final Path directory;
+
+    /** The retention policy applied after each backup */
+    private final RetentionPolicy policy;
+
+    /** Compression of newly stored chunks */
+    private final Compression compression;
+
+    /** Chunk hashes of files already hashed, so unchanged files are not read again */
+    private final Map<FileKey, List<String>> hashedFiles = new HashMap<>();
+
+    /**
+     * @param directory The backup directory
+     * @param policy The retention policy applied after each backup
+     * @param compression Compression of newly stored chunks
+     */
+    public BackupStore(Path directory, RetentionPolicy policy, Compression compression) {
+        this.directory = directory;
+        this.policy = policy;
+        this.compression = compression;
+    }
+
+    /**
+     * Backs up a directory by storing any chunks not already stored and writing a manifest of them.
+     *
+     * @param source The directory to back up
+     * @return The name of the new manifest
+     * @throws IOException If the backup could not be written
+     */
+    public String backup(Path source) throws IOException {
+        Files.createDirectories(manifestDirectory());
+        List<FileEntry> entries = new ArrayList<>();
+        Map<FileKey, List<String>> current = new HashMap<>();
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : paths.filter(Files::isRegularFile).sorted().toList()) {
+                String relative = source.relativize(path).toString().replace(File.separatorChar, '/');
+                long size = Files.size(path);
+                FileKey key = new FileKey(relative, size, Files.getLastModifiedTime(path));
+                List<String> chunks = hashedFiles.get(key);
+                if (chunks == null || !chunks.stream().allMatch(hash -> storedChunk(hash) != null)) {
+                    chunks = storeChunks(path);
+                }
+                current.put(key, chunks);
+                entries.add(new FileEntry(relative, size, chunks));
+            }
+        }
+        // Only remember files that still exist, so the cache does not grow with every journal length
+        hashedFiles.clear();
+        hashedFiles.putAll(current);
+
+        String name = nextManifestName();
+        StringBuilder manifest = new StringBuilder();
+        for (FileEntry entry : entries) {
+            manifest.append(entry.path()).append('\t').append(entry.size()).append('\t').append(String.join(",", entry.chunks())).append('\n');
+        }
+        Path temp = manifestDirectory().resolve(name + ".tmp");
+        Files.writeString(temp, manifest, StandardCharsets.UTF_8);
+        Files.move(temp, manifestDirectory().resolve(name), StandardCopyOption.ATOMIC_MOVE);
+        return name;
+    }
+
+    /**
+     * Deletes every backup the retention policy no longer allows, then every chunk that no remaining
+     * backup refers to. Done in one pass over the manifests, newest first.
+     *
+     * @throws IOException If a backup could not be deleted
+     */
+    public void applyRetention() throws IOException {
+        List<String> manifests = listManifests();
+        Instant cutoff = Instant.now().minus(policy.maxAge());
+        Set<String> referenced = new HashSet<>();
+        for (int i = 0; i < manifests.size(); i++) {
+            Path manifest = manifestDirectory().resolve(manifests.get(i));
+            boolean keep = i == 0 || (i < policy.maxBackups() && Files.getLastModifiedTime(manifest).toInstant().isAfter(cutoff));
+            if (keep) {
+                for (FileEntry entry : readManifest(manifest)) {
+                    referenced.addAll(entry.chunks());
+                }
+            } else {
+                Files.delete(manifest);
+            }
+        }
+
+        Path objects = directory.resolve("objects");
+        if (Files.isDirectory(objects)) {
+            try (Stream<Path> paths = Files.walk(objects)) {
+                for (Path path : paths.filter(Files::isRegularFile).toList()) {
+                    String hash = path.getFileName().toString();
+                    if (hash.endsWith(COMPRESSED_EXTENSION)) {
+                        hash = hash.substring(0, hash.length() - COMPRESSED_EXTENSION.length());
+                    }
+                    if (!referenced.contains(hash)) {
+                        Files.delete(path);
+                    }
+                }
+            }
+        }
+        // Full copies from before manifests are superseded by the first manifest
+        if (!manifests.isEmpty()) {
+            deleteRecursively(directory.resolve(LEGACY_DIRECTORY));
+        }
+    }
+
+    /**
+     * Replaces a directory with the contents of a backup. Every chunk is checked against its hash,
+     * and the directory is only replaced once the whole backup has been rebuilt next to it.
+     *
+     * @param manifestName The manifest of the backup to restore
+     * @param target The directory to restore into
+     * @throws IOException If the backup is missing, damaged, or could not be written
+     */
+    public void restore(String manifestName, Path target) throws IOException {
+        Path manifest = manifestDirectory().resolve(manifestName);
+        if (!Files.exists(manifest)) {
+            throw new FileNotFoundException("No backup named " + manifestName);
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".restore.tmp");
+        deleteRecursively(temp);
+        for (FileEntry entry : readManifest(manifest)) {
+            Path file = temp.resolve(entry.path());
+            Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (String hash : entry.chunks()) {
+                    Path object = storedChunk(hash);
+                    if (object == null) {
+                        throw new IOException("Backup chunk " + hash + " is missing");
+                    }
+                    byte[] chunk = Files.readAllBytes(object);
+                    if (object.getFileName().toString().endsWith(COMPRESSED_EXTENSION)) {
+                        chunk = Compression.decompress(chunk);
+                    }
+                    if (!hash(chunk, chunk.length).equals(hash)) {
+                        throw new IOException("Backup chunk " + hash + " is damaged");
+                    }
+                    ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                if (channel.size() != entry.size()) {
+                    throw new IOException("Backup of " + entry.path() + " is incomplete");
+                }
+            }
+        }
+        Files.createDirectories(temp);
+        deleteRecursively(target);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return The manifest names of every backup, newest first
+     */
+    public List<String> listManifests() throws IOException {
+        if (!Files.isDirectory(manifestDirectory())) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> paths = Files.list(manifestDirectory())) {
+            return paths.map(path -> path.getFileName().toString())
+                .filter(name -> name.endsWith(MANIFEST_EXTENSION))
+                .sorted(Comparator.reverseOrder())
+                .toList();
+        }
+    }
+
+    /**
+     * Checks whether there is anything to restore, including full copies from before manifests.
+     *
+     * @return true if a backup exists
+     */
+    public boolean hasBackups() {
+        try {
+            return !listManifests().isEmpty() || !listLegacyBackups().isEmpty();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return Full copies of the save directory taken before manifests, newest first
+     */
+    public List<Path> listLegacyBackups() throws IOException {
+        Path legacy = directory.resolve(LEGACY_DIRECTORY);
+        if (!Files.isDirectory(legacy)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> paths = Files.list(legacy)) {
+            return paths.filter(Files::isDirectory)
+                .sorted(Comparator.comparing((Path path) -> path.toFile().lastModified()).reversed())
+                .toList();
+        }
+    }
+
+    /**
+     * Splits a file into chunks and stores any chunk that is not stored yet.
+     *
+     * @return The hashes of the file's chunks, in order
+     */
+    private List<String> storeChunks(Path file) throws IOException {
+        List<String> chunks = new ArrayList<>();
+        byte[] buffer = new byte[CHUNK_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int length;
+            while ((length = in.readNBytes(buffer, 0, CHUNK_SIZE)) > 0) {
+                String hash = hash(buffer, length);
+                if (storedChunk(hash) == null) {
+                    Path object = objectFile(hash);
+                    byte[] contents = Arrays.copyOf(buffer, length);
+                    if (compression.isEnabled()) {
+                        byte[] compressed = compression.compress(buffer, length);
+                        if (compressed.length < length) {
+                            object = object.resolveSibling(hash + COMPRESSED_EXTENSION);
+                            contents = compressed;
+                        }
+                    }
+                    Files.createDirectories(object.getParent());
+                    Path temp = object.resolveSibling(hash + ".tmp");
+                    Files.write(temp, contents);
+                    Files.move(temp, object, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                }
+                chunks.add(hash);
+            }
+        }
+        return chunks;
+    }
+
+    private static List<FileEntry> readManifest(Path manifest) throws IOException {
+        List<FileEntry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 3) {
+                throw new IOException("Malformed backup manifest " + manifest.getFileName());
+            }
+            List<String> chunks = fields[2].isEmpty() ? Collections.emptyList() : List.of(fields[2].split(","));
+            entries.add(new FileEntry(fields[0], Long.parseLong(fields[1]), chunks));
+        }
+        return entries;
+    }
+
+    /**
+     * Manifests are named after the time they were taken, so sorting them by name sorts them by age.
+     */
+    private String nextManifestName() {
+        long time = System.currentTimeMillis();
+        String name;
+        do {
+            name = String.format("backup-%015d%s", time++, MANIFEST_EXTENSION);
+        } while (Files.exists(manifestDirectory().resolve(name)));
+        return name;
+    }
+
+    private static String hash(byte[] bytes, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(bytes, 0, length);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Path manifestDirectory() {
+        return directory.resolve("manifests");
+    }
+
+    /**
+     * Chunks are spread over subdirectories named after the first two characters of their hash,
+     * so no single directory grows too large.
+     */
+    private Path objectFile(String hash) {
+        return directory.resolve("objects").resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    /**
+     * @return The file a chunk is stored in, compressed or not, or null if it is not stored
+     */
+    private Path storedChunk(String hash) {
+        Path object = objectFile(hash);
+        if (Files.exists(object)) {
+            return object;
+        }
+        Path compressed = object.resolveSibling(hash + COMPRESSED_EXTENSION);
+        return Files.exists(compressed) ? compressed : null;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> children = Files.list(path)) {
+                for (Path child : children.toList()) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,580 @@
+package io.github.joshuacgunn.core.save;
+
+import io.github.joshuacgunn.core.container.Chest;
+import io.github.joshuacgunn.core.dto.*;
+import io.github.joshuacgunn.core.entity.Entity;
+import io.github.joshuacgunn.core.entity.EntityStats;
+import io.github.joshuacgunn.core.entity.NPC;
+import io.github.joshuacgunn.core.entity.Player;
+import io.github.joshuacgunn.core.item.Armor;
+import io.github.joshuacgunn.core.item.Item;
+import io.github.joshuacgunn.core.item.Weapon;
+import io.github.joshuacgunn.core.location.Shop;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.*;
+
+/**
+ * Saves records in a compact binary layout.
+ * <p>
+ * Each record starts with a tag naming its DTO class, followed by the DTO's fields in a fixed order.
+ * UUIDs are stored as two longs and enums as their ordinal, so <b>reordering the constants of a saved
+ * enum breaks existing binary saves</b>; add new constants at the end instead. Nullable values are
+ * preceded by a presence flag. Snapshot files start with {@link #MAGIC} and {@link #VERSION}, followed
+ * by each record's UUID, length and bytes behind a continuation flag, so files can be streamed
+ * without knowing the record count up front.
+ */
+public final class BinarySaveFormat implements SaveFormat {
+    public static final BinarySaveFormat INSTANCE = new BinarySaveFormat();
+
+    /** Marks the start of a binary snapshot file */
+    private static final int MAGIC = 0x44435356;
+
+    /** Version of the record layout, bumped whenever a DTO gains or loses a field */
+    private static final int VERSION = 2;
+
+    /** Size of the buffer between the data stream and the file channel */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte ARMOR = 1;
+    private static final byte WEAPON = 2;
+    private static final byte ITEM = 3;
+    private static final byte PLAYER = 4;
+    private static final byte ENEMY = 5;
+    private static final byte NPC_TAG = 6;
+    private static final byte DUNGEON = 7;
+    private static final byte TOWN = 8;
+    private static final byte LOCATION_INDEX = 9;
+
+    private BinarySaveFormat() { }
+
+    @Override
+    public String getName() {
+        return "binary";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".bin";
+    }
+
+    @Override
+    public byte[] encode(Object dto) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            switch (dto) {
+                case ArmorDTO armor -> {
+                    out.writeByte(ARMOR);
+                    writeItem(out, armor);
+                    writeEnum(out, armor.getArmorSlot());
+                    writeEnum(out, armor.getArmorQuality());
+                    writeEnum(out, armor.getArmorMaterial());
+                    out.writeFloat(armor.getArmorDefense());
+                }
+                case WeaponDTO weapon -> {
+                    out.writeByte(WEAPON);
+                    writeItem(out, weapon);
+                    out.writeFloat(weapon.getWeaponDamage());
+                    out.writeFloat(weapon.getWeaponDurability());
+                    out.writeFloat(weapon.getArmorPenetration());
+                    writeEnum(out, weapon.getWeaponQuality());
+                    writeEnum(out, weapon.getWeaponMaterial());
+                }
+                case PotionDTO potion -> throw new IllegalArgumentException("Potions are not saved");
+                case ItemDTO item -> {
+                    out.writeByte(ITEM);
+                    writeItem(out, item);
+                }
+                case PlayerDTO player -> {
+                    out.writeByte(PLAYER);
+                    writeEntity(out, player);
+                    writeEnum(out, player.getPlayerClass());
+                    writeString(out, player.getGameState());
+                    writeString(out, player.getPreviousGameStateName());
+                    writeUuid(out, player.getLastGameLocationUUID());
+                    out.writeInt(player.getPlayerLevel());
+                    // Written last, so players saved before worlds were seeded still read
+                    out.writeBoolean(player.getWorldSeed() != null);
+                    if (player.getWorldSeed() != null) {
+                        out.writeLong(player.getWorldSeed());
+                        out.writeLong(player.getLocationsGenerated());
+                    }
+                    out.writeLong(player.getWorldTick());
+                    writeEffectExpiries(out, player);
+                }
+                case EnemyDTO enemy -> {
+                    out.writeByte(ENEMY);
+                    writeEntity(out, enemy);
+                    out.writeBoolean(enemy.getIsQuestEnemy());
+                    writeEffectExpiries(out, enemy);
+                }
+                case NpcDTO npc -> {
+                    out.writeByte(NPC_TAG);
+                    writeEntity(out, npc);
+                    writeEnum(out, npc.getNpcPersonality());
+                    out.writeBoolean(npc.isHasQuest());
+                    writeEffectExpiries(out, npc);
+                }
+                case DungeonDTO dungeon -> {
+                    out.writeByte(DUNGEON);
+                    writeDungeon(out, dungeon);
+                }
+                case TownDTO town -> {
+                    out.writeByte(TOWN);
+                    writeTown(out, town);
+                }
+                case LocationIndexDTO index -> {
+                    out.writeByte(LOCATION_INDEX);
+                    writeUuid(out, index.getLocationUUID());
+                    writeString(out, index.getLocationType());
+                    writeUuids(out, index.getChildLocationUUIDs());
+                    writeUuids(out, index.getEntityUUIDs());
+                    writeUuids(out, index.getItemUUIDs());
+                    // Written last, so indexes saved before names were kept still read
+                    writeString(out, index.getLocationName());
+                }
+                default -> throw new IllegalArgumentException("No binary encoding for " + dto.getClass().getSimpleName());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public <T> T decode(byte[] record, Class<T> type) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            byte tag = in.readByte();
+            Object dto = switch (tag) {
+                case ARMOR -> {
+                    ArmorDTO armor = new ArmorDTO();
+                    readItem(in, armor);
+                    armor.setArmorSlot(readEnum(in, Armor.ArmorSlot.values()));
+                    armor.setArmorQuality(readEnum(in, Armor.ArmorQuality.values()));
+                    armor.setArmorMaterial(readEnum(in, Armor.ArmorMaterial.values()));
+                    armor.setArmorDefense(in.readFloat());
+                    yield armor;
+                }
+                case WEAPON -> {
+                    WeaponDTO weapon = new WeaponDTO();
+                    readItem(in, weapon);
+                    weapon.setWeaponDamage(in.readFloat());
+                    weapon.setWeaponDurability(in.readFloat());
+                    weapon.setArmorPenetration(in.readFloat());
+                    weapon.setWeaponQuality(readEnum(in, Weapon.WeaponQuality.values()));
+                    weapon.setWeaponMaterial(readEnum(in, Weapon.WeaponMaterial.values()));
+                    yield weapon;
+                }
+                case ITEM -> {
+                    ItemDTO item = new ItemDTO();
+                    readItem(in, item);
+                    yield item;
+                }
+                case PLAYER -> {
+                    PlayerDTO player = new PlayerDTO();
+                    readEntity(in, player);
+                    player.setPlayerClass(readEnum(in, Player.PlayerClass.values()));
+                    player.setGameState(readString(in));
+                    player.setPreviousGameStateName(readString(in));
+                    player.setLastGameLocationUUID(readUuid(in));
+                    player.setPlayerLevel(in.readInt());
+                    if (in.available() > 0 && in.readBoolean()) {
+                        player.setWorldSeed(in.readLong());
+                        player.setLocationsGenerated(in.readLong());
+                    }
+                    if (in.available() > 0) {
+                        player.setWorldTick(in.readLong());
+                    }
+                    readEffectExpiries(in, player);
+                    yield player;
+                }
+                case ENEMY -> {
+                    EnemyDTO enemy = new EnemyDTO();
+                    readEntity(in, enemy);
+                    enemy.setQuestEnemy(in.readBoolean());
+                    readEffectExpiries(in, enemy);
+                    yield enemy;
+                }
+                case NPC_TAG -> {
+                    NpcDTO npc = new NpcDTO();
+                    readEntity(in, npc);
+                    npc.setNpcPersonality(readEnum(in, NPC.Personality.values()));
+                    npc.setHasQuest(in.readBoolean());
+                    readEffectExpiries(in, npc);
+                    yield npc;
+                }
+                case DUNGEON -> readDungeon(in);
+                case TOWN -> readTown(in);
+                case LOCATION_INDEX -> {
+                    LocationIndexDTO index = new LocationIndexDTO();
+                    index.setLocationUUID(readUuid(in));
+                    index.setLocationType(readString(in));
+                    index.setChildLocationUUIDs(readUuids(in));
+                    index.setEntityUUIDs(readUuids(in));
+                    index.setItemUUIDs(readUuids(in));
+                    if (in.available() > 0) {
+                        index.setLocationName(readString(in));
+                    }
+                    yield index;
+                }
+                default -> throw new IOException("Unknown record tag " + tag);
+            };
+            return type.cast(dto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public RecordWriter openWriter(WritableByteChannel channel) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        return new RecordWriter() {
+            /** Bytes written so far, counted here since the stream's own count is an int */
+            private long position = 8;
+
+            @Override
+            public long write(UUID uuid, byte[] record) throws IOException {
+                out.writeBoolean(true);
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+                out.writeInt(record.length);
+                out.write(record);
+                long offset = position + 21;
+                position = offset + record.length;
+                return offset;
+            }
+
+            @Override
+            public void finish() throws IOException {
+                out.writeBoolean(false);
+                out.flush();
+            }
+        };
+    }
+
+    @Override
+    public RecordReader openReader(ReadableByteChannel channel) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a binary save file");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary save version " + version);
+        }
+        return new RecordReader() {
+            private byte[] current;
+
+            @Override
+            public UUID next() throws IOException {
+                if (!in.readBoolean()) {
+                    return null;
+                }
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                current = new byte[in.readInt()];
+                in.readFully(current);
+                return uuid;
+            }
+
+            @Override
+            public <T> T read(Class<T> type) {
+                return decode(current, type);
+            }
+
+            @Override
+            public byte[] readRaw() {
+                return current;
+            }
+
+            @Override
+            public void skip() { }
+        };
+    }
+
+    private static void writeItem(DataOutputStream out, ItemDTO item) throws IOException {
+        writeString(out, item.getItemType());
+        writeString(out, item.getItemName());
+        writeUuid(out, item.getItemUUID());
+        writeEnum(out, item.getItemRarity());
+        out.writeFloat(item.getItemValue());
+    }
+
+    private static void readItem(DataInputStream in, ItemDTO item) throws IOException {
+        item.setItemType(readString(in));
+        item.setItemName(readString(in));
+        item.setItemUUID(readUuid(in));
+        item.setItemRarity(readEnum(in, Item.ItemRarity.values()));
+        item.setItemValue(in.readFloat());
+    }
+
+    private static void writeEntity(DataOutputStream out, EntityDTO entity) throws IOException {
+        writeString(out, entity.getEntityType());
+        writeString(out, entity.getEntityName());
+        writeUuid(out, entity.getEntityUUID());
+        out.writeFloat(entity.getEntityHp());
+        out.writeBoolean(entity.isAlive());
+        writeUuid(out, entity.getCurrentLocationUUID());
+        writeString(out, entity.getCurrentLocationType());
+        EntityStats stats = entity.getEntityStats();
+        out.writeBoolean(stats != null);
+        if (stats != null) {
+            for (EntityStats.Stat stat : EntityStats.Stat.values()) {
+                out.writeInt(stats.getStatValue(stat));
+            }
+        }
+        out.writeFloat(entity.getEntityDefense());
+        writeUuid(out, entity.getCurrentWeaponUUID());
+        writeUuids(out, entity.getEquippedArmorUUIDs());
+        InventoryDTO inventory = entity.getInventory();
+        out.writeBoolean(inventory != null);
+        if (inventory != null) {
+            writeUuid(out, inventory.getParentEntityUUID());
+            writeUuid(out, inventory.getInventoryUUID());
+            writeUuids(out, inventory.getItemUUIDs());
+        }
+        // Ticks left on each effect, as older saves kept them; expiries go at the end of the record instead
+        Map<Entity.StatusEffect, Integer> effects = entity.getStatusEffects();
+        out.writeInt(effects == null ? 0 : effects.size());
+        if (effects != null) {
+            for (Map.Entry<Entity.StatusEffect, Integer> effect : effects.entrySet()) {
+                writeEnum(out, effect.getKey());
+                out.writeInt(effect.getValue());
+            }
+        }
+    }
+
+    private static void readEntity(DataInputStream in, EntityDTO entity) throws IOException {
+        entity.setEntityType(readString(in));
+        entity.setEntityName(readString(in));
+        entity.setEntityUUID(readUuid(in));
+        entity.setEntityHp(in.readFloat());
+        entity.setAlive(in.readBoolean());
+        entity.setCurrentLocationUUID(readUuid(in));
+        entity.setCurrentLocationType(readString(in));
+        if (in.readBoolean()) {
+            EntityStats stats = new EntityStats();
+            for (EntityStats.Stat stat : EntityStats.Stat.values()) {
+                stats.setStatValue(stat, in.readInt());
+            }
+            entity.setEntityStats(stats);
+        }
+        entity.setEntityDefense(in.readFloat());
+        entity.setCurrentWeaponUUID(readUuid(in));
+        entity.setEquippedArmorUUIDs(readUuids(in));
+        if (in.readBoolean()) {
+            InventoryDTO inventory = new InventoryDTO();
+            inventory.setParentEntityUUID(readUuid(in));
+            inventory.setInventoryUUID(readUuid(in));
+            inventory.setItemUUIDs(readUuids(in));
+            entity.setInventory(inventory);
+        }
+        int effectCount = in.readInt();
+        if (effectCount > 0) {
+            Map<Entity.StatusEffect, Integer> effects = new HashMap<>();
+            for (int i = 0; i < effectCount; i++) {
+                effects.put(readEnum(in, Entity.StatusEffect.values()), in.readInt());
+            }
+            entity.setStatusEffects(effects);
+        }
+    }
+
+    /**
+     * Written at the end of an entity record, so entities saved with the ticks left on each effect still read.
+     */
+    private static void writeEffectExpiries(DataOutputStream out, EntityDTO entity) throws IOException {
+        Map<Entity.StatusEffect, Long> expiries = entity.getStatusEffectExpiries();
+        out.writeInt(expiries == null ? 0 : expiries.size());
+        if (expiries != null) {
+            for (Map.Entry<Entity.StatusEffect, Long> expiry : expiries.entrySet()) {
+                writeEnum(out, expiry.getKey());
+                out.writeLong(expiry.getValue());
+            }
+        }
+    }
+
+    private static void readEffectExpiries(DataInputStream in, EntityDTO entity) throws IOException {
+        if (in.available() == 0) {
+            return;
+        }
+        int count = in.readInt();
+        Map<Entity.StatusEffect, Long> expiries = new EnumMap<>(Entity.StatusEffect.class);
+        for (int i = 0; i < count; i++) {
+            expiries.put(readEnum(in, Entity.StatusEffect.values()), in.readLong());
+        }
+        entity.setStatusEffectExpiries(expiries);
+    }
+
+    private static void writeDungeon(DataOutputStream out, DungeonDTO dungeon) throws IOException {
+        writeString(out, dungeon.getDungeonName());
+        out.writeFloat(dungeon.getDifficultyRating());
+        writeUuid(out, dungeon.getDungeonUUID());
+        writeUuid(out, dungeon.getCurrentFloorUUID());
+        out.writeInt(dungeon.getFloors().size());
+        for (DungeonFloorDTO floor : dungeon.getFloors()) {
+            out.writeInt(floor.getFloorNumber());
+            out.writeFloat(floor.getDifficultyRating());
+            writeUuid(out, floor.getFloorUUID());
+            writeUuid(out, floor.getParentDungeonUUID());
+            writeUuids(out, floor.getEnemyUUIDs());
+            out.writeBoolean(floor.hasChest());
+            ChestDTO chest = floor.getChest();
+            out.writeBoolean(chest != null);
+            if (chest != null) {
+                out.writeBoolean(chest.isLocked());
+                writeUuid(out, chest.getChestUUID());
+                writeUuid(out, chest.getKeyUUID());
+                writeEnum(out, chest.getChestRarity());
+                writeUuids(out, chest.getChestContents());
+                writeUuid(out, chest.getParentFloor());
+            }
+        }
+        // Appended after the floors so dungeons saved before floors had seeds still load
+        for (DungeonFloorDTO floor : dungeon.getFloors()) {
+            out.writeBoolean(floor.getSeed() != null);
+            if (floor.getSeed() != null) {
+                out.writeLong(floor.getSeed());
+            }
+        }
+    }
+
+    private static DungeonDTO readDungeon(DataInputStream in) throws IOException {
+        DungeonDTO dungeon = new DungeonDTO();
+        dungeon.setDungeonName(readString(in));
+        dungeon.setDifficultyRating(in.readFloat());
+        dungeon.setDungeonUUID(readUuid(in));
+        dungeon.setCurrentFloorUUID(readUuid(in));
+        int floorCount = in.readInt();
+        List<DungeonFloorDTO> floors = new ArrayList<>(floorCount);
+        for (int i = 0; i < floorCount; i++) {
+            DungeonFloorDTO floor = new DungeonFloorDTO();
+            floor.setFloorNumber(in.readInt());
+            floor.setDifficultyRating(in.readFloat());
+            floor.setFloorUUID(readUuid(in));
+            floor.setParentDungeonUUID(readUuid(in));
+            floor.setEnemyUUIDs(readUuids(in));
+            floor.setHasChest(in.readBoolean());
+            if (in.readBoolean()) {
+                ChestDTO chest = new ChestDTO();
+                chest.setLocked(in.readBoolean());
+                chest.setChestUUID(readUuid(in));
+                chest.setKeyUUID(readUuid(in));
+                chest.setChestRarity(readEnum(in, Chest.ChestRarity.values()));
+                chest.setChestContents(readUuids(in));
+                chest.setParentFloor(readUuid(in));
+                floor.setChest(chest);
+            }
+            floors.add(floor);
+        }
+        if (in.available() > 0) {
+            for (DungeonFloorDTO floor : floors) {
+                if (in.readBoolean()) {
+                    floor.setSeed(in.readLong());
+                }
+            }
+        }
+        dungeon.setFloors(floors);
+        return dungeon;
+    }
+
+    private static void writeTown(DataOutputStream out, TownDTO town) throws IOException {
+        writeString(out, town.getTownName());
+        writeUuid(out, town.getTownUUID());
+        out.writeInt(town.getShopCount());
+        out.writeInt(town.getShopsInTown().size());
+        for (ShopDTO shop : town.getShopsInTown()) {
+            writeString(out, shop.getShopName());
+            writeUuid(out, shop.getShopUUID());
+            writeUuid(out, shop.getShopOwnerUUID());
+            writeEnum(out, shop.getShopType());
+            writeUuids(out, shop.getNpcsInShop());
+            writeUuid(out, shop.getParentTownUUID());
+        }
+    }
+
+    private static TownDTO readTown(DataInputStream in) throws IOException {
+        TownDTO town = new TownDTO();
+        town.setTownName(readString(in));
+        town.setTownUUID(readUuid(in));
+        town.setShopCount(in.readInt());
+        int shopCount = in.readInt();
+        ArrayList<ShopDTO> shops = new ArrayList<>(shopCount);
+        for (int i = 0; i < shopCount; i++) {
+            ShopDTO shop = new ShopDTO();
+            shop.setShopName(readString(in));
+            shop.setShopUUID(readUuid(in));
+            shop.setShopOwnerUUID(readUuid(in));
+            shop.setShopType(readEnum(in, Shop.ShopType.values()));
+            shop.setNpcsInShop(readUuids(in));
+            shop.setParentTownUUID(readUuid(in));
+            shops.add(shop);
+        }
+        town.setShopsInTown(shops);
+        return town;
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeBoolean(uuid != null);
+        if (uuid != null) {
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        }
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+
+    /**
+     * Writes a list of UUIDs. A null list is written as -1 so it reads back as null rather than empty.
+     */
+    private static void writeUuids(DataOutputStream out, List<UUID> uuids) throws IOException {
+        if (uuids == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(uuids.size());
+        for (UUID uuid : uuids) {
+            writeUuid(out, uuid);
+        }
+    }
+
+    private static ArrayList<UUID> readUuids(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            return null;
+        }
+        ArrayList<UUID> uuids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            uuids.add(readUuid(in));
+        }
+        return uuids;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Writes an enum constant as its ordinal plus one, leaving 0 for null.
+     */
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        out.writeShort(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, E[] values) throws IOException {
+        int ordinal = in.readUnsignedShort();
+        return ordinal == 0 ? null : values[ordinal - 1];
+    }
+}
@@ -0,0 +1,259 @@
+package io.github.joshuacgunn.core.save;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Optional compression for snapshot files and backup chunks.
+ * <p>
+ * Every compressed file or chunk is a gzip stream of its own, so any single snapshot file or chunk
+ * can be decompressed without the others. Readers detect compression from the gzip header rather
+ * than from the configured level, so saves written with compression on or off can always be read.
+ * <p>
+ * Compressed snapshot files are split further into blocks of {@value #BLOCK_SIZE} uncompressed bytes,
+ * each a complete gzip member. The file as a whole is still an ordinary gzip stream, but a record can
+ * also be read by decompressing from the start of the block that holds it.
+ */
+public final class Compression {
+    /** System property that sets the compression level new saves are written with, from 0 (off) to 9 */
+    public static final String PROPERTY = "dungeoncrawler.saveCompression";
+
+    /** Writes files uncompressed */
+    public static final Compression NONE = new Compression(0);
+
+    /** Size of the buffer on either side of the compressor */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Number of uncompressed bytes in each block of a compressed snapshot file */
+    public static final int BLOCK_SIZE = 64 * 1024;
+
+    /** The first two bytes of every gzip stream */
+    private static final int GZIP_MAGIC = 0x1f8b;
+
+    /** Deflate level, or 0 if compression is off */
+    private final int level;
+
+    /**
+     * @param level The deflate level from 1 (fastest) to 9 (smallest), or 0 to turn compression off
+     */
+    public Compression(int level) {
+        if (level < 0 || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between 0 and 9: " + level);
+        }
+        this.level = level;
+    }
+
+    /**
+     * @return The compression selected by the {@value #PROPERTY} system property, off by default
+     */
+    public static Compression fromSystemProperty() {
+        return new Compression(Integer.parseInt(System.getProperty(PROPERTY, "0")));
+    }
+
+    /**
+     * @return true if new files are compressed
+     */
+    public boolean isEnabled() {
+        return level > 0;
+    }
+
+    /**
+     * @return The deflate level, or 0 if compression is off
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Wraps a stream so everything written to it is compressed in blocks. Call {@link #finish(OutputStream)}
+     * on the result to write the last block. If compression is off, the stream is returned as-is.
+     *
+     * @param out The stream to write compressed bytes to
+     * @return The stream to write uncompressed bytes to
+     */
+    public OutputStream compress(OutputStream out) {
+        if (!isEnabled()) {
+            return out;
+        }
+        return new BlockOutputStream(out, level);
+    }
+
+    /**
+     * Writes out everything buffered by a stream from {@link #compress(OutputStream)}, including the
+     * last compressed block, without closing the stream underneath.
+     *
+     * @param out A stream returned by {@link #compress(OutputStream)}
+     * @throws IOException If the stream could not be written
+     */
+    public static void finish(OutputStream out) throws IOException {
+        if (out instanceof BlockOutputStream blocks) {
+            blocks.finish();
+        }
+        out.flush();
+    }
+
+    /**
+     * @param out A stream returned by {@link #compress(OutputStream)}, after {@link #finish(OutputStream)}
+     * @return The position in the compressed file at which each block starts, or null if the stream is uncompressed
+     */
+    public static long[] getBlockPositions(OutputStream out) {
+        return out instanceof BlockOutputStream blocks ? blocks.positions.stream().mapToLong(Long::longValue).toArray() : null;
+    }
+
+    /**
+     * Reads part of a file's uncompressed contents without reading what comes before it.
+     *
+     * @param channel The file to read
+     * @param blockPositions The file's block positions, or null if the file is uncompressed
+     * @param offset Where the part starts in the file's uncompressed contents
+     * @param length The number of bytes to read
+     * @return The bytes read
+     * @throws IOException If the file could not be read or ends early
+     */
+    public static byte[] readAt(FileChannel channel, long[] blockPositions, long offset, int length) throws IOException {
+        if (blockPositions == null) {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException("Record runs past the end of the file");
+                }
+            }
+            return buffer.array();
+        }
+        int block = (int) (offset / BLOCK_SIZE);
+        channel.position(blockPositions[block]);
+        // A record may run on into the next block, which the gzip stream reads as its next member
+        InputStream in = new GZIPInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+        in.skipNBytes(offset - (long) block * BLOCK_SIZE);
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Record runs past the end of the file");
+        }
+        return bytes;
+    }
+
+    /**
+     * Compresses a block of bytes on its own.
+     *
+     * @param bytes The bytes to compress
+     * @param length The number of bytes to compress from the start of the array
+     * @return The compressed block
+     * @throws IOException If the block could not be compressed
+     */
+    public byte[] compress(byte[] bytes, int length) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+        try (OutputStream out = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            out.write(bytes, 0, length);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Decompresses a block written by {@link #compress(byte[], int)}.
+     *
+     * @param block The compressed block
+     * @return The original bytes
+     * @throws IOException If the block is not a valid compressed block
+     */
+    public static byte[] decompress(byte[] block) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(block))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Opens a file for reading, decompressing it if it was written compressed.
+     * The file is read from its start whatever the channel's position.
+     *
+     * @param channel The file to read
+     * @return A stream of the file's uncompressed contents
+     * @throws IOException If the file could not be read
+     */
+    public static InputStream open(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(2);
+        channel.read(header, 0);
+        channel.position(0);
+        InputStream in = Channels.newInputStream(channel);
+        if (header.position() == 2 && (header.getShort(0) & 0xffff) == GZIP_MAGIC) {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+        return in;
+    }
+
+    /**
+     * Compresses everything written to it as a series of gzip members of {@value #BLOCK_SIZE}
+     * uncompressed bytes each, remembering where in the output each one starts.
+     */
+    private static class BlockOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final int level;
+        private final byte[] block = new byte[BLOCK_SIZE];
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(BLOCK_SIZE);
+        private final List<Long> positions = new ArrayList<>();
+        private int filled = 0;
+        private long written = 0;
+
+        private BlockOutputStream(OutputStream out, int level) {
+            this.out = out;
+            this.level = level;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                int count = Math.min(length, BLOCK_SIZE - filled);
+                System.arraycopy(bytes, offset, block, filled, count);
+                filled += count;
+                offset += count;
+                length -= count;
+                if (filled == BLOCK_SIZE) {
+                    writeBlock();
+                }
+            }
+        }
+
+        private void finish() throws IOException {
+            writeBlock();
+        }
+
+        private void writeBlock() throws IOException {
+            if (filled == 0) {
+                return;
+            }
+            compressed.reset();
+            try (DeflaterOutputStream member = new GZIPOutputStream(compressed, BUFFER_SIZE) {
+                {
+                    def.setLevel(level);
+                }
+            }) {
+                member.write(block, 0, filled);
+            }
+            positions.add(written);
+            compressed.writeTo(out);
+            written += compressed.size();
+            filled = 0;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.joshuacgunn.core.save;
+
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static io.github.joshuacgunn.core.gson.GsonProvider.GSON;
+
+/**
+ * Saves records as pretty printed JSON, with each snapshot file a JSON object keyed by UUID.
+ * Files are streamed through a {@link JsonWriter} or {@link JsonReader} one record at a time.
+ * Larger and slower than {@link BinarySaveFormat}, but readable, which makes it useful for debugging.
+ */
+public final class JsonSaveFormat implements SaveFormat {
+    public static final JsonSaveFormat INSTANCE = new JsonSaveFormat();
+
+    /** Size of the buffer between the JSON stream and the file channel */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private JsonSaveFormat() { }
+
+    @Override
+    public String getName() {
+        return "json";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".json";
+    }
+
+    @Override
+    public byte[] encode(Object dto) {
+        return GSON.toJson(dto).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public <T> T decode(byte[] record, Class<T> type) {
+        return GSON.fromJson(new String(record, StandardCharsets.UTF_8), type);
+    }
+
+    @Override
+    public RecordWriter openWriter(WritableByteChannel channel) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        // Counts the encoded bytes so each record's offset is known. Flushing stops here, so the
+        // per-record flush below only empties the encoder and the buffer still batches the writes.
+        long[] position = {0};
+        OutputStream counting = new FilterOutputStream(buffered) {
+            @Override
+            public void write(int b) throws IOException {
+                buffered.write(b);
+                position[0]++;
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                buffered.write(bytes, offset, length);
+                position[0] += length;
+            }
+
+            @Override
+            public void flush() { }
+        };
+        JsonWriter json = new JsonWriter(new OutputStreamWriter(counting, StandardCharsets.UTF_8));
+        json.setIndent("  ");
+        json.beginObject();
+        return new RecordWriter() {
+            @Override
+            public long write(UUID uuid, byte[] record) throws IOException {
+                json.name(uuid.toString());
+                // The record is written verbatim, so it ends up as exactly these bytes in the file
+                json.jsonValue(new String(record, StandardCharsets.UTF_8));
+                json.flush();
+                return position[0] - record.length;
+            }
+
+            @Override
+            public void finish() throws IOException {
+                json.endObject();
+                json.flush();
+                buffered.flush();
+            }
+        };
+    }
+
+    @Override
+    public RecordReader openReader(ReadableByteChannel channel) throws IOException {
+        JsonReader json = new JsonReader(new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8), BUFFER_SIZE));
+        // Snapshot files from before generations were plain arrays, so their records have no keys
+        boolean keyed = json.peek() == JsonToken.BEGIN_OBJECT;
+        if (keyed) {
+            json.beginObject();
+        } else {
+            json.beginArray();
+        }
+        return new RecordReader() {
+            @Override
+            public UUID next() throws IOException {
+                if (!json.hasNext()) {
+                    return null;
+                }
+                // Unkeyed records carry their UUID inside; this one only stands in as a key, so it stays off the game's streams
+                return keyed ? UUID.fromString(json.nextName()) : UUID.randomUUID();
+            }
+
+            @Override
+            public <T> T read(Class<T> type) {
+                return GSON.fromJson(json, type);
+            }
+
+            @Override
+            public byte[] readRaw() {
+                return GSON.toJson(JsonParser.parseReader(json)).getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public void skip() throws IOException {
+                json.skipValue();
+            }
+        };
+    }
+}
@@ -0,0 +1,189 @@
+package io.github.joshuacgunn.core.save;
+
+import io.github.joshuacgunn.core.dto.LocationIndexDTO;
+import io.github.joshuacgunn.core.entity.Entity;
+import io.github.joshuacgunn.core.item.Item;
+import io.github.joshuacgunn.core.location.Location;
+import io.github.joshuacgunn.core.location.LocationRegistry;
+
+import java.util.*;
+
+/**
+ * Loads saved dungeons and towns the first time they are looked up, rather than when the save is loaded.
+ * <p>
+ * Each pending location is described by the {@link LocationIndexDTO} saved alongside it, which lists
+ * its floors or shops and the entities and items it owns. Loading a location reads just those records
+ * from the live save generation, maps them, and marks them clean since they match the save. Loading
+ * every pending location at once reads all their records in parallel before linking any of them.
+ * <p>
+ * Until they are loaded, a location's records are reported by {@link #getPendingRecords(String)} so each
+ * save keeps them as they are on disk. Pending entities are not in the entity registry, so they do not tick.
+ * Only used from the game thread.
+ */
+final class LocationLoader implements LocationRegistry.Loader {
+    /** The index of each pending dungeon or town, keyed by its UUID */
+    private final Map<UUID, LocationIndexDTO> pendingLocations = new HashMap<>();
+
+    /** The dungeon or town each pending floor or shop belongs to */
+    private final Map<UUID, UUID> parents = new HashMap<>();
+
+    /** UUIDs of the records that belong to pending locations, keyed by snapshot file name */
+    private final Map<String, Set<UUID>> pendingRecords = new HashMap<>();
+
+    /** Every armor in the save, used to tell which snapshot file a pending item is in */
+    private final Set<UUID> savedArmors;
+
+    /**
+     * @param indexes The index of every saved dungeon and town that should load on demand
+     * @param savedArmors The UUIDs of every armor in the save
+     * @param loadedItems Items that are already loaded, which are left out of the pending records
+     */
+    LocationLoader(Collection<LocationIndexDTO> indexes, Set<UUID> savedArmors, Set<UUID> loadedItems) {
+        this.savedArmors = savedArmors;
+        for (LocationIndexDTO index : indexes) {
+            pendingLocations.put(index.getLocationUUID(), index);
+            for (UUID child : index.getChildLocationUUIDs()) {
+                parents.put(child, index.getLocationUUID());
+            }
+            pending(locationFile(index)).add(index.getLocationUUID());
+            pending("locations_index").add(index.getLocationUUID());
+            pending(entityFile(index)).addAll(index.getEntityUUIDs());
+            for (UUID item : index.getItemUUIDs()) {
+                if (!loadedItems.contains(item)) {
+                    pending(itemFile(item)).add(item);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param indexes The index of every saved dungeon and town
+     * @return The UUIDs of every item the locations own
+     */
+    static Set<UUID> ownedItems(Collection<LocationIndexDTO> indexes) {
+        Set<UUID> items = new HashSet<>();
+        indexes.forEach(index -> items.addAll(index.getItemUUIDs()));
+        return items;
+    }
+
+    /**
+     * @param indexes The index of every saved dungeon and town
+     * @return The UUIDs of every entity the locations own
+     */
+    static Set<UUID> ownedEntities(Collection<LocationIndexDTO> indexes) {
+        Set<UUID> entities = new HashSet<>();
+        indexes.forEach(index -> entities.addAll(index.getEntityUUIDs()));
+        return entities;
+    }
+
+    /**
+     * @param fileName A snapshot file name
+     * @return The records of the file that belong to locations that are not loaded yet
+     */
+    Set<UUID> getPendingRecords(String fileName) {
+        return pendingRecords.getOrDefault(fileName, Collections.emptySet());
+    }
+
+    @Override
+    public boolean isPending(UUID uuid) {
+        return pendingLocations.containsKey(uuid) || parents.containsKey(uuid);
+    }
+
+    @Override
+    public void load(UUID uuid) {
+        LocationIndexDTO index = pendingLocations.get(parents.getOrDefault(uuid, uuid));
+        if (index != null) {
+            load(List.of(index));
+        }
+    }
+
+    @Override
+    public void loadAll() {
+        load(new ArrayList<>(pendingLocations.values()));
+    }
+
+    /**
+     * Loads pending locations together, reading the records of all of them in parallel before linking them.
+     */
+    private void load(List<LocationIndexDTO> indexes) {
+        // Forget the locations first, since mapping them registers them and looks them up again
+        indexes.forEach(this::forget);
+
+        Set<UUID> items = new LinkedHashSet<>();
+        Map<String, List<UUID>> wanted = new HashMap<>();
+        for (LocationIndexDTO index : indexes) {
+            for (UUID item : index.getItemUUIDs()) {
+                if (!Item.itemMap.containsKey(item)) {
+                    items.add(item);
+                }
+            }
+            wanted.computeIfAbsent(entityFile(index), name -> new ArrayList<>()).addAll(index.getEntityUUIDs());
+            wanted.computeIfAbsent(locationFile(index), name -> new ArrayList<>()).add(index.getLocationUUID());
+        }
+        wanted.put("armors_snapshot", new ArrayList<>(items));
+        wanted.put("weapons_snapshot", new ArrayList<>(items));
+        Map<String, Map<UUID, Object>> records = SaveManager.readFiles(wanted);
+        SaveManager.linkRecords(fileName -> records.getOrDefault(fileName, Collections.emptyMap()).values());
+
+        // Everything just loaded matches the save
+        for (UUID item : items) {
+            Item loaded = Item.itemMap.get(item);
+            if (loaded != null) loaded.markClean();
+        }
+        for (LocationIndexDTO index : indexes) {
+            for (UUID entity : index.getEntityUUIDs()) {
+                Entity loaded = Entity.entityMap.get(entity);
+                if (loaded != null) loaded.markClean();
+            }
+            for (UUID child : index.getChildLocationUUIDs()) {
+                Location loaded = Location.locationMap.get(child);
+                if (loaded != null) loaded.markClean();
+            }
+            Location loaded = Location.locationMap.get(index.getLocationUUID());
+            if (loaded != null) loaded.markClean();
+        }
+    }
+
+    @Override
+    public void discard(UUID uuid) {
+        LocationIndexDTO index = pendingLocations.get(parents.getOrDefault(uuid, uuid));
+        if (index == null) {
+            return;
+        }
+        // The location itself is dropped from the save, but its entities and items are kept as they are
+        pendingLocations.remove(index.getLocationUUID());
+        index.getChildLocationUUIDs().forEach(parents::remove);
+        pending(locationFile(index)).remove(index.getLocationUUID());
+        pending("locations_index").remove(index.getLocationUUID());
+    }
+
+    /**
+     * Removes a location and everything it owns from the pending records.
+     */
+    private void forget(LocationIndexDTO index) {
+        pendingLocations.remove(index.getLocationUUID());
+        index.getChildLocationUUIDs().forEach(parents::remove);
+        pending(locationFile(index)).remove(index.getLocationUUID());
+        pending("locations_index").remove(index.getLocationUUID());
+        pending(entityFile(index)).removeAll(index.getEntityUUIDs());
+        for (UUID item : index.getItemUUIDs()) {
+            pending(itemFile(item)).remove(item);
+        }
+    }
+
+    private Set<UUID> pending(String fileName) {
+        return pendingRecords.computeIfAbsent(fileName, name -> new HashSet<>());
+    }
+
+    private String itemFile(UUID item) {
+        return savedArmors.contains(item) ? "armors_snapshot" : "weapons_snapshot";
+    }
+
+    private static String locationFile(LocationIndexDTO index) {
+        return index.getLocationType().equals("Dungeon") ? "dungeons_snapshot" : "towns_snapshot";
+    }
+
+    private static String entityFile(LocationIndexDTO index) {
+        return index.getLocationType().equals("Dungeon") ? "enemies_snapshot" : "NPCs_snapshot";
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.joshuacgunn.core.save;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.UUID;
+
+/**
+ * Encodes save records and snapshot files.
+ * <p>
+ * A record is one DTO from {@code io.github.joshuacgunn.core.dto}, such as a dungeon or an item.
+ * A snapshot file is a set of records keyed by the UUID of the object they describe.
+ * The {@link SaveStore} writes every generation in a single format and records which one, so saves
+ * written in any format can still be loaded after switching to another.
+ */
+public interface SaveFormat {
+    /** System property that selects the format new saves are written in */
+    String PROPERTY = "dungeoncrawler.saveFormat";
+
+    /**
+     * @return The name of this format, as written to a generation and used by {@link #forName(String)}
+     */
+    String getName();
+
+    /**
+     * @return The extension of files written in this format, including the dot
+     */
+    String getFileExtension();
+
+    /**
+     * Encodes a single record.
+     *
+     * @param dto The DTO to encode
+     * @return The encoded record
+     */
+    byte[] encode(Object dto);
+
+    /**
+     * Decodes a single record.
+     *
+     * @param record The encoded record
+     * @param type The DTO class the record is expected to hold
+     * @return The decoded DTO
+     */
+    <T> T decode(byte[] record, Class<T> type);
+
+    /**
+     * Starts writing one snapshot file. Records are written to the channel as they are handed over,
+     * through a buffer, so the file is never held in memory as a whole.
+     *
+     * @param channel The channel to write to. It is left open.
+     * @return A writer for the file's records
+     * @throws IOException If the file header could not be written
+     */
+    RecordWriter openWriter(WritableByteChannel channel) throws IOException;
+
+    /**
+     * Starts reading one snapshot file, one record at a time.
+     *
+     * @param channel The channel to read from
+     * @return A reader for the file's records
+     * @throws IOException If the file header could not be read
+     */
+    RecordReader openReader(ReadableByteChannel channel) throws IOException;
+
+    /**
+     * Writes the records of a snapshot file one at a time.
+     */
+    interface RecordWriter {
+        /**
+         * @param uuid The UUID of the object the record describes
+         * @param record The encoded record
+         * @return Where the record's bytes start in the file, so it can later be read on its own
+         * @throws IOException If the record could not be written
+         */
+        long write(UUID uuid, byte[] record) throws IOException;
+
+        /**
+         * Ends the file and flushes everything to the channel.
+         *
+         * @throws IOException If the file could not be finished
+         */
+        void finish() throws IOException;
+    }
+
+    /**
+     * Reads the records of a snapshot file one at a time. Call {@link #next()} to move to a record,
+     * then consume it with exactly one of {@link #read(Class)}, {@link #readRaw()} or {@link #skip()}.
+     */
+    interface RecordReader {
+        /**
+         * @return The UUID of the next record, or null once the file has no more records
+         * @throws IOException If the file could not be read
+         */
+        UUID next() throws IOException;
+
+        /**
+         * @param type The DTO class the record is expected to hold
+         * @return The current record, decoded
+         * @throws IOException If the record could not be read
+         */
+        <T> T read(Class<T> type) throws IOException;
+
+        /**
+         * @return The current record, still encoded
+         * @throws IOException If the record could not be read
+         */
+        byte[] readRaw() throws IOException;
+
+        /**
+         * Moves past the current record without decoding it.
+         *
+         * @throws IOException If the record could not be read
+         */
+        void skip() throws IOException;
+    }
+
+    /**
+     * @param name The name of a format
+     * @return The format with that name
+     */
+    static SaveFormat forName(String name) {
+        return switch (name) {
+            case "json" -> JsonSaveFormat.INSTANCE;
+            case "binary" -> BinarySaveFormat.INSTANCE;
+            default -> throw new IllegalArgumentException("Unknown save format: " + name);
+        };
+    }
+
+    /**
+     * @return The format selected by the {@value #PROPERTY} system property, binary by default
+     */
+    static SaveFormat fromSystemProperty() {
+        return forName(System.getProperty(PROPERTY, "binary"));
+    }
+}
@@ -5,33 +5,53 @@ import io.github.joshuacgunn.core.entity.Enemy;
 import io.github.joshuacgunn.core.entity.Entity;
 import io.github.joshuacgunn.core.entity.NPC;
 import io.github.joshuacgunn.core.entity.Player;
-import io.github.joshuacgunn.core.gameplay.CombatState;
 import io.github.joshuacgunn.core.item.Armor;
 import io.github.joshuacgunn.core.item.Item;
 import io.github.joshuacgunn.core.item.Weapon;
 import io.github.joshuacgunn.core.location.Dungeon;
+import io.github.joshuacgunn.core.location.DungeonFloor;
 import io.github.joshuacgunn.core.location.Location;
+import io.github.joshuacgunn.core.location.LocationRegistry;
+import io.github.joshuacgunn.core.location.Shop;
 import io.github.joshuacgunn.core.location.Town;
+import io.github.joshuacgunn.core.location.WorldGenerator;
 import io.github.joshuacgunn.core.mapper.DungeonMapper;
 import io.github.joshuacgunn.core.mapper.EntityMapper;
 import io.github.joshuacgunn.core.mapper.ItemMapper;
 import io.github.joshuacgunn.core.mapper.TownMapper;
-import com.google.gson.reflect.TypeToken;
-import io.github.joshuacgunn.core.misc.GameMethods;
+import io.github.joshuacgunn.core.misc.NameService;
+import io.github.joshuacgunn.core.misc.RngService;
+import io.github.joshuacgunn.core.tickmanager.TickManager;
 import io.github.joshuacgunn.core.tickmanager.Tickable;
 import org.apache.commons.io.FileUtils;
 
-import java.lang.reflect.Type;
-import java.text.SimpleDateFormat;
 import java.util.*;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.io.*;
 
-import static io.github.joshuacgunn.core.gson.GsonProvider.GSON;
-
 /**
  * A utility class that manages game state persistence and loading operations.
  * Handles saving and loading of all game elements including player data, entities,
  * locations, and items. Also manages backup functionality for save files.
+ * <p>
+ * Saving is split across two threads. The game thread takes a snapshot of the registries by mapping
+ * changed objects to DTOs, which are detached copies of the game state. The snapshot is then handed
+ * to a single background writer thread that encodes it in the configured {@link SaveFormat} and does
+ * all file I/O, so the game thread never waits on the disk. The writer owns every field that tracks
+ * what the last save contained.
+ * <p>
+ * On disk, saves are kept by a {@link SaveStore} as atomically committed generations plus a journal
+ * of the changes made since, so an interrupted save never leaves the snapshot files out of step.
+ * <p>
+ * Loading only reads the player, what the player carries and the player's location. Every other
+ * dungeon and town is loaded by a {@link LocationLoader} the first time it is looked up in
+ * {@link Location#locationMap}, using the index of record offsets each generation keeps.
  */
 public abstract class SaveManager implements Tickable {
     /** Directory path for main save files */
@@ -40,376 +60,835 @@ public abstract class SaveManager implements Tickable {
     /** Directory path for backup save files */
     public static final String BACKUP_DIRECTORY = "backups/";
 
-    /** Date format for backup file naming */
-    private static final SimpleDateFormat date = new SimpleDateFormat("dd_HH.mm.ss");
+    /** Number of journal entries after which the next save writes a complete new generation instead */
+    private static final int JOURNAL_LIMIT = 50;
+
+    /** Number of ticks between autosaves */
+    private static final int AUTOSAVE_INTERVAL = 300;
+
+    /** Number of threads that parse snapshot files while loading */
+    private static final int PARSER_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /** Smallest number of records of one file read by a single parser thread */
+    private static final int MIN_RECORDS_PER_TASK = 64;
+
+    /** Parses snapshot files into DTOs while loading, so files and parts of files are decoded side by side */
+    private static final ExecutorService parsers = Executors.newFixedThreadPool(PARSER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "save-parser");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** The DTO class each snapshot file holds */
+    private static final Map<String, Class<?>> FILE_TYPES = Map.of(
+        "armors_snapshot", ArmorDTO.class,
+        "weapons_snapshot", WeaponDTO.class,
+        "NPCs_snapshot", NpcDTO.class,
+        "enemies_snapshot", EnemyDTO.class,
+        "dungeons_snapshot", DungeonDTO.class,
+        "towns_snapshot", TownDTO.class);
+
+    /** The thread that encodes and writes every snapshot, one at a time and in the order they were taken */
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "save-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** The format new saves are written in, chosen with the {@value SaveFormat#PROPERTY} system property */
+    private static final SaveFormat format = SaveFormat.fromSystemProperty();
+
+    /** Compression of snapshot files and backups, chosen with the {@value Compression#PROPERTY} system property */
+    private static final Compression compression = Compression.fromSystemProperty();
+
+    /** The on-disk save generations and journal. Only accessed by the writer thread. */
+    private static final SaveStore store = new SaveStore(Path.of(SAVE_DIRECTORY), compression);
+
+    /**
+     * Whether the save directory holds a save. Only the writer thread touches the store, so it sets this after
+     * every save, restore and delete, and other threads read this instead of asking the store.
+     * Read from disk once up front, before the writer has been given anything to do.
+     */
+    private static volatile boolean saveExists = store.containsSave();
+
+    /** Deduplicated backups of the save directory. Only accessed by the writer thread. */
+    private static final BackupStore backups = new BackupStore(Path.of(BACKUP_DIRECTORY), BackupStore.RetentionPolicy.DEFAULT, compression);
+
+    /** Registered with the {@link io.github.joshuacgunn.core.tickmanager.TickManager} by {@link #startAutosave()} */
+    private static final SaveManager AUTOSAVE = new SaveManager() {};
+
+    /**
+     * UUIDs of the records in the last save of each snapshot file, keyed by file name, used to find
+     * objects that were removed since. Only UUIDs are kept rather than the records themselves, since
+     * the store rebuilds unchanged records from disk. Only accessed by the writer thread.
+     */
+    private static final Map<String, Set<UUID>> savedUuids = new HashMap<>();
+
+    /** The player record from the last save, used to skip rewriting an unchanged player file. Only accessed by the writer thread. */
+    private static byte[] savedPlayerRecord;
+
+    /** Loads the dungeons and towns of the last loaded save on demand, or null if they were all loaded up front */
+    private static LocationLoader locationLoader;
+
+    /** The most recently submitted save, used to wait for pending writes */
+    private static Future<?> lastSave;
+
+    /** Set when the save on disk can no longer be built on, so the next snapshot maps every object */
+    private static volatile boolean resyncRequired = false;
+
+    /** Set by the tick thread when an autosave is due, and consumed by the game thread */
+    private static volatile boolean autosaveRequested = false;
+
+    /**
+     * The contents of one snapshot file, captured on the game thread.
+     * Objects that changed since the last save map to a freshly built DTO, and unchanged objects
+     * map to null so the writer keeps the record already on disk.
+     *
+     * @param fileName The snapshot file name inside the save directory
+     * @param dtos The DTO of each object in the file, in save order
+     */
+    private record PendingFile(String fileName, Map<UUID, Object> dtos) { }
+
+    /**
+     * The decoded records of each snapshot file while loading.
+     */
+    @FunctionalInterface
+    interface ParsedRecords {
+        /**
+         * @param fileName A snapshot file name
+         * @return The file's decoded records, waiting for them if they are still being parsed
+         */
+        Collection<?> get(String fileName);
+    }
 
     /**
      * Saves the complete game state using the current player context.
-     * Creates a comprehensive save including all related game elements.
+     * <p>
+     * This must be called from the game thread. It only takes a snapshot of the objects marked dirty
+     * since the previous save and returns straight away; the snapshot is encoded and written by the
+     * background writer thread. Snapshot files whose contents did not change are left untouched, and
+     * a backup is only taken if something was actually written.
      *
      * @param player The player whose game state is being saved
      */
     public static void saveState(Player player) {
+        boolean pending;
+        synchronized (writer) {
+            pending = lastSave != null && !lastSave.isDone();
+        }
+        // A new game starts from an empty save directory, so its first save has to be complete.
+        // A save still in the queue will write that first generation, so later ones can build on it.
+        boolean resync = resyncRequired || (!pending && !saveExists);
+        resyncRequired = false;
+        if (resync && activeLoader() != null) {
+            // A complete save needs every object in memory
+            activeLoader().loadAll();
+        }
+
         // The order of this is critical for functionality. It will not work if changed.
-        saveItems();
-        saveEntities();
-        saveDungeons();
-        saveTowns();
-        savePlayer(player);
-        backupSave();
+        List<PendingFile> snapshot = new ArrayList<>();
+        snapshotItems(snapshot, resync);
+        snapshotEntities(snapshot, resync);
+        snapshotLocationIndex(snapshot, resync);
+        snapshotDungeons(snapshot, resync);
+        snapshotTowns(snapshot, resync);
+        PlayerDTO playerDTO = (PlayerDTO) EntityMapper.INSTANCE.entityToEntityDTO(player);
+        player.markClean();
+
+        synchronized (writer) {
+            lastSave = writer.submit(() -> writeSave(snapshot, playerDTO, resync));
+        }
     }
 
     /**
-     * Loads the complete game state from saved files.
-     * Reconstructs the entire game state including all entities and locations.
-     *
-     * @return The loaded Player object with restored game state
+     * Blocks until every save submitted so far has been written to disk.
+     * Call this before reading or deleting the save directory, and before the game exits.
      */
-    public static Player loadState() {
-        if (!(new File(SAVE_DIRECTORY).exists()) && new File(BACKUP_DIRECTORY + "saves/").exists()) {
-            loadBackup();
-        } else if (!(new File(SAVE_DIRECTORY).exists()) && !(new File(BACKUP_DIRECTORY + "saves/").exists())) {
-            return null;
+    public static void awaitPendingSaves() {
+        Future<?> pending;
+        synchronized (writer) {
+            pending = lastSave;
+        }
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Already reported by the writer thread
         }
-
-            // The order of this is critical for functionality. It will not work if changed.
-        loadItems();
-        loadEntities();
-        loadDungeons();
-        loadTowns();
-        manageBackupDirectory();
-        return loadPlayer();
     }
 
     /**
-     * Creates the necessary directory structure for save files.
-     * Ensures both main save and backup directories exist.
+     * Starts requesting an autosave every {@value #AUTOSAVE_INTERVAL} ticks.
+     * The tick only raises a flag; the save itself is taken by {@link #autosaveIfRequested(Player)}
+     * on the game thread, so the registries are never read while the game thread is changing them.
      */
-    public static void createDirectories() {
-        try {
-            File save_dir = new File(SAVE_DIRECTORY);
-            File backup = new File(BACKUP_DIRECTORY);
-            File backup_saves = new File(BACKUP_DIRECTORY + "saves");
+    public static void startAutosave() {
+        TickManager.getInstance().register(AUTOSAVE);
+    }
 
-            if (!save_dir.exists()) save_dir.mkdirs();
-            if (!backup.exists()) backup.mkdirs();
-            if (!backup_saves.exists()) backup_saves.mkdirs();
-        } catch (Exception e) {
-            e.printStackTrace();
+    /**
+     * Saves the game if an autosave has been requested since the last call.
+     * Game states call this at the start of each update, while no game logic is running.
+     *
+     * @param player The player whose game state is being saved
+     */
+    public static void autosaveIfRequested(Player player) {
+        if (autosaveRequested) {
+            autosaveRequested = false;
+            saveState(player);
         }
     }
 
     /**
-     * Creates a backup of the current save state.
-     * Uses timestamp-based naming for backup files.
+     * Checks whether there is a save to load. Safe to call from any thread.
+     *
+     * @return true if the save directory holds a save
      */
-    public static void backupSave() {
-        String location = ("backups/saves/save_" + date.format(new Date()));
-        File backupDir = new File(location);
+    public static boolean hasSave() {
+        return saveExists;
+    }
 
-        File saveDir = new File("saves/");
-        try {
-            FileUtils.copyDirectory(saveDir, backupDir);
-            manageBackupDirectory();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     * Checks whether there is a backup to restore, such as when the save itself is missing.
+     *
+     * @return true if the backup directory holds a backup
+     */
+    public static boolean hasBackup() {
+        return backups.hasBackups();
     }
 
     /**
-     * Manages the backup directory by enforcing size limits and cleanup.
-     * Removes old backups when necessary.
+     * Encodes and writes a snapshot. Runs on the writer thread.
+     * <p>
+     * The changed records are appended to the journal of the live generation. If the snapshot is
+     * complete, or the journal has grown past {@value #JOURNAL_LIMIT} entries, a new generation is
+     * committed instead. Nothing is written if no record changed.
+     *
+     * @param snapshot The snapshot files, in save order
+     * @param playerDTO The player at the time of the snapshot
+     * @param full If true, the snapshot holds a DTO for every object
      */
-    private static void manageBackupDirectory() {
-        File dir = new File(BACKUP_DIRECTORY + "saves" + "/");
-        if (dir.exists()) {
-            File[] files = dir.listFiles();
-            if (files != null && files.length > 10) {
-                Arrays.sort(files, Comparator.comparingLong(File::lastModified));
-                files[0].delete();
+    private static void writeSave(List<PendingFile> snapshot, PlayerDTO playerDTO, boolean full) {
+        try {
+            if (full) {
+                savedUuids.clear();
+            }
+            Map<String, Map<UUID, byte[]>> changes = new LinkedHashMap<>();
+            for (PendingFile file : snapshot) {
+                encodeFile(file, changes, full);
+            }
+            byte[] playerRecord = format.encode(playerDTO);
+            boolean playerChanged = !Arrays.equals(playerRecord, savedPlayerRecord);
+            savedPlayerRecord = playerRecord;
+            boolean recordsChanged = changes.values().stream().anyMatch(records -> !records.isEmpty());
+
+            if (full || !store.hasGeneration(format) || store.getJournalEntries() >= JOURNAL_LIMIT) {
+                store.commitGeneration(format, changes, playerRecord, full);
+                store.deleteLegacyFiles();
+            } else if (recordsChanged || playerChanged) {
+                store.appendJournal(changes, playerChanged ? playerRecord : null);
+            } else {
+                return;
             }
+            saveExists = true;
+            backupSave();
+        } catch (IOException | RuntimeException e) {
+            // The files on disk may now be out of step with what was saved, so rebuild everything next time
+            savedUuids.clear();
+            savedPlayerRecord = null;
+            resyncRequired = true;
+            saveExists = store.containsSave();
+            System.err.println("Failed to save the game: " + e.getMessage());
+            throw e instanceof RuntimeException runtime ? runtime : new RuntimeException(e);
         }
     }
 
     /**
-     * Loads a backup save state.
-     * Restores the game state from the most recent backup.
+     * Loads the game state from saved files.
+     * Reconstructs the player and its location straight away. Other dungeons and towns are loaded
+     * when they are first looked up, unless the save predates the index they are found through,
+     * in which case everything is loaded up front.
+     *
+     * @return The loaded Player object with restored game state
      */
-    public static void loadBackup () {
-        File backupDir = new File(BACKUP_DIRECTORY + "saves");
-        if (!backupDir.exists() || !backupDir.isDirectory()) {
-            throw new RuntimeException("Backup directory not found");
+    public static Player loadState() {
+        awaitPendingSaves();
+        Location.locationMap.setLoader(null);
+        locationLoader = null;
+        // The store recovers from an interrupted save on its own, so backups are only needed if the save directory is gone
+        SaveStore.SaveData data = onWriter(store::load);
+        if (data == null && backups.hasBackups()) {
+            loadBackup();
+            data = onWriter(store::load);
         }
-
-        // Get all backup directories
-        File[] backupDirs = backupDir.listFiles();
-        if (backupDirs == null || backupDirs.length == 0) {
-            throw new RuntimeException("No backups found");
+        if (data == null) {
+            return null;
         }
 
-        // Sort by last modified time to get the most recent backup
-        Arrays.sort(backupDirs, (f1, f2) -> Long.compare(f2.lastModified(), f1.lastModified()));
-        File mostRecentBackup = backupDirs[0];
-
-        // Clear current save directory
-        File currentSaveDir = new File(SAVE_DIRECTORY);
-        if (currentSaveDir.exists()) {
-            try {
-                FileUtils.deleteDirectory(currentSaveDir);
-            } catch (IOException e) {
-                throw new RuntimeException("Failed to clear current save directory", e);
-            }
+        SaveStore.SaveData loaded = data;
+        Map<String, Set<UUID>> records = loaded.isIndexed() && loaded.format() == format ? onWriter(store::listRecords) : null;
+        if (records != null && records.containsKey("locations_index")) {
+            Player player = loadLazily(loaded, records);
+            onWriter(() -> {
+                savedUuids.clear();
+                savedUuids.putAll(records);
+                savedPlayerRecord = loaded.playerRecord();
+                return null;
+            });
+            Entity.entityMap.values().forEach(Entity::markClean);
+            Item.itemMap.values().forEach(Item::markClean);
+            Location.locationMap.loadedValues().forEach(Location::markClean);
+            return player;
         }
 
-        // Copy the most recent backup to the save directory
+        // Every file is parsed on a worker of its own, and each is linked as soon as it and the files before it are done
+        Map<String, Future<List<Object>>> parsed = new HashMap<>();
+        for (Map.Entry<String, Class<?>> file : FILE_TYPES.entrySet()) {
+            parsed.put(file.getKey(), parsers.submit(() -> {
+                List<Object> dtos = new ArrayList<>();
+                loaded.forEach(file.getKey(), file.getValue(), dtos::add);
+                return dtos;
+            }));
+        }
         try {
-            FileUtils.copyDirectory(mostRecentBackup, currentSaveDir);
-            System.out.println("Loaded backup from: " + mostRecentBackup.getName());
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to copy backup to save directory", e);
+            clearSavedObjects();
+            restoreClock(data.format().decode(data.playerRecord(), PlayerDTO.class));
+            linkRecords(fileName -> await(parsed.get(fileName)));
+        } finally {
+            parsed.values().forEach(future -> future.cancel(true));
         }
+        Player player = loadPlayer(data);
+
+        // Saves without an index, in an older layout or in another format are rewritten as a complete new generation by the next save
+        onWriter(() -> {
+            savedUuids.clear();
+            savedPlayerRecord = null;
+            return null;
+        });
+        resyncRequired = true;
+        return player;
     }
 
     /**
-     * Saves all game entities to persistent storage.
-     * Includes NPCs, enemies, and other game characters.
+     * Loads the player with what it carries and where it stands, and leaves every other dungeon and
+     * town to be loaded on demand. The records of each are found through the generation's index.
+     *
+     * @param data The save being loaded
+     * @param records The UUIDs of every record in the save, keyed by snapshot file name
+     * @return The loaded player
      */
-    public static void saveEntities() {
-        createDirectories();
-        List<NpcDTO> npcDTOs = new ArrayList<>();
-        List<EnemyDTO> enemyDTOS = new ArrayList<>();
-
-        // Get all entities except player (which is saved separately)
-        for (Entity entity : Entity.getEntities()) {
-            if (entity instanceof NPC) {
-                npcDTOs.add((NpcDTO) EntityMapper.INSTANCE.entityToEntityDTO(entity));
-            } else if (entity instanceof Enemy && entity.isAlive()) {
-                enemyDTOS.add((EnemyDTO) EntityMapper.INSTANCE.entityToEntityDTO(entity));
+    private static Player loadLazily(SaveStore.SaveData data, Map<String, Set<UUID>> records) {
+        List<LocationIndexDTO> indexes = new ArrayList<>();
+        data.forEach("locations_index", LocationIndexDTO.class, indexes::add);
+        Set<UUID> ownedItems = LocationLoader.ownedItems(indexes);
+        Set<UUID> ownedEntities = LocationLoader.ownedEntities(indexes);
+
+        clearSavedObjects();
+        // Towns that stay on disk keep their names
+        for (LocationIndexDTO index : indexes) {
+            if ("Town".equals(index.getLocationType())) {
+                NameService.takeTownName(index.getLocationName());
             }
         }
 
-        try (Writer writer = new FileWriter(SAVE_DIRECTORY + "NPCs_snapshot.json", false)) {
-            writer.write(GSON.toJson(npcDTOs));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        // Items no location owns, and whatever the player carries even if a location's index still lists it
+        PlayerDTO playerDTO = data.format().decode(data.playerRecord(), PlayerDTO.class);
+        restoreClock(playerDTO);
+        Set<UUID> items = new HashSet<>(records.getOrDefault("armors_snapshot", Collections.emptySet()));
+        items.addAll(records.getOrDefault("weapons_snapshot", Collections.emptySet()));
+        items.removeAll(ownedItems);
+        if (playerDTO.getInventory() != null && playerDTO.getInventory().getItemUUIDs() != null) {
+            items.addAll(playerDTO.getInventory().getItemUUIDs());
         }
-        try (Writer writer = new FileWriter(SAVE_DIRECTORY + "enemies_snapshot.json", false)) {
-            writer.write(GSON.toJson(enemyDTOS));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        if (playerDTO.getCurrentWeaponUUID() != null) {
+            items.add(playerDTO.getCurrentWeaponUUID());
         }
+        items.addAll(playerDTO.getEquippedArmorUUIDs());
+        Map<String, Collection<UUID>> wanted = new HashMap<>();
+        wanted.put("armors_snapshot", items);
+        wanted.put("weapons_snapshot", items);
+
+        // Entities no location owns
+        for (String fileName : List.of("NPCs_snapshot", "enemies_snapshot")) {
+            Set<UUID> entities = new HashSet<>(records.getOrDefault(fileName, Collections.emptySet()));
+            entities.removeAll(ownedEntities);
+            wanted.put(fileName, entities);
+        }
+        Map<String, Map<UUID, Object>> dtos = readFiles(wanted);
+        linkRecords(fileName -> dtos.getOrDefault(fileName, Collections.emptyMap()).values());
+
+        locationLoader = new LocationLoader(indexes, records.getOrDefault("armors_snapshot", Collections.emptySet()), Item.itemMap.keySet());
+        Location.locationMap.setLoader(locationLoader);
+        restoreWorldSeed(playerDTO);
+        // Mapping the player looks up its location, which loads it
+        return (Player) EntityMapper.INSTANCE.entityDtoToEntity(playerDTO);
     }
 
     /**
-     * Loads all game entities from persistent storage.
-     * Reconstructs entity relationships and states.
+     * Reads single records of the live save generation, decoding them on the parser threads.
+     * Each file's records are split between the threads, and no save is written until all are read.
+     * Called on the game thread while loading locations on demand.
+     *
+     * @param uuids The UUIDs of the records to read, keyed by snapshot file name
+     * @return The records that were found, keyed by file name and then by UUID
      */
-    public static void loadEntities() {
-        try (Reader reader = new FileReader(SAVE_DIRECTORY + "NPCs_snapshot.json")) {
-            // Use TypeToken for proper generic type handling
-            Type listType = new TypeToken<List<NpcDTO>>(){}.getType();
-            List<NpcDTO> npcDTOs = GSON.fromJson(reader, listType);
-
-            // Clear existing entities
-            Entity.entityMap.values().removeIf(e -> e instanceof NPC);
-
-            // Create entities from DTOs
-            for (NpcDTO npcDTO : npcDTOs) {
-                EntityMapper.INSTANCE.entityDtoToEntity(npcDTO);
-            }
-        } catch (IOException e) {
-            // Handle empty file case
-            if (e instanceof FileNotFoundException || e.getMessage().contains("empty")) {
-                System.err.println("No entities file found or empty file. Starting with empty entities.");
-                return;
+    @SuppressWarnings("unchecked")
+    static Map<String, Map<UUID, Object>> readFiles(Map<String, ? extends Collection<UUID>> uuids) {
+        Map<String, List<UUID>> copy = new HashMap<>();
+        uuids.forEach((fileName, records) -> {
+            if (!records.isEmpty()) {
+                copy.put(fileName, List.copyOf(records));
             }
-            throw new RuntimeException(e);
+        });
+        if (copy.isEmpty()) {
+            return Collections.emptyMap();
         }
-        try (Reader reader = new FileReader(SAVE_DIRECTORY + "enemies_snapshot.json")) {
-            Type listType = new TypeToken<List<EnemyDTO>>(){}.getType();
-            List<EnemyDTO> enemyDTOS = GSON.fromJson(reader, listType);
-
-            Entity.entityMap.values().removeIf(e -> e instanceof Enemy);
-
-            for (EnemyDTO enemyDTO : enemyDTOS) {
-                if (enemyDTO.isAlive()) {
-                    EntityMapper.INSTANCE.entityDtoToEntity(enemyDTO);
+        return onWriter(() -> {
+            Map<String, List<Future<Map<UUID, Object>>>> tasks = new HashMap<>();
+            for (Map.Entry<String, List<UUID>> file : copy.entrySet()) {
+                List<UUID> records = file.getValue();
+                Class<Object> type = (Class<Object>) FILE_TYPES.get(file.getKey());
+                int perTask = Math.max(MIN_RECORDS_PER_TASK, (records.size() + PARSER_THREADS - 1) / PARSER_THREADS);
+                for (int start = 0; start < records.size(); start += perTask) {
+                    List<UUID> part = records.subList(start, Math.min(records.size(), start + perTask));
+                    tasks.computeIfAbsent(file.getKey(), name -> new ArrayList<>()).add(parsers.submit(() -> store.readRecords(file.getKey(), part, type)));
                 }
             }
-        } catch (IOException e) {
-            // Handle empty file case
-            if (e instanceof FileNotFoundException || e.getMessage().contains("empty")) {
-                System.err.println("No entities file found or empty file. Starting with empty entities.");
-                return;
+            // Every task is waited for, even after one fails, since none may still be reading once the writer moves on
+            Map<String, Map<UUID, Object>> dtos = new HashMap<>();
+            RuntimeException failure = null;
+            for (Map.Entry<String, List<Future<Map<UUID, Object>>>> file : tasks.entrySet()) {
+                Map<UUID, Object> records = new LinkedHashMap<>();
+                for (Future<Map<UUID, Object>> task : file.getValue()) {
+                    try {
+                        records.putAll(await(task));
+                    } catch (RuntimeException e) {
+                        failure = failure == null ? e : failure;
+                    }
+                }
+                dtos.put(file.getKey(), records);
             }
-            throw new RuntimeException(e);
-        }
+            if (failure != null) {
+                throw failure;
+            }
+            return dtos;
+        });
     }
 
     /**
-     * Saves player-specific data to persistent storage.
-     * Includes inventory, stats, and current state.
+     * Maps decoded records to game objects. This runs on the calling thread, in dependency order: items
+     * first, since entities and chests refer to them, then the entities that floors and shops refer to,
+     * then dungeons and towns.
      *
-     * @param player The player to save
+     * @param records The decoded records of each snapshot file
      */
-    public static void savePlayer(Player player) {
-        createDirectories();
-        try (Writer writer = new FileWriter(SAVE_DIRECTORY + "player_save.json")) {
+    static void linkRecords(ParsedRecords records) {
+        // The order of this is critical for functionality. It will not work if changed.
+        for (Object dto : records.get("armors_snapshot")) {
+            ItemMapper.INSTANCE.itemDtoToItem((ItemDTO) dto);
+        }
+        for (Object dto : records.get("weapons_snapshot")) {
+            ItemMapper.INSTANCE.itemDtoToItem((ItemDTO) dto);
+        }
+        for (Object dto : records.get("NPCs_snapshot")) {
+            EntityMapper.INSTANCE.entityDtoToEntity((NpcDTO) dto);
+        }
+        for (Object dto : records.get("enemies_snapshot")) {
+            if (((EnemyDTO) dto).isAlive()) {
+                EntityMapper.INSTANCE.entityDtoToEntity((EnemyDTO) dto);
+            }
+        }
+        for (Object dto : records.get("dungeons_snapshot")) {
+            DungeonMapper.INSTANCE.dungeonDtoToDungeon((DungeonDTO) dto);
+        }
+        for (Object dto : records.get("towns_snapshot")) {
+            TownMapper.INSTANCE.townDtoToTown((TownDTO) dto);
+        }
+    }
 
-            PlayerDTO playerDTO = (PlayerDTO) EntityMapper.INSTANCE.entityToEntityDTO(player);
-            writer.write(GSON.toJson(playerDTO, PlayerDTO.class));
-        } catch (IOException e) {
+    /**
+     * Removes the objects a save restores from the registries before loading it.
+     */
+    private static void clearSavedObjects() {
+        // Pre-generated locations belong to the world being replaced
+        WorldGenerator.getInstance().clear();
+        Entity.entityMap.values().removeIf(entity -> entity instanceof NPC || entity instanceof Enemy);
+        Location.locationMap.loadedValues().removeIf(location -> location instanceof Dungeon || location instanceof Town);
+        NameService.clearTownNames();
+    }
+
+    /**
+     * Waits for a task on the parser threads and returns its result.
+     */
+    private static <T> T await(Future<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
         }
     }
 
     /**
-     * Loads player data from persistent storage.
+     * @return The loader of the last loaded save if it is still installed, or null
+     */
+    private static LocationLoader activeLoader() {
+        LocationRegistry.Loader loader = Location.locationMap.getLoader();
+        return loader != null && loader == locationLoader ? locationLoader : null;
+    }
+
+    /**
+     * Runs a task on the writer thread and waits for its result, so it never overlaps a pending save.
      *
-     * @return The reconstructed Player object
+     * @param task The task to run
+     * @return The task's result
      */
-    public static Player loadPlayer() {
-            try (Reader reader = new FileReader(SAVE_DIRECTORY + "player_save.json")) {
-                PlayerDTO dto = GSON.fromJson(reader, PlayerDTO.class);
-                return (Player) EntityMapper.INSTANCE.entityDtoToEntity(dto);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+    private static <T> T onWriter(Callable<T> task) {
+        try {
+            return writer.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
         }
+    }
 
     /**
-     * Saves all dungeon locations and their states.
-     * Includes dungeon layout, contents, and progress.
+     * Creates the necessary directory structure for save files.
+     * Ensures both main save and backup directories exist.
      */
-    public static void saveDungeons() {
-        createDirectories();
-        List<DungeonDTO> dungeonDTOs = Location.locationMap.values().stream()
-                .filter(location -> location instanceof Dungeon)
-                .map(location -> (Dungeon) location)
-                .map(DungeonMapper.INSTANCE::dungeonToDungeonDto)
-                .toList();
+    public static void createDirectories() {
+        try {
+            File save_dir = new File(SAVE_DIRECTORY);
+            File backup = new File(BACKUP_DIRECTORY);
 
+            if (!save_dir.exists()) save_dir.mkdirs();
+            if (!backup.exists()) backup.mkdirs();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
 
-        try (Writer writer = new FileWriter(SAVE_DIRECTORY + "dungeons_snapshot.json")) {
-            writer.write(GSON.toJson(dungeonDTOs));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    /**
+     * Creates a backup of the current save state.
+     * Only chunks of the save files that are not backed up yet are stored, so a backup of a save that
+     * barely changed costs little more than its manifest. Old backups are then pruned.
+     * Runs on the writer thread. A failed backup is reported but does not fail the save.
+     */
+    public static void backupSave() {
+        try {
+            backups.backup(Path.of(SAVE_DIRECTORY));
+            backups.applyRetention();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to back up the save: " + e.getMessage());
         }
     }
 
     /**
-     * Loads all dungeon locations and their states.
-     * Reconstructs dungeon environments and contents.
+     * Loads a backup save state.
+     * Rebuilds the save directory from the most recent backup. Full copies of the save directory
+     * from before backups were deduplicated are used if there is no newer backup.
+     *
+     * @return The name of the backup that was restored
      */
-    public static void loadDungeons() {
-        try (Reader reader = new FileReader(SAVE_DIRECTORY + "dungeons_snapshot.json")) {
-            DungeonDTO[] dungeonDTOs = GSON.fromJson(reader, DungeonDTO[].class);
+    public static String loadBackup() {
+        return onWriter(() -> {
+            List<String> manifests = backups.listManifests();
+            if (!manifests.isEmpty()) {
+                backups.restore(manifests.getFirst(), Path.of(SAVE_DIRECTORY));
+                saveExists = store.containsSave();
+                return manifests.getFirst();
+            }
 
-            Location.locationMap.values().removeIf(location -> location instanceof Dungeon);
+            List<Path> legacyBackups = backups.listLegacyBackups();
+            if (legacyBackups.isEmpty()) {
+                throw new RuntimeException("No backups found");
+            }
+            File currentSaveDir = new File(SAVE_DIRECTORY);
+            try {
+                FileUtils.deleteDirectory(currentSaveDir);
+                FileUtils.copyDirectory(legacyBackups.getFirst().toFile(), currentSaveDir);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to copy backup to save directory", e);
+            } finally {
+                saveExists = store.containsSave();
+            }
+            return legacyBackups.getFirst().getFileName().toString();
+        });
+    }
 
-            for (DungeonDTO dto : dungeonDTOs) {
-                DungeonMapper.INSTANCE.dungeonDtoToDungeon(dto);
+    /**
+     * Deletes the save and its backups, such as when the player dies or starts a new game over the old one.
+     * Runs after any save still being written, so nothing is written back afterwards. The next save is complete.
+     */
+    public static void deleteSave() {
+        onWriter(() -> {
+            try {
+                FileUtils.deleteDirectory(new File(SAVE_DIRECTORY));
+                FileUtils.deleteDirectory(new File(BACKUP_DIRECTORY));
+            } catch (IOException e) {
+                System.err.println("Failed to delete the save: " + e.getMessage());
             }
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+            savedUuids.clear();
+            savedPlayerRecord = null;
+            saveExists = store.containsSave();
+            return null;
+        });
     }
 
     /**
-     * Loads all items from persistent storage.
-     * Reconstructs item properties and relationships.
+     * Maps every object of one snapshot file to the DTO that gets serialized, skipping objects
+     * that have not changed since the last save. Every object is marked clean afterwards.
+     *
+     * @param snapshot The snapshot to add the file to
+     * @param fileName The snapshot file name inside the save directory
+     * @param objects The objects that make up the file
+     * @param uuidOf Returns the UUID that identifies an object
+     * @param toDto Maps an object to the DTO that gets serialized
+     * @param resync If true, every object is mapped whether it is dirty or not
      */
-    public static void loadItems() {
-        try (Reader reader = new FileReader(SAVE_DIRECTORY + "armors_snapshot.json")) {
-            ArmorDTO[] armorDTOS = GSON.fromJson(reader, ArmorDTO[].class);
+    private static <T extends Trackable> void snapshotFile(List<PendingFile> snapshot, String fileName, Collection<T> objects, Function<T, UUID> uuidOf, Function<T, ?> toDto, boolean resync) {
+        Map<UUID, Object> dtos = new LinkedHashMap<>();
+        for (T object : objects) {
+            dtos.put(uuidOf.apply(object), resync || object.isDirty() ? toDto.apply(object) : null);
+            object.markClean();
+        }
+        addPendingRecords(dtos, fileName);
+        snapshot.add(new PendingFile(fileName, dtos));
+    }
 
-            // Create items from DTOs
-            for (ArmorDTO dto : armorDTOS) {
-                ItemMapper.INSTANCE.itemDtoToItem(dto);
+    /**
+     * Keeps the records of locations that have not been loaded yet as they are on disk.
+     */
+    private static void addPendingRecords(Map<UUID, Object> dtos, String fileName) {
+        LocationLoader loader = activeLoader();
+        if (loader != null) {
+            for (UUID uuid : loader.getPendingRecords(fileName)) {
+                dtos.putIfAbsent(uuid, null);
             }
-        } catch (IOException e) {
-            throw new RuntimeException(e);
         }
-        try (Reader reader = new FileReader(SAVE_DIRECTORY + "weapons_snapshot.json")) {
-            WeaponDTO[] weaponDTOS = GSON.fromJson(reader, WeaponDTO[].class);
+    }
 
-            for (WeaponDTO dto : weaponDTOS) {
-                ItemMapper.INSTANCE.itemDtoToItem(dto);
+    /**
+     * Encodes one snapshot file and works out how it differs from the last save. Runs on the writer thread.
+     * <p>
+     * Every object with a DTO is encoded as a changed record. Objects without a DTO are left as they
+     * are on disk, and objects from the last save that are no longer in the file are recorded as removed.
+     *
+     * @param file The captured contents of the file
+     * @param changes Collects the encoded changes, keyed by file name and then by UUID, with removed records mapped to null
+     * @param full If true, the file holds every object and nothing from the last save is carried over
+     */
+    private static void encodeFile(PendingFile file, Map<String, Map<UUID, byte[]>> changes, boolean full) {
+        Set<UUID> previous = savedUuids.getOrDefault(file.fileName(), Collections.emptySet());
+        Map<UUID, byte[]> changed = new LinkedHashMap<>();
+
+        for (Map.Entry<UUID, Object> entry : file.dtos().entrySet()) {
+            if (entry.getValue() != null) {
+                changed.put(entry.getKey(), format.encode(entry.getValue()));
+            } else if (full || !previous.contains(entry.getKey())) {
+                throw new IllegalStateException("No saved record for unchanged object " + entry.getKey());
+            }
+        }
+        // A removed object leaves no dirty flag behind, so compare against the previous set of records
+        for (UUID uuid : previous) {
+            if (!file.dtos().containsKey(uuid)) {
+                changed.put(uuid, null);
             }
-        } catch (IOException e) {
-            throw new RuntimeException(e);
         }
+
+        savedUuids.put(file.fileName(), new HashSet<>(file.dtos().keySet()));
+        changes.put(file.fileName(), changed);
     }
 
     /**
-     * Saves all items to persistent storage.
-     * Includes equipment, inventory items, and their states.
+     * Adds all game entities to a snapshot.
+     * Includes NPCs, enemies, and other game characters.
+     *
+     * @param snapshot The snapshot being taken
+     * @param resync If true, every entity is mapped whether it changed or not
      */
-    public static void saveItems() {
-        createDirectories();
-        List<ArmorDTO> armorDTOs = new ArrayList<>();
-        List<WeaponDTO> weaponDTOS = new ArrayList<>();
+    private static void snapshotEntities(List<PendingFile> snapshot, boolean resync) {
+        List<NPC> npcs = new ArrayList<>();
+        List<Enemy> enemies = new ArrayList<>();
 
-        for (Armor armor : Item.getItemsByType(Armor.class)) {
-            armorDTOs.add((ArmorDTO) ItemMapper.INSTANCE.itemToItemDTO((armor)));
-        }
-        for (Weapon weapon : Item.getItemsByType(Weapon.class)) {
-            weaponDTOS.add((WeaponDTO) ItemMapper.INSTANCE.itemToItemDTO(weapon));
+        // Get all entities except player (which is saved separately)
+        for (Entity entity : Entity.entityMap.values()) {
+            if (entity instanceof NPC npc) {
+                npcs.add(npc);
+            } else if (entity instanceof Enemy enemy && entity.isAlive()) {
+                enemies.add(enemy);
+            }
         }
 
-        try (Writer writer = new FileWriter(SAVE_DIRECTORY + "armors_snapshot.json")) {
-            writer.write(GSON.toJson(armorDTOs));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-        try (Writer writer = new FileWriter(SAVE_DIRECTORY + "weapons_snapshot.json")) {
-            writer.write(GSON.toJson(weaponDTOS));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        snapshotFile(snapshot, "NPCs_snapshot", npcs, Entity::getEntityUUID, EntityMapper.INSTANCE::entityToEntityDTO, resync);
+        snapshotFile(snapshot, "enemies_snapshot", enemies, Entity::getEntityUUID, EntityMapper.INSTANCE::entityToEntityDTO, resync);
     }
 
     /**
-     * Saves all town locations and their states.
-     * Includes shops, NPCs, and other town-specific data.
+     * Loads player data from a save.
+     *
+     * @param data The save being loaded
+     * @return The reconstructed Player object
      */
-    public static void saveTowns() {
-        createDirectories();
-        List<TownDTO> townDTOS = Location.locationMap.values().stream()
-                .filter(location -> location instanceof Town)
-                .map(location -> (Town) location)
-                .map(TownMapper.INSTANCE::townToTownDto)
-                .toList();
-
-        try (Writer writer = new FileWriter(SAVE_DIRECTORY + "towns_snapshot.json")) {
-            writer.write(GSON.toJson(townDTOS));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    public static Player loadPlayer(SaveStore.SaveData data) {
+        PlayerDTO dto = data.format().decode(data.playerRecord(), PlayerDTO.class);
+        restoreWorldSeed(dto);
+        return (Player) EntityMapper.INSTANCE.entityDtoToEntity(dto);
+    }
+
+    /**
+     * Carries on generating the saved world from where it left off. Saves from before worlds were seeded
+     * keep the current seed.
+     *
+     * @param dto The saved player
+     */
+    private static void restoreWorldSeed(PlayerDTO dto) {
+        if (dto.getWorldSeed() != null) {
+            RngService.setWorldSeed(dto.getWorldSeed(), dto.getLocationsGenerated());
         }
     }
 
     /**
-     * Loads all town locations and their states.
-     * Reconstructs town environments and inhabitants.
+     * Moves game time to the tick the save was taken at, before any entity is loaded, so status effects
+     * wear off at the ticks that were saved with them.
+     *
+     * @param dto The saved player
      */
-    public static void loadTowns() {
-        try (Reader reader = new FileReader(SAVE_DIRECTORY + "towns_snapshot.json")) {
-            TownDTO[] townDTOS = GSON.fromJson(reader, TownDTO[].class);
+    private static void restoreClock(PlayerDTO dto) {
+        TickManager.getInstance().setCurrentTick(dto.getWorldTick());
+    }
 
-            Location.locationMap.values().removeIf(location -> location instanceof Town);
+    /**
+     * Adds all dungeon locations and their states to a snapshot.
+     * Includes dungeon layout, contents, and progress.
+     *
+     * @param snapshot The snapshot being taken
+     * @param resync If true, every dungeon is mapped whether it changed or not
+     */
+    private static void snapshotDungeons(List<PendingFile> snapshot, boolean resync) {
+        snapshotFile(snapshot, "dungeons_snapshot", loadedLocations(Dungeon.class), Location::getLocationUUID, DungeonMapper.INSTANCE::dungeonToDungeonDto, resync);
+    }
 
-            for (TownDTO dto : townDTOS) {
-                TownMapper.INSTANCE.townDtoToTown(dto);
+    /**
+     * Adds the index of every dungeon and town to a snapshot, listing the floors, shops, entities and
+     * items each owns so it can be loaded on its own. An index is only rebuilt when its location changed.
+     * This must run before the dungeons and towns are snapshotted, since that marks them clean.
+     *
+     * @param snapshot The snapshot being taken
+     * @param resync If true, every index is rebuilt whether its location changed or not
+     */
+    private static void snapshotLocationIndex(List<PendingFile> snapshot, boolean resync) {
+        Map<UUID, Object> dtos = new LinkedHashMap<>();
+        for (Location location : Location.locationMap.loadedValues()) {
+            if (location instanceof Dungeon || location instanceof Town) {
+                dtos.put(location.getLocationUUID(), resync || location.isDirty() ? locationIndexOf(location) : null);
+            }
+        }
+        addPendingRecords(dtos, "locations_index");
+        snapshot.add(new PendingFile("locations_index", dtos));
+    }
+
+    /**
+     * Lists what a dungeon or town owns.
+     */
+    private static LocationIndexDTO locationIndexOf(Location location) {
+        LocationIndexDTO index = new LocationIndexDTO();
+        index.setLocationUUID(location.getLocationUUID());
+        index.setLocationType(location.getClass().getSimpleName());
+        index.setLocationName(location.getLocationName());
+        List<Entity> entities = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        if (location instanceof Dungeon dungeon) {
+            for (DungeonFloor floor : dungeon.getFloors()) {
+                index.getChildLocationUUIDs().add(floor.getLocationUUID());
+                if (!floor.isGenerated()) {
+                    continue;
+                }
+                entities.addAll(floor.getEnemiesOnFloor());
+                if (floor.isHasChest() && floor.getChest().getItems() != null) {
+                    items.addAll(floor.getChest().getItems());
+                }
+            }
+        } else if (location instanceof Town town) {
+            for (Shop shop : town.getShopsInTown()) {
+                index.getChildLocationUUIDs().add(shop.getLocationUUID());
+                entities.add(shop.getShopOwner());
+                if (shop.getNpcsInShop() != null) {
+                    entities.addAll(shop.getNpcsInShop());
+                }
+            }
+        }
+        Set<UUID> entityUUIDs = new LinkedHashSet<>();
+        for (Entity entity : entities) {
+            if (entity == null || !entityUUIDs.add(entity.getEntityUUID())) {
+                continue;
+            }
+            if (entity.getInventory() != null && entity.getInventory().getItems() != null) {
+                items.addAll(entity.getInventory().getItems());
+            }
+            if (entity.getArmors() != null) {
+                items.addAll(entity.getArmors());
+            }
+            items.add(entity.getCurrentWeapon());
+        }
+        Set<UUID> itemUUIDs = new LinkedHashSet<>();
+        for (Item item : items) {
+            // Only armor and weapons are saved
+            if (item instanceof Armor || item instanceof Weapon) {
+                itemUUIDs.add(item.getItemUUID());
             }
-        } catch (IOException e) {
-            throw new RuntimeException(e);
         }
+        index.getEntityUUIDs().addAll(entityUUIDs);
+        index.getItemUUIDs().addAll(itemUUIDs);
+        return index;
     }
 
+    /**
+     * @return The loaded locations of a type, without loading pending ones
+     */
+    private static <T extends Location> List<T> loadedLocations(Class<T> locationClass) {
+        return Location.locationMap.loadedValues().stream().filter(locationClass::isInstance).map(locationClass::cast).toList();
+    }
+
+    /**
+     * Adds all items to a snapshot.
+     * Includes equipment, inventory items, and their states.
+     *
+     * @param snapshot The snapshot being taken
+     * @param resync If true, every item is mapped whether it changed or not
+     */
+    private static void snapshotItems(List<PendingFile> snapshot, boolean resync) {
+        snapshotFile(snapshot, "armors_snapshot", Item.getItemsByType(Armor.class), Item::getItemUUID, ItemMapper.INSTANCE::itemToItemDTO, resync);
+        snapshotFile(snapshot, "weapons_snapshot", Item.getItemsByType(Weapon.class), Item::getItemUUID, ItemMapper.INSTANCE::itemToItemDTO, resync);
+    }
+
+    /**
+     * Adds all town locations and their states to a snapshot.
+     * Includes shops, NPCs, and other town-specific data.
+     *
+     * @param snapshot The snapshot being taken
+     * @param resync If true, every town is mapped whether it changed or not
+     */
+    private static void snapshotTowns(List<PendingFile> snapshot, boolean resync) {
+        snapshotFile(snapshot, "towns_snapshot", loadedLocations(Town.class), Location::getLocationUUID, TownMapper.INSTANCE::townToTownDto, resync);
+    }
+
+    /**
+     * Requests an autosave every {@value #AUTOSAVE_INTERVAL} ticks. This runs on the tick thread,
+     * so it only raises a flag for the game thread instead of reading the registries itself.
+     */
     @Override
-    public void onTick(int currentTick) {
-        if (currentTick % 300 == 0 && GameMethods.getLoadedPlayer() != null && !(GameMethods.getLoadedPlayer().getGameState() instanceof CombatState)) {
-            saveState(GameMethods.getLoadedPlayer());
+    public void onTick(long currentTick) {
+        if (currentTick % AUTOSAVE_INTERVAL == 0) {
+            autosaveRequested = true;
         }
     }
 }
@@ -0,0 +1,848 @@
+package io.github.joshuacgunn.core.save;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Stores the save directory as a series of crash-safe generations.
+ * <p>
+ * A generation is a directory holding one complete copy of every snapshot file, written in a single
+ * {@link SaveFormat} that is named in the generation's {@code FORMAT} file. Snapshot files may each be
+ * compressed on their own, as set by the store's {@link Compression}. It is written to a
+ * temporary directory, every file is flushed to disk, and the directory is then atomically renamed
+ * into place. The {@code CURRENT} file names the live generation and is itself replaced atomically,
+ * so a crash at any point leaves either the old or the new generation intact, never a mix of both.
+ * <p>
+ * Saves between generations are appended to the generation's journal, one entry per save holding only
+ * the records that changed. Each entry is framed by its length and a CRC32 checksum, so an entry torn
+ * by a crash is detected on load and cut off along with anything after it.
+ * <p>
+ * Snapshot files are never held in memory as a whole. A new generation is written by streaming the
+ * previous one through its journal into the new files, and a save is loaded by streaming each file's
+ * records through the journal one at a time. Only the journal, which is bounded by the number of saves
+ * between generations, is read into memory.
+ * <p>
+ * Each generation also has an {@code INDEX} file giving the offset and length of every record in each
+ * snapshot file, so single records can be read on demand with {@link #readRecords(String, Collection, Class)}
+ * instead of loading whole files.
+ * <p>
+ * This class is not thread safe. {@link SaveManager} only uses it from its writer thread.
+ */
+public class SaveStore {
+
+    /** Name of the file that points at the live generation */
+    private static final String CURRENT = "CURRENT";
+
+    /** Name of the file inside a generation that names its format */
+    private static final String FORMAT = "FORMAT";
+
+    /** Name of the file inside a generation that locates every record in its snapshot files */
+    private static final String INDEX = "INDEX";
+
+    /** Name of the player file inside a generation, without the format's extension */
+    public static final String PLAYER_FILE = "player_save";
+
+    /** The save directory */
+    private final Path directory;
+
+    /** Compression of snapshot files in new generations */
+    private final Compression compression;
+
+    /** Number of the live generation, or 0 if none has been written or loaded */
+    private long generation = 0;
+
+    /** Format of the live generation and its journal */
+    private SaveFormat format;
+
+    /** Number of entries in the live generation's journal */
+    private int journalEntries = 0;
+
+    /** Where each record of the live generation is, keyed by file name, or null if it has no index */
+    private Map<String, FileIndex> index;
+
+    /** The changes in the live generation's journal, which take precedence over its snapshot files */
+    private Journal journal = new Journal();
+
+    /**
+     * Where a record is in a snapshot file.
+     *
+     * @param offset Where the record starts in the file's uncompressed contents
+     * @param length The length of the record
+     */
+    private record RecordLocation(long offset, int length) { }
+
+    /**
+     * Where every record in one snapshot file is.
+     *
+     * @param size The size of the file on disk
+     * @param blocks Where each compressed block of the file starts, or null if it is uncompressed
+     * @param records The location of each record, keyed by UUID
+     */
+    private record FileIndex(long size, long[] blocks, Map<UUID, RecordLocation> records) { }
+
+    /**
+     * Receives the records of a snapshot file as it is streamed through a journal.
+     * Exactly one of {@code reader} and {@code record} is set: records that the journal did not touch are
+     * left in the reader to be consumed, and records that it replaced are handed over already encoded.
+     */
+    private interface RecordSink {
+        void accept(UUID uuid, SaveFormat.RecordReader reader, byte[] record) throws IOException;
+    }
+
+    /**
+     * The contents of one journal: the last version of every record it touched, and the player record.
+     * A record that was deleted maps to null.
+     */
+    private static class Journal {
+        private final Map<String, Map<UUID, byte[]>> files = new LinkedHashMap<>();
+        private byte[] playerRecord;
+        private int entries = 0;
+    }
+
+    /**
+     * A save ready to be read. Snapshot files are streamed from disk by {@link #forEach(String, Class, Consumer)}
+     * with the journal applied on top, so no file is ever held in memory as a whole.
+     * <p>
+     * The files are only valid until the next save is written, so read everything before saving again.
+     */
+    public static class SaveData {
+        private final long generation;
+        private final SaveFormat format;
+        private final Path directory;
+        private final Journal journal;
+        private final Map<String, FileIndex> index;
+        private final Map<String, Set<UUID>> recordUuids = new ConcurrentHashMap<>();
+
+        private SaveData(long generation, SaveFormat format, Path directory, Journal journal, Map<String, FileIndex> index) {
+            this.generation = generation;
+            this.format = format;
+            this.directory = directory;
+            this.journal = journal;
+            this.index = index;
+        }
+
+        /**
+         * @return The generation the data is read from, or 0 if it comes from an older save layout
+         */
+        public long generation() {
+            return generation;
+        }
+
+        /**
+         * @return The format the records are encoded in
+         */
+        public SaveFormat format() {
+            return format;
+        }
+
+        /**
+         * @return The encoded player
+         */
+        public byte[] playerRecord() {
+            return journal.playerRecord;
+        }
+
+        /**
+         * @return true if single records of this save can be read on demand through the store
+         */
+        public boolean isIndexed() {
+            return index != null;
+        }
+
+        /**
+         * Decodes every record of a snapshot file, in file order, and hands each one to an action
+         * before reading the next. Different files can be read from different threads at once.
+         *
+         * @param fileName A snapshot file name
+         * @param type The DTO class the file holds
+         * @param action Receives each decoded record
+         */
+        public <T> void forEach(String fileName, Class<T> type, Consumer<T> action) {
+            Set<UUID> uuids = new HashSet<>();
+            try {
+                streamFile(format, directory.resolve(fileName + format.getFileExtension()), journal.files.getOrDefault(fileName, Collections.emptyMap()), (uuid, reader, record) -> {
+                    action.accept(reader != null ? reader.read(type) : format.decode(record, type));
+                    uuids.add(uuid);
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            recordUuids.put(fileName, uuids);
+        }
+
+        /**
+         * @return The UUIDs of the records read so far by {@link #forEach(String, Class, Consumer)}, keyed by file name
+         */
+        public Map<String, Set<UUID>> getRecordUuids() {
+            return recordUuids;
+        }
+    }
+
+    /**
+     * @param directory The save directory
+     * @param compression Compression of snapshot files in new generations
+     */
+    public SaveStore(Path directory, Compression compression) {
+        this.directory = directory;
+        this.compression = compression;
+    }
+
+    /**
+     * @param format The format new saves are written in
+     * @return true if a generation in that format is live and still on disk, so saves can be appended to its journal
+     */
+    public boolean hasGeneration(SaveFormat format) {
+        return generation != 0 && this.format == format && Files.isDirectory(generationDirectory(generation));
+    }
+
+    /**
+     * Checks whether the save directory holds a save, in either layout. Only reads the directory,
+     * so it is safe to call from any thread.
+     *
+     * @return true if {@link #load()} has something to read
+     */
+    public boolean containsSave() {
+        return Files.exists(directory.resolve(CURRENT)) || !listGenerations().isEmpty() || Files.exists(directory.resolve(PLAYER_FILE + ".json"));
+    }
+
+    /**
+     * @return The number of saves appended to the live generation's journal
+     */
+    public int getJournalEntries() {
+        return journalEntries;
+    }
+
+    /**
+     * Writes a complete new generation and makes it the live one.
+     * The generation before it is kept as a fallback; anything older is deleted.
+     * <p>
+     * Unless {@code full} is set, the new generation is the live one with its journal and the given
+     * changes applied, streamed file by file so the generation is never held in memory.
+     *
+     * @param format The format the records are encoded in
+     * @param changes The changed records of each snapshot file, keyed by file name and then by UUID,
+     *                with removed records mapped to null. If {@code full} is set, every record of every file.
+     * @param playerRecord The encoded player
+     * @param full If true, the changes hold the complete save and the live generation is not read
+     * @throws IOException If the generation could not be written
+     */
+    public void commitGeneration(SaveFormat format, Map<String, Map<UUID, byte[]>> changes, byte[] playerRecord, boolean full) throws IOException {
+        Path base = null;
+        Map<String, Map<UUID, byte[]>> overlay = changes;
+        Set<String> fileNames = new LinkedHashSet<>(changes.keySet());
+        if (!full) {
+            if (!hasGeneration(format)) {
+                throw new IllegalStateException("No live generation to apply the changes to");
+            }
+            base = generationDirectory(generation);
+            Journal journal = readJournal(journalFile(generation), new Journal());
+            for (Map.Entry<String, Map<UUID, byte[]>> file : changes.entrySet()) {
+                journal.files.computeIfAbsent(file.getKey(), name -> new LinkedHashMap<>()).putAll(file.getValue());
+            }
+            overlay = journal.files;
+            fileNames.addAll(listSnapshotFiles(base, format));
+            fileNames.addAll(overlay.keySet());
+        }
+
+        long next = Math.max(generation, latestGeneration()) + 1;
+        Path temp = directory.resolve(generationName(next) + ".tmp");
+        deleteRecursively(temp);
+        Files.createDirectories(temp);
+        Files.deleteIfExists(journalFile(next));
+
+        Map<String, FileIndex> nextIndex = new LinkedHashMap<>();
+        for (String fileName : fileNames) {
+            String file = fileName + format.getFileExtension();
+            try (FileChannel channel = openForWrite(temp.resolve(file))) {
+                OutputStream out = compression.compress(Channels.newOutputStream(channel));
+                SaveFormat.RecordWriter writer = format.openWriter(Channels.newChannel(out));
+                Map<UUID, RecordLocation> records = new HashMap<>();
+                streamFile(format, base == null ? null : base.resolve(file), overlay.getOrDefault(fileName, Collections.emptyMap()), (uuid, reader, record) -> {
+                    byte[] bytes = reader != null ? reader.readRaw() : record;
+                    records.put(uuid, new RecordLocation(writer.write(uuid, bytes), bytes.length));
+                });
+                writer.finish();
+                Compression.finish(out);
+                channel.force(true);
+                nextIndex.put(fileName, new FileIndex(channel.size(), Compression.getBlockPositions(out), records));
+            }
+        }
+        writeIndex(temp.resolve(INDEX), nextIndex);
+        writeDurably(temp.resolve(PLAYER_FILE + format.getFileExtension()), playerRecord);
+        writeDurably(temp.resolve(FORMAT), format.getName().getBytes(StandardCharsets.UTF_8));
+
+        Files.move(temp, generationDirectory(next), StandardCopyOption.ATOMIC_MOVE);
+        Path pointer = directory.resolve(CURRENT + ".tmp");
+        writeDurably(pointer, generationName(next).getBytes(StandardCharsets.UTF_8));
+        Files.move(pointer, directory.resolve(CURRENT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(directory);
+
+        long previous = generation;
+        generation = next;
+        this.format = format;
+        journalEntries = 0;
+        index = nextIndex;
+        journal = new Journal();
+        journal.playerRecord = playerRecord;
+        deleteGenerationsBefore(previous == 0 ? next : previous);
+    }
+
+    /**
+     * Appends one save to the live generation's journal and flushes it to disk.
+     * The records must be encoded in the live generation's format.
+     *
+     * @param changes Records that were added, changed or removed, keyed by file name and then by UUID,
+     *                with removed records mapped to null
+     * @param playerRecord The encoded player, or null if it did not change
+     * @throws IOException If the entry could not be written
+     */
+    public void appendJournal(Map<String, Map<UUID, byte[]>> changes, byte[] playerRecord) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream entry = new DataOutputStream(bytes);
+        entry.writeInt(changes.size());
+        for (Map.Entry<String, Map<UUID, byte[]>> file : changes.entrySet()) {
+            entry.writeUTF(file.getKey());
+            entry.writeInt(file.getValue().size());
+            for (Map.Entry<UUID, byte[]> record : file.getValue().entrySet()) {
+                entry.writeLong(record.getKey().getMostSignificantBits());
+                entry.writeLong(record.getKey().getLeastSignificantBits());
+                // A length of -1 marks a removed record
+                if (record.getValue() == null) {
+                    entry.writeInt(-1);
+                } else {
+                    entry.writeInt(record.getValue().length);
+                    entry.write(record.getValue());
+                }
+            }
+        }
+        entry.writeBoolean(playerRecord != null);
+        if (playerRecord != null) {
+            entry.writeInt(playerRecord.length);
+            entry.write(playerRecord);
+        }
+        entry.flush();
+        byte[] payload = bytes.toByteArray();
+
+        ByteBuffer frame = ByteBuffer.allocate(12 + payload.length);
+        frame.putInt(payload.length).putLong(checksum(payload)).put(payload).flip();
+        try (FileChannel channel = FileChannel.open(journalFile(generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+            channel.force(false);
+        }
+        journalEntries++;
+        for (Map.Entry<String, Map<UUID, byte[]>> file : changes.entrySet()) {
+            journal.files.computeIfAbsent(file.getKey(), name -> new LinkedHashMap<>()).putAll(file.getValue());
+        }
+        if (playerRecord != null) {
+            journal.playerRecord = playerRecord;
+        }
+    }
+
+    /**
+     * Lists every record of every snapshot file in the live generation, with its journal applied.
+     *
+     * @return The UUIDs of each file's records keyed by file name, or null if the live generation has no index
+     */
+    public Map<String, Set<UUID>> listRecords() {
+        if (index == null) {
+            return null;
+        }
+        Map<String, Set<UUID>> records = new HashMap<>();
+        for (String fileName : index.keySet()) {
+            records.put(fileName, listRecords(fileName));
+        }
+        return records;
+    }
+
+    /**
+     * Lists every record of a snapshot file in the live generation, with its journal applied.
+     *
+     * @param fileName A snapshot file name
+     * @return The UUIDs of the file's records, or null if the live generation has no index or no such file
+     */
+    public Set<UUID> listRecords(String fileName) {
+        if (index == null || !index.containsKey(fileName)) {
+            return null;
+        }
+        Set<UUID> uuids = new HashSet<>(index.get(fileName).records().keySet());
+        journal.files.getOrDefault(fileName, Collections.emptyMap()).forEach((uuid, record) -> {
+            if (record == null) {
+                uuids.remove(uuid);
+            } else {
+                uuids.add(uuid);
+            }
+        });
+        return uuids;
+    }
+
+    /**
+     * Reads single records of a snapshot file from the live generation, with its journal applied,
+     * without reading the rest of the file. Several threads can read at once, as long as no save
+     * is being written meanwhile.
+     *
+     * @param fileName A snapshot file name
+     * @param uuids The UUIDs of the records to read
+     * @param type The DTO class the file holds
+     * @return The decoded records that were found, keyed by UUID
+     * @throws IOException If the file could not be read
+     */
+    public <T> Map<UUID, T> readRecords(String fileName, Collection<UUID> uuids, Class<T> type) throws IOException {
+        if (index == null) {
+            throw new IllegalStateException("The live generation has no index");
+        }
+        Map<UUID, T> dtos = new LinkedHashMap<>();
+        FileIndex fileIndex = index.get(fileName);
+        Map<UUID, byte[]> changes = journal.files.getOrDefault(fileName, Collections.emptyMap());
+        FileChannel channel = null;
+        try {
+            for (UUID uuid : uuids) {
+                if (changes.containsKey(uuid)) {
+                    byte[] record = changes.get(uuid);
+                    if (record != null) {
+                        dtos.put(uuid, format.decode(record, type));
+                    }
+                    continue;
+                }
+                RecordLocation location = fileIndex == null ? null : fileIndex.records().get(uuid);
+                if (location == null) {
+                    continue;
+                }
+                if (channel == null) {
+                    channel = FileChannel.open(generationDirectory(generation).resolve(fileName + format.getFileExtension()), StandardOpenOption.READ);
+                }
+                dtos.put(uuid, format.decode(Compression.readAt(channel, fileIndex.blocks(), location.offset(), location.length()), type));
+            }
+        } finally {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+        return dtos;
+    }
+
+    /**
+     * Opens the live generation and reads its journal, ready to be streamed on top of it.
+     * If the live generation cannot be read, the newest older generation is used instead.
+     * A save directory in the older layout, with JSON snapshot files directly inside it, is read as-is.
+     *
+     * @return The merged save, or null if there is no readable save
+     */
+    public SaveData load() {
+        generation = 0;
+        format = null;
+        journalEntries = 0;
+        index = null;
+        journal = new Journal();
+        deleteTemporaryFiles();
+
+        List<Long> candidates = new ArrayList<>();
+        long current = readCurrent();
+        if (current != 0) {
+            candidates.add(current);
+        }
+        for (long number : listGenerations()) {
+            if (number != current) {
+                candidates.add(number);
+            }
+        }
+
+        for (long number : candidates) {
+            journalEntries = 0;
+            try {
+                SaveData data = readGeneration(number);
+                if (number != current) {
+                    System.err.println("Save generation " + current + " could not be read. Recovered generation " + number + " instead.");
+                }
+                generation = number;
+                format = data.format();
+                index = data.index;
+                journal = data.journal;
+                return data;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Skipping unreadable save generation " + number + ": " + e.getMessage());
+            }
+        }
+        return readLegacy();
+    }
+
+    /**
+     * Opens one generation and reads its journal. A torn tail of the journal is cut off so later
+     * entries are not appended after it. The snapshot files are checked against the index, or if there
+     * is none, streamed through once without being decoded, so a damaged generation is rejected here
+     * rather than halfway through loading it.
+     */
+    private SaveData readGeneration(long number) throws IOException {
+        Path generationDirectory = generationDirectory(number);
+        SaveFormat generationFormat = SaveFormat.forName(Files.readString(generationDirectory.resolve(FORMAT)).trim());
+
+        Path player = generationDirectory.resolve(PLAYER_FILE + generationFormat.getFileExtension());
+        if (!Files.exists(player)) {
+            throw new IOException("Generation " + number + " has no player file");
+        }
+        Journal journal = new Journal();
+        journal.playerRecord = Files.readAllBytes(player);
+        Path journalFile = journalFile(number);
+        if (Files.exists(journalFile)) {
+            readJournal(journalFile, journal);
+        }
+        journalEntries = journal.entries;
+
+        Map<String, FileIndex> generationIndex = null;
+        Path indexFile = generationDirectory.resolve(INDEX);
+        if (Files.exists(indexFile)) {
+            generationIndex = readIndex(indexFile);
+            for (Map.Entry<String, FileIndex> file : generationIndex.entrySet()) {
+                Path path = generationDirectory.resolve(file.getKey() + generationFormat.getFileExtension());
+                if (!Files.exists(path) || Files.size(path) != file.getValue().size()) {
+                    throw new IOException("Snapshot file " + path.getFileName() + " does not match the index");
+                }
+            }
+        } else {
+            for (String fileName : listSnapshotFiles(generationDirectory, generationFormat)) {
+                streamFile(generationFormat, generationDirectory.resolve(fileName + generationFormat.getFileExtension()), Collections.emptyMap(),
+                    (uuid, reader, record) -> reader.skip());
+            }
+        }
+        return new SaveData(number, generationFormat, generationDirectory, journal, generationIndex);
+    }
+
+    /**
+     * Reads every intact journal entry into a journal, then cuts the file off after the last intact entry.
+     *
+     * @return The journal that was read into
+     */
+    private static Journal readJournal(Path file, Journal journal) throws IOException {
+        if (!Files.exists(file)) {
+            return journal;
+        }
+        byte[] contents = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(contents);
+        int valid = 0;
+        while (buffer.remaining() >= 12) {
+            int length = buffer.getInt();
+            long crc = buffer.getLong();
+            if (length < 0 || length > buffer.remaining()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (checksum(payload) != crc) {
+                break;
+            }
+
+            DataInputStream entry = new DataInputStream(new ByteArrayInputStream(payload));
+            int files = entry.readInt();
+            for (int i = 0; i < files; i++) {
+                Map<UUID, byte[]> records = journal.files.computeIfAbsent(entry.readUTF(), name -> new LinkedHashMap<>());
+                int count = entry.readInt();
+                for (int j = 0; j < count; j++) {
+                    UUID uuid = new UUID(entry.readLong(), entry.readLong());
+                    int recordLength = entry.readInt();
+                    byte[] record = null;
+                    if (recordLength >= 0) {
+                        record = new byte[recordLength];
+                        entry.readFully(record);
+                    }
+                    records.put(uuid, record);
+                }
+            }
+            if (entry.readBoolean()) {
+                journal.playerRecord = new byte[entry.readInt()];
+                entry.readFully(journal.playerRecord);
+            }
+            valid = buffer.position();
+            journal.entries++;
+        }
+
+        if (valid < contents.length) {
+            System.err.println("Dropped an incomplete journal entry from " + file.getFileName() + ".");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(valid);
+                channel.force(true);
+            }
+        }
+        return journal;
+    }
+
+    /**
+     * Streams the records of one snapshot file with a journal's changes applied, one record at a time.
+     * Records the journal replaced keep their place in the file, and records it added follow the rest.
+     *
+     * @param format The format of the file and the changes
+     * @param file The snapshot file, or null if there is none
+     * @param changes The journal's changes to this file, with removed records mapped to null
+     * @param sink Receives each record that survives the changes
+     */
+    private static void streamFile(SaveFormat format, Path file, Map<UUID, byte[]> changes, RecordSink sink) throws IOException {
+        Set<UUID> replaced = new HashSet<>();
+        if (file != null && Files.exists(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                SaveFormat.RecordReader reader = format.openReader(Channels.newChannel(Compression.open(channel)));
+                for (UUID uuid = reader.next(); uuid != null; uuid = reader.next()) {
+                    if (changes.containsKey(uuid)) {
+                        reader.skip();
+                        replaced.add(uuid);
+                        byte[] record = changes.get(uuid);
+                        if (record != null) {
+                            sink.accept(uuid, null, record);
+                        }
+                    } else {
+                        sink.accept(uuid, reader, null);
+                    }
+                }
+            }
+        }
+        for (Map.Entry<UUID, byte[]> change : changes.entrySet()) {
+            if (change.getValue() != null && !replaced.contains(change.getKey())) {
+                sink.accept(change.getKey(), null, change.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return The names of the snapshot files in a generation, without the format's extension
+     */
+    private static List<String> listSnapshotFiles(Path generationDirectory, SaveFormat format) throws IOException {
+        String extension = format.getFileExtension();
+        try (Stream<Path> paths = Files.list(generationDirectory)) {
+            return paths.map(path -> path.getFileName().toString())
+                .filter(name -> name.endsWith(extension))
+                .map(name -> name.substring(0, name.length() - extension.length()))
+                .filter(name -> !name.equals(PLAYER_FILE))
+                .sorted()
+                .toList();
+        }
+    }
+
+    /**
+     * Opens the JSON snapshot files written directly into the save directory, as saves did before generations.
+     */
+    private SaveData readLegacy() {
+        Path player = directory.resolve(PLAYER_FILE + ".json");
+        if (!Files.exists(player)) {
+            return null;
+        }
+        try {
+            Journal journal = new Journal();
+            journal.playerRecord = Files.readAllBytes(player);
+            return new SaveData(0, JsonSaveFormat.INSTANCE, directory, journal, null);
+        } catch (IOException e) {
+            System.err.println("Could not read save files: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Deletes snapshot files left directly in the save directory by the older layout.
+     * Called once the first generation has replaced them.
+     *
+     * @throws IOException If a file could not be deleted
+     */
+    public void deleteLegacyFiles() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : paths.filter(Files::isRegularFile).toList()) {
+                String fileName = path.getFileName().toString();
+                if (fileName.endsWith("_snapshot.json") || fileName.equals(PLAYER_FILE + ".json")) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the index of a generation and forces it to disk.
+     */
+    private static void writeIndex(Path path, Map<String, FileIndex> fileIndexes) throws IOException {
+        try (FileChannel channel = openForWrite(path)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(fileIndexes.size());
+            for (Map.Entry<String, FileIndex> file : fileIndexes.entrySet()) {
+                FileIndex fileIndex = file.getValue();
+                out.writeUTF(file.getKey());
+                out.writeLong(fileIndex.size());
+                // A block count of -1 marks an uncompressed file
+                out.writeInt(fileIndex.blocks() == null ? -1 : fileIndex.blocks().length);
+                if (fileIndex.blocks() != null) {
+                    for (long block : fileIndex.blocks()) {
+                        out.writeLong(block);
+                    }
+                }
+                out.writeInt(fileIndex.records().size());
+                for (Map.Entry<UUID, RecordLocation> record : fileIndex.records().entrySet()) {
+                    out.writeLong(record.getKey().getMostSignificantBits());
+                    out.writeLong(record.getKey().getLeastSignificantBits());
+                    out.writeLong(record.getValue().offset());
+                    out.writeInt(record.getValue().length());
+                }
+            }
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    private static Map<String, FileIndex> readIndex(Path path) throws IOException {
+        Map<String, FileIndex> fileIndexes = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            int files = in.readInt();
+            for (int i = 0; i < files; i++) {
+                String fileName = in.readUTF();
+                long size = in.readLong();
+                int blockCount = in.readInt();
+                long[] blocks = null;
+                if (blockCount >= 0) {
+                    blocks = new long[blockCount];
+                    for (int j = 0; j < blockCount; j++) {
+                        blocks[j] = in.readLong();
+                    }
+                }
+                int count = in.readInt();
+                Map<UUID, RecordLocation> records = new HashMap<>(count * 4 / 3 + 1);
+                for (int j = 0; j < count; j++) {
+                    records.put(new UUID(in.readLong(), in.readLong()), new RecordLocation(in.readLong(), in.readInt()));
+                }
+                fileIndexes.put(fileName, new FileIndex(size, blocks, records));
+            }
+        }
+        return fileIndexes;
+    }
+
+    private static long checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return crc.getValue();
+    }
+
+    private static FileChannel openForWrite(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Writes a file and forces its contents to disk before returning.
+     */
+    private static void writeDurably(Path path, byte[] contents) throws IOException {
+        try (FileChannel channel = openForWrite(path)) {
+            ByteBuffer buffer = ByteBuffer.wrap(contents);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Flushes a directory's entries so renames inside it survive a crash.
+     * Not every platform can open a directory, in which case the rename is left to the OS.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened on Windows
+        }
+    }
+
+    private long readCurrent() {
+        Path pointer = directory.resolve(CURRENT);
+        if (!Files.exists(pointer)) {
+            return 0;
+        }
+        try {
+            return parseGeneration(Files.readString(pointer).trim());
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * @return The numbers of every complete generation on disk, newest first
+     */
+    private List<Long> listGenerations() {
+        if (!Files.isDirectory(directory)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(Files::isDirectory)
+                .map(path -> parseGeneration(path.getFileName().toString()))
+                .filter(number -> number != 0)
+                .sorted(Comparator.reverseOrder())
+                .toList();
+        } catch (IOException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    private long latestGeneration() {
+        List<Long> generations = listGenerations();
+        return generations.isEmpty() ? 0 : generations.getFirst();
+    }
+
+    private void deleteGenerationsBefore(long oldest) throws IOException {
+        for (long number : listGenerations()) {
+            if (number < oldest) {
+                deleteRecursively(generationDirectory(number));
+                Files.deleteIfExists(journalFile(number));
+            }
+        }
+    }
+
+    /**
+     * Deletes generations and files that a crash left half written.
+     */
+    private void deleteTemporaryFiles() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : paths.filter(path -> path.getFileName().toString().endsWith(".tmp")).toList()) {
+                deleteRecursively(path);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not clean up temporary save files: " + e.getMessage());
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> children = Files.list(path)) {
+                for (Path child : children.toList()) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        Files.deleteIfExists(path);
+    }
+
+    private Path generationDirectory(long number) {
+        return directory.resolve(generationName(number));
+    }
+
+    private Path journalFile(long number) {
+        return directory.resolve(generationName(number) + ".journal");
+    }
+
+    private static String generationName(long number) {
+        return String.format("gen-%08d", number);
+    }
+
+    /**
+     * @param name A generation directory name
+     * @return The generation number, or 0 if the name is not a generation
+     */
+    private static long parseGeneration(String name) {
+        if (!name.matches("gen-\\d+")) {
+            return 0;
+        }
+        return Long.parseLong(name.substring(4));
+    }
+}
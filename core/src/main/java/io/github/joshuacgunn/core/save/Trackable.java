@@ -0,0 +1,25 @@
+package io.github.joshuacgunn.core.save;
+
+/**
+ * Implemented by every game object that the {@link SaveManager} persists.
+ * <p>
+ * Each object keeps a dirty flag that is raised whenever one of its saved fields changes.
+ * The save pipeline only re-serializes objects that are dirty, and clears the flag once
+ * the object's current state has been written.
+ */
+public interface Trackable {
+    /**
+     * Flags this object as changed since it was last saved.
+     */
+    void markDirty();
+
+    /**
+     * @return true if this object has changed since it was last saved
+     */
+    boolean isDirty();
+
+    /**
+     * Clears the dirty flag after this object's current state has been saved.
+     */
+    void markClean();
+}
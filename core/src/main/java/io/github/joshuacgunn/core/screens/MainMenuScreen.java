@@ -13,8 +13,7 @@ import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import io.github.joshuacgunn.core.Main;
-
-import java.io.File;
+import io.github.joshuacgunn.core.save.SaveManager;
 
 public class MainMenuScreen implements Screen {
     final Main game;
@@ -56,7 +55,7 @@ public class MainMenuScreen implements Screen {
         center.defaults().pad(8).width(240);
 
         // show load if saves exist
-        if (new File("saves/player_save.json").exists() || new File("backups/saves/").exists()) {
+        if (SaveManager.hasSave() || SaveManager.hasBackup()) {
             center.add(loadGameBtn).row();
         }
         center.add(newGameBtn).row();
@@ -0,0 +1,49 @@
+package io.github.joshuacgunn.core.simulation;
+
+import io.github.joshuacgunn.core.entity.Player;
+
+/**
+ * How one simulated dungeon run went.
+ *
+ * @param seed The seed the dungeon and player were generated from
+ * @param playerClass The player's class
+ * @param outcome How the run ended
+ * @param floorsCleared How many floors the player cleared before the run ended
+ * @param dungeonDifficulty The difficulty rating of the dungeon when the player entered it
+ * @param floorDifficulties The difficulty rating of each floor when the player entered the dungeon, by floor
+ * @param damageTaken The health the player lost in fights on each floor they reached, by floor
+ * @param kills How many enemies the player killed
+ * @param rounds How many rounds of combat were played
+ * @param potionsUsed How many healing potions the player drank
+ * @param lootValue The value of everything the player looted from chests
+ * @param hpLeft The player's health when the run ended
+ */
+public record DungeonRun(long seed, Player.PlayerClass playerClass, Outcome outcome, int floorsCleared,
+                         float dungeonDifficulty, float[] floorDifficulties, float[] damageTaken, int kills,
+                         int rounds, int potionsUsed, float lootValue, float hpLeft) {
+
+    public enum Outcome {
+        /** The player cleared every floor */
+        CLEARED,
+        /** The player was killed */
+        DIED,
+        /** The player ran from a fight and left the dungeon */
+        FLED,
+        /** A fight could not be finished, such as when neither side can do damage */
+        STALLED
+    }
+
+    /**
+     * @return How many floors the dungeon has
+     */
+    public int floors() {
+        return floorDifficulties.length;
+    }
+
+    /**
+     * @return The deepest floor the player reached, starting at 1
+     */
+    public int depth() {
+        return outcome == Outcome.CLEARED ? floorsCleared : floorsCleared + 1;
+    }
+}
@@ -0,0 +1,226 @@
+package io.github.joshuacgunn.core.simulation;
+
+import io.github.joshuacgunn.core.combat.CombatOutcome;
+import io.github.joshuacgunn.core.combat.CombatResolver;
+import io.github.joshuacgunn.core.combat.Combatant;
+import io.github.joshuacgunn.core.container.Chest;
+import io.github.joshuacgunn.core.entity.Enemy;
+import io.github.joshuacgunn.core.entity.Player;
+import io.github.joshuacgunn.core.item.Armor;
+import io.github.joshuacgunn.core.item.Item;
+import io.github.joshuacgunn.core.item.Potion;
+import io.github.joshuacgunn.core.item.Weapon;
+import io.github.joshuacgunn.core.location.Dungeon;
+import io.github.joshuacgunn.core.location.DungeonFloor;
+import io.github.joshuacgunn.core.misc.RegistryBatch;
+import io.github.joshuacgunn.core.misc.RngService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Plays whole dungeon runs without a player at the keyboard, for tuning dungeon difficulty.
+ * <p>
+ * A run generates a player and a dungeon from a seed, the way the game generates them, but without adding
+ * anything to the world. The whole dungeon is rated up front, which generates every floor, so the results also
+ * rate the floors the player never reaches. Floors come out the same whenever they are generated. The player
+ * then fights the enemies of each floor in turn with {@link CombatResolver}, which plays every round the way
+ * {@link io.github.joshuacgunn.core.gameplay.CombatState} does, carrying their health over from fight to fight,
+ * drinks healing potions between fights and loots the chest of each floor they clear, as the
+ * {@link RunStrategy} decides. The run ends when the player dies, runs away or clears the last floor.
+ * <p>
+ * Runs do no console I/O and share nothing, so many of them are played side by side on a fork-join pool.
+ * Each run is seeded from its place in the batch, so the same seed gives the same results on any number of
+ * threads. Run it with {@code gradlew core:dungeonSimulation}.
+ */
+public final class DungeonSimulator {
+    /** How many common healing potions the player starts a run with */
+    public static final int DEFAULT_POTIONS = 3;
+
+    private DungeonSimulator() { }
+
+    /**
+     * Plays one run.
+     *
+     * @param seed The seed the player and dungeon are generated from
+     * @param playerClass The player's class
+     * @param potions How many common healing potions the player starts with
+     * @param strategy Makes the player's decisions
+     * @return How the run went
+     */
+    public static DungeonRun simulate(long seed, Player.PlayerClass playerClass, int potions, RunStrategy strategy) {
+        RegistryBatch discarded = new RegistryBatch();
+        return discarded.collect(() -> RngService.generate(seed, () -> new Run(seed, playerClass, potions, strategy).play()));
+    }
+
+    /**
+     * Plays many runs in parallel. The player classes take turns, so each class plays about the same number of runs.
+     *
+     * @param seed The seed the seeds of the runs are drawn from
+     * @param runs How many runs to play
+     * @param potions How many common healing potions the player starts each run with
+     * @param strategy Makes the player's decisions
+     * @param pool The pool to play the runs on
+     * @return The runs, in the order of their seeds
+     */
+    public static List<DungeonRun> run(long seed, int runs, int potions, RunStrategy strategy, ForkJoinPool pool) {
+        Player.PlayerClass[] playerClasses = Player.PlayerClass.values();
+        return pool.submit(() -> IntStream.range(0, runs).parallel()
+                .mapToObj(run -> simulate(RngService.mix(seed + run), playerClasses[run % playerClasses.length], potions, strategy))
+                .toList()).join();
+    }
+
+    /**
+     * Plays a batch of runs and writes the results to a directory: one line per run in {@code runs.csv},
+     * the floors grouped by difficulty in {@code difficulty.csv} and by floor number in {@code floors.csv},
+     * and everything summed up in {@code report.json}.
+     *
+     * @param args The number of runs, default 10,000, the directory to write to, default {@code simulation},
+     *             and the seed, default random
+     */
+    public static void main(String[] args) throws IOException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        Path directory = Path.of(args.length > 1 ? args[1] : "simulation");
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : new SplittableRandom().nextLong();
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        long start = System.nanoTime();
+        List<DungeonRun> results = run(seed, runs, DEFAULT_POTIONS, RunStrategy.DEFAULT, pool);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        SimulationReport report = new SimulationReport(seed, results);
+
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("runs.csv"), SimulationReport.runsCsv(results));
+        Files.writeString(directory.resolve("difficulty.csv"), report.difficultyCsv());
+        Files.writeString(directory.resolve("floors.csv"), report.floorNumberCsv());
+        Files.writeString(directory.resolve("report.json"), report.toJson());
+        System.out.println("Played " + runs + " runs with seed " + seed + " in " + elapsed + " ms on "
+                + pool.getParallelism() + " threads, wrote " + directory.toAbsolutePath());
+    }
+
+    /**
+     * The state of one run while it is being played.
+     */
+    private static final class Run {
+        private final long seed;
+        private final RunStrategy strategy;
+        private final Player player;
+        private final Dungeon dungeon;
+
+        /** The player as fights see them, read again when they equip something */
+        private Combatant combatant;
+        private float hp;
+        private int floorsCleared;
+        private int kills;
+        private int rounds;
+        private int potionsUsed;
+        private float lootValue;
+        private final float[] damageTaken;
+
+        private Run(long seed, Player.PlayerClass playerClass, int potions, RunStrategy strategy) {
+            this.seed = seed;
+            this.strategy = strategy;
+            this.player = new Player(playerClass.name(), RngService.nextUUID(), playerClass, true);
+            for (int i = 0; i < potions; i++) {
+                player.getInventory().addItem(new Potion(RngService.nextUUID(), Potion.PotionType.HEALING, Item.ItemRarity.COMMON, true));
+            }
+            this.dungeon = new Dungeon(Dungeon.generateDungeonName(), RngService.nextUUID(), true);
+            this.combatant = Combatant.of(player);
+            this.hp = player.getEntityHp();
+            this.damageTaken = new float[dungeon.getFloors().size()];
+        }
+
+        private DungeonRun play() {
+            float dungeonDifficulty = dungeon.getDifficultyRating();
+            List<DungeonFloor> floors = dungeon.getFloors();
+            float[] floorDifficulties = new float[floors.size()];
+            for (int i = 0; i < floors.size(); i++) {
+                floorDifficulties[i] = floors.get(i).getDifficultyRating();
+            }
+
+            DungeonRun.Outcome outcome = DungeonRun.Outcome.CLEARED;
+            for (DungeonFloor floor : floors) {
+                outcome = clear(floor);
+                if (outcome != DungeonRun.Outcome.CLEARED) {
+                    break;
+                }
+                floorsCleared++;
+                Chest chest = floor.getChest();
+                if (floor.isHasChest() && chest != null && strategy.lootChest(chest)) {
+                    loot(chest);
+                }
+            }
+            return new DungeonRun(seed, player.getPlayerClass(), outcome, floorsCleared, dungeonDifficulty,
+                    floorDifficulties, damageTaken, kills, rounds, potionsUsed, lootValue, hp);
+        }
+
+        /**
+         * Fights the enemies of a floor one after another.
+         *
+         * @return {@link DungeonRun.Outcome#CLEARED} if every enemy died, otherwise how the run ended
+         */
+        private DungeonRun.Outcome clear(DungeonFloor floor) {
+            for (Enemy enemy : floor.getEnemiesOnFloor()) {
+                Combatant opponent = Combatant.of(enemy);
+                drinkPotions(opponent);
+                CombatOutcome fight = CombatResolver.resolve(combatant.withHp(hp), opponent, strategy.combatPolicy());
+                rounds += fight.rounds();
+                damageTaken[floor.getFloorNumber() - 1] += hp - fight.playerHp();
+                hp = fight.playerHp();
+                switch (fight.result()) {
+                    case PLAYER_WON -> kills++;
+                    case ENEMY_WON -> {
+                        return DungeonRun.Outcome.DIED;
+                    }
+                    case FLED -> {
+                        return DungeonRun.Outcome.FLED;
+                    }
+                    case DRAW -> {
+                        return DungeonRun.Outcome.STALLED;
+                    }
+                }
+            }
+            return DungeonRun.Outcome.CLEARED;
+        }
+
+        private void drinkPotions(Combatant opponent) {
+            List<Potion> potions = player.getInventory().getItems().stream()
+                    .filter(item -> item instanceof Potion potion && potion.getPotionType() == Potion.PotionType.HEALING)
+                    .map(Potion.class::cast)
+                    .toList();
+            for (int i = 0; i < potions.size() && strategy.drinkPotion(hp, opponent, potions.size() - i); i++) {
+                player.setEntityHp(hp);
+                player.usePotion(potions.get(i));
+                hp = player.getEntityHp();
+                potionsUsed++;
+            }
+        }
+
+        private void loot(Chest chest) {
+            for (Item item : List.copyOf(chest.getItems())) {
+                chest.getItems().remove(item);
+                player.getInventory().addItem(item);
+                // Valued the way shops price items
+                lootValue += item.getItemValue() * (item.getItemRarity().ordinal() + 1);
+
+                if (item instanceof Armor armor) {
+                    Armor equipped = player.armors.get(armor.getArmorSlot());
+                    if (strategy.equip(armor, equipped)) {
+                        if (equipped != null) {
+                            player.unEquipArmor(equipped);
+                        }
+                        player.equipArmor(armor);
+                    }
+                } else if (item instanceof Weapon weapon && strategy.equip(weapon, player.getCurrentWeapon())) {
+                    player.setCurrentWeapon(weapon);
+                }
+            }
+            combatant = Combatant.of(player);
+        }
+    }
+}
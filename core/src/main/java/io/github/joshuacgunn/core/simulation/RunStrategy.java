@@ -0,0 +1,84 @@
+package io.github.joshuacgunn.core.simulation;
+
+import io.github.joshuacgunn.core.combat.CombatPolicy;
+import io.github.joshuacgunn.core.combat.Combatant;
+import io.github.joshuacgunn.core.container.Chest;
+import io.github.joshuacgunn.core.entity.Player;
+import io.github.joshuacgunn.core.item.Armor;
+import io.github.joshuacgunn.core.item.Item;
+import io.github.joshuacgunn.core.item.Weapon;
+
+/**
+ * Makes the player's decisions during a simulated dungeon run.
+ * Every method has a default, so a strategy only overrides the decisions it cares about.
+ * Strategies are called from many threads at once, so they must not keep state between calls.
+ */
+public interface RunStrategy {
+
+    /** Fights every enemy to the end, drinks below half health, loots every chest and equips whatever is stronger */
+    RunStrategy DEFAULT = new RunStrategy() { };
+
+    /** Like {@link #DEFAULT}, but drinks below three quarters of its health and runs below a fifth of it */
+    RunStrategy CAUTIOUS = new RunStrategy() {
+        private final CombatPolicy policy = CombatPolicy.fleeBelow(Player.MAX_HP / 5);
+
+        @Override
+        public CombatPolicy combatPolicy() {
+            return policy;
+        }
+
+        @Override
+        public boolean drinkPotion(float hp, Combatant enemy, int potionsLeft) {
+            return hp < Player.MAX_HP * 0.75f;
+        }
+    };
+
+    /**
+     * @return Decides what the player does in each round of a fight
+     */
+    default CombatPolicy combatPolicy() {
+        return CombatPolicy.ALWAYS_ATTACK;
+    }
+
+    /**
+     * Decides whether to drink a healing potion before a fight. Asked again after each potion.
+     *
+     * @param hp The player's health
+     * @param enemy The enemy about to be fought
+     * @param potionsLeft How many healing potions the player has
+     * @return true to drink one
+     */
+    default boolean drinkPotion(float hp, Combatant enemy, int potionsLeft) {
+        return hp < Player.MAX_HP / 2;
+    }
+
+    /**
+     * Decides whether to open the chest of a floor once its enemies are dead.
+     *
+     * @param chest The chest
+     * @return true to take everything in it
+     */
+    default boolean lootChest(Chest chest) {
+        return true;
+    }
+
+    /**
+     * Decides whether to equip a looted weapon or piece of armor.
+     *
+     * @param looted The weapon or armor that was looted
+     * @param equipped What the player has equipped in its place, or null
+     * @return true to equip it
+     */
+    default boolean equip(Item looted, Item equipped) {
+        if (equipped == null) {
+            return true;
+        }
+        if (looted instanceof Weapon weapon && equipped instanceof Weapon current) {
+            return weapon.getWeaponDamage() > current.getWeaponDamage();
+        }
+        if (looted instanceof Armor armor && equipped instanceof Armor current) {
+            return armor.getArmorDefense() > current.getArmorDefense();
+        }
+        return false;
+    }
+}
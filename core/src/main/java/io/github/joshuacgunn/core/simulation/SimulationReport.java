@@ -0,0 +1,256 @@
+package io.github.joshuacgunn.core.simulation;
+
+import io.github.joshuacgunn.core.entity.Player;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static io.github.joshuacgunn.core.gson.GsonProvider.GSON;
+
+/**
+ * Sums up many simulated dungeon runs, to check how well floor difficulty ratings predict what happens
+ * to the player on those floors.
+ * <p>
+ * Every floor a player reached counts once, grouped both by its difficulty rating and by its floor number.
+ * If the ratings are right, deaths and damage taken should go up steadily with the rating.
+ */
+public final class SimulationReport {
+    /** The width of the ranges of difficulty ratings floors are grouped into */
+    public static final float DIFFICULTY_STEP = 0.5f;
+
+    private final long seed;
+    private final int runs;
+    private final Map<DungeonRun.Outcome, Integer> outcomes = new EnumMap<>(DungeonRun.Outcome.class);
+    private final double meanDepth;
+    private final double meanLootValue;
+    private final double meanPotionsUsed;
+
+    /** How closely the damage taken on a floor follows its difficulty rating, from -1 to 1 */
+    private final double difficultyDamageCorrelation;
+
+    private final List<ClassSummary> classes = new ArrayList<>();
+    private final List<FloorGroup> byDifficulty = new ArrayList<>();
+    private final List<FloorGroup> byFloorNumber = new ArrayList<>();
+
+    /**
+     * The runs of one player class.
+     *
+     * @param playerClass The class
+     * @param runs How many runs were played with it
+     * @param clearRate The share of runs that cleared the dungeon
+     * @param deathRate The share of runs in which the player died
+     * @param meanDepth The average deepest floor reached
+     * @param meanLootValue The average value looted in a run
+     */
+    public record ClassSummary(Player.PlayerClass playerClass, int runs, double clearRate, double deathRate,
+                               double meanDepth, double meanLootValue) { }
+
+    /**
+     * The floors in one range of difficulty ratings, or with one floor number.
+     *
+     * @param from The lowest difficulty rating or the floor number
+     * @param to The highest difficulty rating, exclusive, or the floor number
+     * @param reached How many times a player reached a floor in the group
+     * @param cleared How many of those times they cleared it
+     * @param deaths How many of those times they died on it
+     * @param meanDifficulty The average difficulty rating of the floors
+     * @param meanDamageTaken The average health lost in fights on the floors
+     */
+    public record FloorGroup(float from, float to, long reached, long cleared, long deaths, double meanDifficulty,
+                             double meanDamageTaken) {
+
+        /**
+         * @return The share of the times the floors were reached that the player died on them
+         */
+        public double deathRate() {
+            return reached == 0 ? 0 : (double) deaths / reached;
+        }
+    }
+
+    /** Running totals of a {@link FloorGroup} */
+    private static final class FloorTotals {
+        private long reached;
+        private long cleared;
+        private long deaths;
+        private double difficulty;
+        private double damageTaken;
+
+        private void add(float floorDifficulty, float floorDamage, boolean floorCleared, boolean died) {
+            reached++;
+            cleared += floorCleared ? 1 : 0;
+            deaths += died ? 1 : 0;
+            difficulty += floorDifficulty;
+            damageTaken += floorDamage;
+        }
+
+        private FloorGroup toGroup(float from, float to) {
+            return new FloorGroup(from, to, reached, cleared, deaths, difficulty / reached, damageTaken / reached);
+        }
+    }
+
+    /**
+     * Sums up a set of runs.
+     *
+     * @param seed The seed the runs were played from
+     * @param results The runs
+     */
+    public SimulationReport(long seed, List<DungeonRun> results) {
+        this.seed = seed;
+        this.runs = results.size();
+        for (DungeonRun.Outcome outcome : DungeonRun.Outcome.values()) {
+            outcomes.put(outcome, 0);
+        }
+
+        Map<Player.PlayerClass, List<DungeonRun>> runsByClass = new EnumMap<>(Player.PlayerClass.class);
+        Map<Integer, FloorTotals> difficultyTotals = new TreeMap<>();
+        Map<Integer, FloorTotals> floorTotals = new TreeMap<>();
+        double depth = 0;
+        double loot = 0;
+        double potions = 0;
+        // Sums for the correlation between difficulty and damage taken
+        long floors = 0;
+        double sumX = 0, sumY = 0, sumXX = 0, sumYY = 0, sumXY = 0;
+
+        for (DungeonRun run : results) {
+            outcomes.merge(run.outcome(), 1, Integer::sum);
+            runsByClass.computeIfAbsent(run.playerClass(), playerClass -> new ArrayList<>()).add(run);
+            depth += run.depth();
+            loot += run.lootValue();
+            potions += run.potionsUsed();
+
+            for (int floor = 0; floor < run.depth(); floor++) {
+                float difficulty = run.floorDifficulties()[floor];
+                float damage = run.damageTaken()[floor];
+                boolean cleared = floor < run.floorsCleared();
+                boolean died = !cleared && run.outcome() == DungeonRun.Outcome.DIED;
+                difficultyTotals.computeIfAbsent((int) Math.floor(difficulty / DIFFICULTY_STEP), step -> new FloorTotals())
+                        .add(difficulty, damage, cleared, died);
+                floorTotals.computeIfAbsent(floor + 1, number -> new FloorTotals())
+                        .add(difficulty, damage, cleared, died);
+
+                floors++;
+                sumX += difficulty;
+                sumY += damage;
+                sumXX += (double) difficulty * difficulty;
+                sumYY += (double) damage * damage;
+                sumXY += (double) difficulty * damage;
+            }
+        }
+
+        this.meanDepth = runs == 0 ? 0 : depth / runs;
+        this.meanLootValue = runs == 0 ? 0 : loot / runs;
+        this.meanPotionsUsed = runs == 0 ? 0 : potions / runs;
+        double covariance = floors * sumXY - sumX * sumY;
+        double spread = Math.sqrt(floors * sumXX - sumX * sumX) * Math.sqrt(floors * sumYY - sumY * sumY);
+        this.difficultyDamageCorrelation = spread == 0 ? 0 : covariance / spread;
+
+        runsByClass.forEach((playerClass, classRuns) -> {
+            int count = classRuns.size();
+            classes.add(new ClassSummary(playerClass, count,
+                    classRuns.stream().filter(run -> run.outcome() == DungeonRun.Outcome.CLEARED).count() / (double) count,
+                    classRuns.stream().filter(run -> run.outcome() == DungeonRun.Outcome.DIED).count() / (double) count,
+                    classRuns.stream().mapToInt(DungeonRun::depth).average().orElse(0),
+                    classRuns.stream().mapToDouble(DungeonRun::lootValue).average().orElse(0)));
+        });
+        difficultyTotals.forEach((step, totals) ->
+                byDifficulty.add(totals.toGroup(step * DIFFICULTY_STEP, (step + 1) * DIFFICULTY_STEP)));
+        floorTotals.forEach((number, totals) -> byFloorNumber.add(totals.toGroup(number, number)));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public Map<DungeonRun.Outcome, Integer> getOutcomes() {
+        return outcomes;
+    }
+
+    public double getMeanDepth() {
+        return meanDepth;
+    }
+
+    public double getMeanLootValue() {
+        return meanLootValue;
+    }
+
+    public double getMeanPotionsUsed() {
+        return meanPotionsUsed;
+    }
+
+    public double getDifficultyDamageCorrelation() {
+        return difficultyDamageCorrelation;
+    }
+
+    public List<ClassSummary> getClasses() {
+        return classes;
+    }
+
+    public List<FloorGroup> getByDifficulty() {
+        return byDifficulty;
+    }
+
+    public List<FloorGroup> getByFloorNumber() {
+        return byFloorNumber;
+    }
+
+    /**
+     * @return The whole report as JSON
+     */
+    public String toJson() {
+        return GSON.toJson(this);
+    }
+
+    /**
+     * @return The floors grouped by difficulty rating, as CSV
+     */
+    public String difficultyCsv() {
+        return floorGroupsCsv("difficulty_from,difficulty_to", byDifficulty, true);
+    }
+
+    /**
+     * @return The floors grouped by floor number, as CSV
+     */
+    public String floorNumberCsv() {
+        return floorGroupsCsv("floor", byFloorNumber, false);
+    }
+
+    /**
+     * Writes one line for each run, as CSV.
+     *
+     * @param results The runs
+     * @return The CSV
+     */
+    public static String runsCsv(List<DungeonRun> results) {
+        StringBuilder csv = new StringBuilder("seed,class,outcome,floors,floors_cleared,depth,dungeon_difficulty,"
+                + "kills,rounds,potions_used,loot_value,hp_left\n");
+        for (DungeonRun run : results) {
+            csv.append(String.format(Locale.ROOT, "%d,%s,%s,%d,%d,%d,%.3f,%d,%d,%d,%.2f,%.2f%n",
+                    run.seed(), run.playerClass(), run.outcome(), run.floors(), run.floorsCleared(), run.depth(),
+                    run.dungeonDifficulty(), run.kills(), run.rounds(), run.potionsUsed(), run.lootValue(),
+                    run.hpLeft()));
+        }
+        return csv.toString();
+    }
+
+    private static String floorGroupsCsv(String key, List<FloorGroup> groups, boolean range) {
+        StringBuilder csv = new StringBuilder(key + ",reached,cleared,deaths,death_rate,mean_difficulty,mean_damage_taken\n");
+        for (FloorGroup group : groups) {
+            if (range) {
+                csv.append(String.format(Locale.ROOT, "%.2f,%.2f,", group.from(), group.to()));
+            } else {
+                csv.append((int) group.from()).append(',');
+            }
+            csv.append(String.format(Locale.ROOT, "%d,%d,%d,%.4f,%.3f,%.2f%n", group.reached(), group.cleared(),
+                    group.deaths(), group.deathRate(), group.meanDifficulty(), group.meanDamageTaken()));
+        }
+        return csv.toString();
+    }
+}
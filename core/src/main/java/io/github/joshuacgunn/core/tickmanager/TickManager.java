@@ -1,76 +1,388 @@
 package io.github.joshuacgunn.core.tickmanager;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.*;
+import java.util.concurrent.*;
 
+/**
+ * Drives game time, by default one tick every second.
+ * <p>
+ * Game time is a fixed-timestep clock. While it runs, real time is added up, sped up or slowed down by
+ * the time scale, and {@link #runDueTicks()} runs one tick for every full tick period that has passed, so
+ * ticks missed while the game thread was busy are caught up in order. The clock can be paused, and
+ * {@link #advance(long)} runs any number of ticks at once without waiting, for headless simulations.
+ * The tick rate comes from the {@value #TICK_RATE_PROPERTY} system property, in milliseconds.
+ * <p>
+ * Tickables either run every tick, with {@link #register(Tickable)}, or ask to be woken at a later tick with
+ * {@link #schedule(Tickable, long)} and schedule themselves again from {@link Tickable#onTick(long)} if they
+ * still need to. Wake-ups are kept in a {@link TimerWheel}, so a tickable with nothing to do costs nothing
+ * per tick.
+ * <p>
+ * Ticks run when the game thread calls {@link #runDueTicks()} between updates, or when a caller drives
+ * time itself with {@link #tick()} or {@link #advance(long)}, so tickables never run while
+ * game logic is changing the world. Within a tick, the due tickables are grouped by
+ * {@link Tickable#getTickShard()}, and large ticks run their shards on a pool of worker threads. Wake-ups
+ * asked for by a worker are held back and applied once every shard has finished, and the thread driving
+ * the tick waits for all of them, so everything a tick did is visible to it when {@code tick()} returns.
+ * Registering, scheduling and unregistering may happen on any thread.
+ */
 public class TickManager {
+    /** The system property holding the tick period in milliseconds */
+    public static final String TICK_RATE_PROPERTY = "dungeoncrawler.tickRateMs";
+
     private static final int TICK_RATE_MS = 1000; // Tick every second
-    private static TickManager instance;
-    private final ScheduledExecutorService scheduler;
-    private final List<Tickable> tickables;
+
+    /** How much missed game time {@link #runDueTicks()} catches up by default, in milliseconds */
+    private static final long CATCH_UP_MS = 5000;
+
+    /** Number of threads that run shards of a tick side by side */
+    private static final int TICK_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /** Fewest due tickables worth splitting across threads; smaller ticks run on the calling thread */
+    private static final int MIN_PARALLEL_TICKABLES = 512;
+
+    /** Runs shards of large ticks */
+    private static final ExecutorService workers = Executors.newFixedThreadPool(TICK_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "tick-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Wake-ups asked for by the shard running on this thread, or null outside a worker */
+    private static final ThreadLocal<List<Wakeup>> deferred = new ThreadLocal<>();
+
+    private record Wakeup(Tickable tickable, long deadline) { }
+
+    /** Tickables that run every tick */
+    private final Set<Tickable> tickables;
+
+    /** Tickables waiting for a later tick */
+    private final TimerWheel wheel;
+
     private boolean isRunning;
-    private int currentTick;
+    private boolean isPaused;
+    private volatile long currentTick;
+
+    /** Length of a tick in real time */
+    private long tickNanos;
+
+    /** How much faster than real time game time runs */
+    private double timeScale = 1.0;
+
+    /**
+     * Most ticks {@link #runDueTicks()} catches up at once; older missed ticks are dropped. Until it is set,
+     * {@value #CATCH_UP_MS}ms worth of ticks at the current tick rate, so a game left suspended does not
+     * spend minutes running the ticks it missed.
+     */
+    private long maxCatchUpTicks = 0;
+
+    /** Scaled real time that has passed but not been run as ticks yet */
+    private double pendingNanos;
+
+    /** When the clock last added up real time */
+    private long lastNanos;
 
     private TickManager() {
-        this.scheduler = Executors.newSingleThreadScheduledExecutor();
-        this.tickables = new ArrayList<>();
+        this.tickables = new LinkedHashSet<>();
         this.isRunning = false;
         this.currentTick = 0;
+        this.wheel = new TimerWheel(currentTick);
+        setTickRate(Long.parseLong(System.getProperty(TICK_RATE_PROPERTY, String.valueOf(TICK_RATE_MS))));
+    }
+
+    /** Created the first time the tick manager is asked for, from whichever thread asks first */
+    private static final class Holder {
+        static final TickManager INSTANCE = new TickManager();
     }
 
     public static TickManager getInstance() {
-        if (instance == null) {
-            instance = new TickManager();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
-    public void start() {
+    /**
+     * Starts the clock. Game time starts counting from now.
+     */
+    public synchronized void start() {
         if (!isRunning) {
             isRunning = true;
-            scheduler.scheduleAtFixedRate(this::tick, 0, TICK_RATE_MS, TimeUnit.MILLISECONDS);
+            pendingNanos = 0;
+            lastNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Stops the clock. Ticks that have come due but not run yet are dropped.
+     */
+    public synchronized void stop() {
+        isRunning = false;
+        pendingNanos = 0;
+    }
+
+    /**
+     * Stops game time from passing until {@link #resume()}. Ticks already due still run.
+     */
+    public synchronized void pause() {
+        if (!isPaused) {
+            addElapsedTime();
+            isPaused = true;
+        }
+    }
+
+    /**
+     * Lets game time pass again after {@link #pause()}, from now.
+     */
+    public synchronized void resume() {
+        if (isPaused) {
+            isPaused = false;
+            lastNanos = System.nanoTime();
+        }
+    }
+
+    public synchronized boolean isPaused() {
+        return isPaused;
+    }
+
+    /**
+     * Sets the length of a tick in real time. Time already counted towards the next tick is kept.
+     *
+     * @param tickMillis The tick period in milliseconds, at least 1
+     */
+    public synchronized void setTickRate(long tickMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick period must be at least 1ms: " + tickMillis);
+        }
+        addElapsedTime();
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+    }
+
+    /**
+     * @return The length of a tick in real time, in milliseconds
+     */
+    public synchronized long getTickRate() {
+        return TimeUnit.NANOSECONDS.toMillis(tickNanos);
+    }
+
+    /**
+     * Speeds game time up or slows it down against real time, e.g. 2.0 runs two ticks per tick period.
+     *
+     * @param timeScale How much faster than real time game time runs, above 0
+     */
+    public synchronized void setTimeScale(double timeScale) {
+        if (!(timeScale > 0) || Double.isInfinite(timeScale)) {
+            throw new IllegalArgumentException("Time scale must be a positive number: " + timeScale);
         }
+        addElapsedTime();
+        this.timeScale = timeScale;
+    }
+
+    public synchronized double getTimeScale() {
+        return timeScale;
     }
 
-    public void stop() {
-        if (isRunning) {
-            isRunning = false;
-            scheduler.shutdown();
-            try {
-                if (!scheduler.awaitTermination(500, TimeUnit.MILLISECONDS)) {
-                    scheduler.shutdownNow();
+    /**
+     * Limits how many missed ticks {@link #runDueTicks()} runs at once, such as after the game was suspended.
+     * Missed ticks beyond the limit are dropped. The default limit is {@value #CATCH_UP_MS}ms worth of ticks.
+     *
+     * @param maxCatchUpTicks The most ticks to catch up at once, at least 1
+     */
+    public synchronized void setMaxCatchUpTicks(long maxCatchUpTicks) {
+        if (maxCatchUpTicks < 1) {
+            throw new IllegalArgumentException("At least one tick must be caught up: " + maxCatchUpTicks);
+        }
+        this.maxCatchUpTicks = maxCatchUpTicks;
+    }
+
+    /**
+     * Runs every tick that has come due since the last call, in order, catching up on ticks missed while
+     * the game thread was busy. Game states call this at the start of each update, while no game logic is running.
+     *
+     * @return The number of ticks run
+     */
+    public long runDueTicks() {
+        long due;
+        synchronized (this) {
+            if (!isRunning) {
+                return 0;
+            }
+            addElapsedTime();
+            due = (long) (pendingNanos / tickNanos);
+            pendingNanos -= (double) due * tickNanos;
+            long limit = maxCatchUpTicks > 0 ? maxCatchUpTicks : Math.max(1, TimeUnit.MILLISECONDS.toNanos(CATCH_UP_MS) / tickNanos);
+            due = Math.min(due, limit);
+        }
+        advance(due);
+        return due;
+    }
+
+    /**
+     * Runs a number of ticks straight away, one after another, without waiting for real time to pass.
+     * Works whether or not the clock is running or paused, so headless simulations can fast-forward.
+     *
+     * @param ticks The number of ticks to run
+     */
+    public void advance(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            tick();
+        }
+    }
+
+    /**
+     * Adds the real time passed since the last call to the time owed to ticks, if the clock is running.
+     */
+    private void addElapsedTime() {
+        long now = System.nanoTime();
+        if (isRunning && !isPaused) {
+            pendingNanos += (now - lastNanos) * timeScale;
+        }
+        lastNanos = now;
+    }
+
+    /**
+     * Advances game time by one tick, running every registered tickable and every tickable due to wake at
+     * the new tick. Returns once all of them have finished.
+     */
+    public void tick() {
+        List<Tickable> due = new ArrayList<>();
+        long tick;
+        synchronized (this) {
+            tick = ++currentTick;
+            due.addAll(tickables);
+            wheel.advance(due);
+        }
+
+        Map<Object, List<Tickable>> shards = new LinkedHashMap<>();
+        List<Tickable> unsharded = new ArrayList<>();
+        for (Tickable tickable : due) {
+            Object shard = tickable.getTickShard();
+            if (shard == null) {
+                unsharded.add(tickable);
+            } else {
+                shards.computeIfAbsent(shard, key -> new ArrayList<>()).add(tickable);
+            }
+        }
+        if (TICK_THREADS > 1 && shards.size() > 1 && due.size() >= MIN_PARALLEL_TICKABLES) {
+            runInParallel(new ArrayList<>(shards.values()), tick);
+        } else {
+            shards.values().forEach(shard -> shard.forEach(tickable -> run(tickable, tick)));
+        }
+        unsharded.forEach(tickable -> run(tickable, tick));
+    }
+
+    /**
+     * Splits the shards of a tick into one run of whole shards per worker, waits for every run to finish,
+     * then applies the wake-ups they asked for in shard order.
+     */
+    private void runInParallel(List<List<Tickable>> shards, long tick) {
+        int total = shards.stream().mapToInt(List::size).sum();
+        int perTask = (total + TICK_THREADS - 1) / TICK_THREADS;
+        List<Callable<List<Wakeup>>> tasks = new ArrayList<>();
+        int start = 0;
+        while (start < shards.size()) {
+            int end = start;
+            int size = 0;
+            while (end < shards.size() && (size < perTask || end == start)) {
+                size += shards.get(end++).size();
+            }
+            List<List<Tickable>> run = shards.subList(start, end);
+            tasks.add(() -> {
+                deferred.set(new ArrayList<>());
+                try {
+                    run.forEach(shard -> shard.forEach(tickable -> run(tickable, tick)));
+                    return deferred.get();
+                } finally {
+                    deferred.remove();
+                }
+            });
+            start = end;
+        }
+
+        List<Future<List<Wakeup>>> results;
+        try {
+            results = workers.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running tick " + tick, e);
+        }
+        synchronized (this) {
+            for (Future<List<Wakeup>> result : results) {
+                try {
+                    for (Wakeup wakeup : result.get()) {
+                        wheel.schedule(wakeup.tickable(), wakeup.deadline());
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new RuntimeException("Failed to run tick " + tick, e);
                 }
-            } catch (InterruptedException e) {
-                scheduler.shutdownNow();
             }
         }
     }
 
-    private void tick() {
-        currentTick++;
-        for (Tickable tickable : new ArrayList<>(tickables)) {
-            tickable.onTick(currentTick);
+    /**
+     * Runs one tickable. A tickable that fails is reported and the rest of the tick still runs.
+     */
+    private static void run(Tickable tickable, long tick) {
+        try {
+            tickable.onTick(tick);
+        } catch (RuntimeException e) {
+            // Written in one go, so reports from workers failing at the same time do not interleave
+            StringWriter report = new StringWriter();
+            report.write("Tick " + tick + " failed for " + tickable + ": ");
+            e.printStackTrace(new PrintWriter(report));
+            System.err.print(report);
         }
     }
 
-    public void register(Tickable tickable) {
-        if (!tickables.contains(tickable)) {
-            tickables.add(tickable);
+    /**
+     * Runs a tickable on every tick until it is unregistered.
+     *
+     * @param tickable The tickable to run
+     */
+    public synchronized void register(Tickable tickable) {
+        tickables.add(tickable);
+    }
+
+    /**
+     * Wakes a tickable once, a number of ticks from now. If it is already due to wake sooner, that
+     * wake-up is kept instead, so a tickable with several things coming due can ask for each of them
+     * and should work out its next wake-up again when it is woken.
+     * Asked for from a tick worker, the wake-up takes effect once the tick's shards have all finished.
+     *
+     * @param tickable The tickable to wake
+     * @param ticks How many ticks from now to wake it, at least one
+     */
+    public void schedule(Tickable tickable, long ticks) {
+        List<Wakeup> buffer = deferred.get();
+        if (buffer != null) {
+            buffer.add(new Wakeup(tickable, currentTick + ticks));
+            return;
+        }
+        synchronized (this) {
+            wheel.schedule(tickable, currentTick + ticks);
         }
     }
 
-    public void unregister(Tickable tickable) {
+    /**
+     * Stops running a tickable every tick and drops its pending wake-up.
+     *
+     * @param tickable The tickable to stop
+     */
+    public synchronized void unregister(Tickable tickable) {
         tickables.remove(tickable);
+        wheel.cancel(tickable);
     }
 
-    public int getCurrentTick() {
+    public long getCurrentTick() {
         return currentTick;
     }
 
-    public void setCurrentTick(int tick) {
+    /**
+     * Moves game time to a tick, such as the tick a loaded save was taken at. Pending wake-ups stay due at the
+     * same tick, as the status effect expiries of entities do, and any the clock moves past wake on the next tick.
+     *
+     * @param tick The new current tick
+     */
+    public synchronized void setCurrentTick(long tick) {
+        wheel.rebase(tick);
         this.currentTick = tick;
     }
 }
@@ -1,5 +1,16 @@
 package io.github.joshuacgunn.core.tickmanager;
 
 public interface Tickable {
-    void onTick(int currentTick);
+    void onTick(long currentTick);
+
+    /**
+     * Tickables with the same shard run one after another within a tick, while different shards may run
+     * at the same time on different threads, so a tickable may only touch state owned by its shard.
+     * Tickables without a shard run alone on the thread driving the tick, after every shard has finished.
+     *
+     * @return The shard this tickable runs in, such as the UUID of its location, or null to run alone
+     */
+    default Object getTickShard() {
+        return null;
+    }
 }
@@ -0,0 +1,169 @@
+package io.github.joshuacgunn.core.tickmanager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A hierarchical timer wheel holding at most one pending wake-up for each tickable.
+ * <p>
+ * The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. Level 0 holds wake-ups due within the
+ * current run of {@value #SLOTS} ticks, one slot per tick; each level above covers {@value #SLOTS} times
+ * the span of the one below. When the clock rolls over into a slot of a higher level, the wake-ups in that
+ * slot are moved down, so every wake-up is moved at most once per level. Wake-ups further away than the
+ * top level covers wait in an overflow list until the top level rolls over. Scheduling, cancelling and
+ * advancing the clock by one tick therefore cost nothing per idle tickable.
+ * <p>
+ * Not thread safe; {@link TickManager} guards it.
+ */
+final class TimerWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+
+    private static final class Timer {
+        final Tickable tickable;
+        final long deadline;
+        boolean cancelled = false;
+
+        Timer(Tickable tickable, long deadline) {
+            this.tickable = tickable;
+            this.deadline = deadline;
+        }
+    }
+
+    /** The slots of every level, level 0 first, each null until something is placed in it */
+    private final List<List<Timer>> slots = new ArrayList<>(Collections.nCopies(LEVELS * SLOTS, null));
+
+    /** Wake-ups beyond the span of the top level */
+    private List<Timer> overflow = new ArrayList<>();
+
+    /** The pending wake-up of each tickable */
+    private final Map<Tickable, Timer> timers = new IdentityHashMap<>();
+
+    /** The last tick the wheel has advanced to */
+    private long now;
+
+    TimerWheel(long now) {
+        this.now = now;
+    }
+
+    long now() {
+        return now;
+    }
+
+    int size() {
+        return timers.size();
+    }
+
+    /**
+     * Wakes a tickable at a tick, unless it is already due to wake earlier.
+     *
+     * @param tickable The tickable to wake
+     * @param deadline The tick to wake it at, moved to the next tick if it has already passed
+     */
+    void schedule(Tickable tickable, long deadline) {
+        deadline = Math.max(deadline, now + 1);
+        Timer pending = timers.get(tickable);
+        if (pending != null) {
+            if (pending.deadline <= deadline) {
+                return;
+            }
+            pending.cancelled = true;
+        }
+        Timer timer = new Timer(tickable, deadline);
+        timers.put(tickable, timer);
+        place(timer);
+    }
+
+    /**
+     * Drops the pending wake-up of a tickable, if it has one.
+     */
+    void cancel(Tickable tickable) {
+        Timer pending = timers.remove(tickable);
+        if (pending != null) {
+            pending.cancelled = true;
+        }
+    }
+
+    /**
+     * Advances the clock by one tick.
+     *
+     * @param due Receives the tickables due at the new tick, whose wake-ups are used up
+     */
+    void advance(List<Tickable> due) {
+        now++;
+        // Move wake-ups down from every level that rolled over, highest first, so they can land in
+        // a lower slot that is itself about to be moved down or fired
+        if ((now & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+            List<Timer> far = overflow;
+            overflow = new ArrayList<>();
+            far.forEach(this::place);
+        }
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((now & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                cascade(level);
+            }
+        }
+        List<Timer> slot = slots.set((int) (now & (SLOTS - 1)), null);
+        if (slot == null) {
+            return;
+        }
+        for (Timer timer : slot) {
+            if (!timer.cancelled) {
+                timers.remove(timer.tickable);
+                due.add(timer.tickable);
+            }
+        }
+    }
+
+    /**
+     * Moves the clock to another tick. Pending wake-ups keep the tick they are due at, the way the deadlines
+     * tickables keep for themselves do, and those the clock has moved past wake on the next tick.
+     */
+    void rebase(long tick) {
+        List<Timer> pending = new ArrayList<>(timers.values());
+        Collections.fill(slots, null);
+        overflow = new ArrayList<>();
+        timers.clear();
+        now = tick;
+        for (Timer timer : pending) {
+            schedule(timer.tickable, timer.deadline);
+        }
+    }
+
+    private void cascade(int level) {
+        int index = (int) ((now >>> (SLOT_BITS * level)) & (SLOTS - 1));
+        List<Timer> slot = slots.set(level * SLOTS + index, null);
+        if (slot == null) {
+            return;
+        }
+        for (Timer timer : slot) {
+            if (!timer.cancelled) {
+                place(timer);
+            }
+        }
+    }
+
+    /**
+     * Puts a wake-up in the lowest level whose current rotation contains its deadline.
+     */
+    private void place(Timer timer) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if ((timer.deadline >>> shift) == (now >>> shift)) {
+                int index = level * SLOTS + (int) ((timer.deadline >>> (SLOT_BITS * level)) & (SLOTS - 1));
+                List<Timer> slot = slots.get(index);
+                if (slot == null) {
+                    slot = new ArrayList<>();
+                    slots.set(index, slot);
+                }
+                slot.add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.joshuacgunn.core.typeadapter;
+
+import io.github.joshuacgunn.core.entity.EntityStats;
+import com.google.gson.*;
+
+import java.lang.reflect.Type;
+
+/**
+ * Writes a stat block as one property per stat, named after the stat in lower case (eg, "strength"),
+ * which is how stat blocks have always been saved.
+ */
+public class EntityStatsTypeAdapter implements JsonSerializer<EntityStats>, JsonDeserializer<EntityStats> {
+
+    @Override
+    public JsonElement serialize(EntityStats src, Type typeOfSrc, JsonSerializationContext context) {
+        JsonObject result = new JsonObject();
+        for (EntityStats.Stat stat : EntityStats.Stat.values()) {
+            result.addProperty(propertyName(stat), src.getStatValue(stat));
+        }
+        return result;
+    }
+
+    @Override
+    public EntityStats deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
+        JsonObject jsonObject = json.getAsJsonObject();
+        EntityStats stats = new EntityStats();
+        for (EntityStats.Stat stat : EntityStats.Stat.values()) {
+            JsonElement value = jsonObject.get(propertyName(stat));
+            if (value != null && !value.isJsonNull()) {
+                stats.setStatValue(stat, value.getAsInt());
+            }
+        }
+        return stats;
+    }
+
+    private static String propertyName(EntityStats.Stat stat) {
+        return stat.name().toLowerCase();
+    }
+}
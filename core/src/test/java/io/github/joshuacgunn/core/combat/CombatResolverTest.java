@@ -0,0 +1,67 @@
+package io.github.joshuacgunn.core.combat;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CombatResolverTest {
+
+    @Test
+    void enemyStrikesBackInTheRoundItDies() {
+        CombatResolver.Round round = CombatResolver.playRound(new Combatant("Player", 50, 20), new Combatant("Goblin", 10, 7));
+
+        assertTrue(round.enemyDied());
+        assertFalse(round.playerDied());
+        assertEquals(0, round.enemyHp());
+        assertEquals(43, round.playerHp());
+    }
+
+    @Test
+    void hitEqualToHealthLeavesTheSideAlive() {
+        CombatResolver.Round round = CombatResolver.playRound(new Combatant("Player", 5, 10), new Combatant("Goblin", 10, 5));
+
+        assertFalse(round.enemyDied());
+        assertFalse(round.playerDied());
+        assertEquals(0, round.enemyHp());
+        assertEquals(0, round.playerHp());
+    }
+
+    @Test
+    void playerLosesWhenBothDieInTheSameRound() {
+        CombatOutcome outcome = CombatResolver.resolve(new Combatant("Player", 5, 20), new Combatant("Goblin", 10, 7),
+                CombatPolicy.ALWAYS_ATTACK);
+
+        assertEquals(CombatOutcome.Result.ENEMY_WON, outcome.result());
+        assertEquals(1, outcome.rounds());
+    }
+
+    @Test
+    void fightIsPlayedRoundByRound() {
+        CombatOutcome outcome = CombatResolver.resolve(new Combatant("Player", 100, 10), new Combatant("Goblin", 35, 4),
+                CombatPolicy.ALWAYS_ATTACK);
+
+        // 35 health takes four hits of 10, and the goblin strikes back in each of those rounds
+        assertEquals(CombatOutcome.Result.PLAYER_WON, outcome.result());
+        assertEquals(4, outcome.rounds());
+        assertEquals(84, outcome.playerHp());
+    }
+
+    @Test
+    void fleeingEndsTheFightBeforeTheRound() {
+        CombatOutcome outcome = CombatResolver.resolve(new Combatant("Player", 10, 1), new Combatant("Troll", 100, 4),
+                CombatPolicy.fleeBelow(5));
+
+        assertEquals(CombatOutcome.Result.FLED, outcome.result());
+        assertEquals(2, outcome.rounds());
+        assertEquals(2, outcome.playerHp());
+    }
+
+    @Test
+    void fightWithoutDamageIsADraw() {
+        CombatOutcome outcome = CombatResolver.resolve(new Combatant("Player", 10, 0), new Combatant("Goblin", 10, 0),
+                CombatPolicy.ALWAYS_ATTACK);
+
+        assertEquals(CombatOutcome.Result.DRAW, outcome.result());
+        assertEquals(CombatResolver.MAX_ROUNDS, outcome.rounds());
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.joshuacgunn.core.location;
+
+import io.github.joshuacgunn.core.entity.Enemy;
+import io.github.joshuacgunn.core.misc.RegistryBatch;
+import io.github.joshuacgunn.core.misc.RngService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DungeonFloorTest {
+    private static final long SEED = 42;
+
+    /** The floor with the most enemies of a dungeon generated without joining the world */
+    private static DungeonFloor crowdedFloor() {
+        Dungeon dungeon = new RegistryBatch().collect(() ->
+                RngService.generate(SEED, () -> new Dungeon(Dungeon.generateDungeonName(), RngService.nextUUID(), true)));
+        DungeonFloor floor = dungeon.getFloors().stream()
+                .max(Comparator.comparingInt(DungeonFloor::getEnemyCount))
+                .orElseThrow();
+        assertTrue(floor.getEnemyCount() >= 3, "Seed should give a floor with several enemies");
+        return floor;
+    }
+
+    /**
+     * Checks that the floor holds exactly the enemies expected and is rated the same as a floor
+     * that was given those enemies from scratch.
+     */
+    private static void assertHolds(DungeonFloor floor, List<Enemy> expected) {
+        assertEquals(expected.size(), floor.getEnemyCount());
+        assertEquals(new HashSet<>(expected), new HashSet<>(floor.getEnemiesOnFloor()));
+        float rating = floor.getDifficultyRating();
+        floor.setEnemiesOnFloor(new ArrayList<>(expected));
+        assertEquals(rating, floor.getDifficultyRating(), 0.011f);
+    }
+
+    /** Enemies without weapons or armor, generated without joining the world */
+    private static ArrayList<Enemy> unarmed(Enemy.EnemyType... types) {
+        return new RegistryBatch().collect(() -> RngService.generate(SEED, () -> {
+            ArrayList<Enemy> enemies = new ArrayList<>();
+            for (Enemy.EnemyType type : types) {
+                enemies.add(new Enemy(type, RngService.nextUUID(), false));
+            }
+            return enemies;
+        }));
+    }
+
+    @Test
+    void removingEnemyMovesTheLastOneIntoItsSlot() {
+        DungeonFloor floor = crowdedFloor();
+        List<Enemy> enemies = List.copyOf(floor.getEnemiesOnFloor());
+        Enemy victim = enemies.get(1);
+        Enemy last = enemies.getLast();
+
+        floor.removeEnemy(victim);
+
+        assertSame(enemies.getFirst(), floor.getEnemiesOnFloor().getFirst());
+        assertSame(last, floor.getEnemiesOnFloor().get(1));
+        List<Enemy> remaining = new ArrayList<>(enemies);
+        remaining.remove(victim);
+        assertHolds(floor, remaining);
+    }
+
+    @Test
+    void removingEveryEnemyInAnyOrderKeepsTheFloorConsistent() {
+        DungeonFloor floor = crowdedFloor();
+        List<Enemy> remaining = new ArrayList<>(floor.getEnemiesOnFloor());
+        SplittableRandom random = new SplittableRandom(SEED);
+        while (!remaining.isEmpty()) {
+            Enemy victim = remaining.remove(random.nextInt(remaining.size()));
+            floor.removeEnemy(victim);
+            // Not rebuilt between removals, so every removal goes through the slots the earlier ones moved
+            assertEquals(remaining.size(), floor.getEnemyCount());
+            assertEquals(new HashSet<>(remaining), new HashSet<>(floor.getEnemiesOnFloor()));
+        }
+        assertEquals(0, floor.getEnemyCount());
+        assertEquals(0f, floor.getDifficultyRating());
+        assertNull(floor.getRandomEnemy(random));
+    }
+
+    @Test
+    void removingEnemyTwiceOrFromAnotherFloorChangesNothing() {
+        DungeonFloor floor = crowdedFloor();
+        List<Enemy> enemies = List.copyOf(floor.getEnemiesOnFloor());
+        Enemy victim = enemies.getFirst();
+        floor.removeEnemy(victim);
+        float rating = floor.getDifficultyRating();
+
+        floor.removeEnemy(victim);
+        DungeonFloor other = floor.getParentDungeon().getFloors().stream()
+                .filter(candidate -> candidate != floor && candidate.getEnemyCount() > 0)
+                .findFirst()
+                .orElseThrow();
+        floor.removeEnemy(other.getEnemiesOnFloor().getFirst());
+
+        assertEquals(enemies.size() - 1, floor.getEnemyCount());
+        assertEquals(rating, floor.getDifficultyRating());
+    }
+
+    @Test
+    void woundedEnemiesRateTheSameAfterLoading() {
+        DungeonFloor floor = crowdedFloor();
+        float rating = floor.getDifficultyRating();
+        for (Enemy enemy : floor.getEnemiesOnFloor()) {
+            enemy.setEntityHp(1);
+        }
+
+        floor.setEnemiesOnFloor(new ArrayList<>(floor.getEnemiesOnFloor()));
+        assertEquals(rating, floor.getDifficultyRating());
+    }
+
+    @Test
+    void unarmedEnemiesAddNoDamageAndEachTypeAddsVariety() {
+        DungeonFloor floor = crowdedFloor();
+        floor.setEnemiesOnFloor(unarmed(Enemy.EnemyType.KOBOLD, Enemy.EnemyType.KOBOLD));
+        float sameType = floor.getDifficultyRating();
+        floor.setEnemiesOnFloor(unarmed(Enemy.EnemyType.KOBOLD, Enemy.EnemyType.GOBLIN, Enemy.EnemyType.ORC));
+        float threeTypes = floor.getDifficultyRating();
+
+        float base = floor.getFloorNumber() * 0.2f;
+        float kobold = Enemy.EnemyType.KOBOLD.getMaxHp() / 60f;
+        float goblin = Enemy.EnemyType.GOBLIN.getMaxHp() / 60f;
+        float orc = Enemy.EnemyType.ORC.getMaxHp() / 60f;
+        assertEquals(Math.round((base + 2 * kobold * 1.25f) * 10) / 100.0f, sameType);
+        assertEquals(Math.round((base + (kobold + goblin + orc) * 1.5f + 0.3f) * 10) / 100.0f, threeTypes);
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.joshuacgunn.core.location;
+
+import io.github.joshuacgunn.core.misc.RegistryBatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationRegistryTest {
+    private static final UUID LOADED = new UUID(0, 1);
+    private static final UUID FIRST = new UUID(0, 2);
+    private static final UUID SECOND = new UUID(0, 3);
+    private static final UUID UNKNOWN = new UUID(0, 4);
+
+    /** A location that does nothing, built without joining the world */
+    private static final class Place extends Location {
+        private Place(UUID uuid) {
+            super("Place " + uuid.getLeastSignificantBits(), uuid);
+        }
+
+        private static Place of(UUID uuid) {
+            return new RegistryBatch().collect(() -> new Place(uuid));
+        }
+    }
+
+    /** Loads locations from a map, and remembers what it was asked to do */
+    private final class MapLoader implements LocationRegistry.Loader {
+        private final Map<UUID, Location> pending = new LinkedHashMap<>();
+        private final List<UUID> loaded = new ArrayList<>();
+        private final Set<UUID> discarded = new HashSet<>();
+        private int sizeSeenWhileLoading = -1;
+
+        @Override
+        public boolean isPending(UUID uuid) {
+            return pending.containsKey(uuid);
+        }
+
+        @Override
+        public void load(UUID uuid) {
+            // Walking the registry while loading must not load the rest
+            sizeSeenWhileLoading = registry.size();
+            Location location = pending.remove(uuid);
+            registry.put(uuid, location);
+            loaded.add(uuid);
+        }
+
+        @Override
+        public void loadAll() {
+            for (UUID uuid : List.copyOf(pending.keySet())) {
+                load(uuid);
+            }
+        }
+
+        @Override
+        public void discard(UUID uuid) {
+            pending.remove(uuid);
+            discarded.add(uuid);
+        }
+    }
+
+    private LocationRegistry registry;
+    private MapLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        registry = new LocationRegistry();
+        loader = new MapLoader();
+        registry.put(LOADED, Place.of(LOADED));
+        loader.pending.put(FIRST, Place.of(FIRST));
+        loader.pending.put(SECOND, Place.of(SECOND));
+        registry.setLoader(loader);
+    }
+
+    @Test
+    void getLoadsOnlyThatLocation() {
+        assertTrue(registry.isPending(FIRST));
+        Location first = registry.get(FIRST);
+
+        assertNotNull(first);
+        assertEquals(FIRST, first.getLocationUUID());
+        assertEquals(List.of(FIRST), loader.loaded);
+        assertFalse(registry.isPending(FIRST));
+        assertTrue(registry.isPending(SECOND));
+        assertEquals(2, registry.loadedValues().size());
+        assertEquals(1, loader.sizeSeenWhileLoading);
+
+        assertSame(first, registry.get(FIRST));
+        assertEquals(List.of(FIRST), loader.loaded);
+    }
+
+    @Test
+    void containsKeyLoadsPendingLocations() {
+        assertTrue(registry.containsKey(SECOND));
+        assertEquals(List.of(SECOND), loader.loaded);
+
+        assertFalse(registry.containsKey(UNKNOWN));
+        assertTrue(registry.containsKey(LOADED));
+        assertEquals(List.of(SECOND), loader.loaded);
+    }
+
+    @Test
+    void valuesLoadEveryPendingLocation() {
+        assertEquals(1, registry.loadedValues().size());
+
+        Set<UUID> uuids = new HashSet<>();
+        for (Location location : registry.values()) {
+            uuids.add(location.getLocationUUID());
+        }
+        assertEquals(Set.of(LOADED, FIRST, SECOND), uuids);
+        assertEquals(List.of(FIRST, SECOND), loader.loaded);
+        assertTrue(loader.pending.isEmpty());
+    }
+
+    @Test
+    void sizeAndKeySetSeeTheWholeWorld() {
+        assertEquals(3, registry.size());
+        assertEquals(Set.of(LOADED, FIRST, SECOND), registry.keySet());
+    }
+
+    @Test
+    void removingPendingLocationDiscardsItWithoutLoading() {
+        assertNull(registry.remove(FIRST));
+        assertEquals(Set.of(FIRST), loader.discarded);
+        assertTrue(loader.loaded.isEmpty());
+        assertFalse(registry.containsKey(FIRST));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void clearDropsTheLoader() {
+        registry.clear();
+        assertNull(registry.getLoader());
+        assertFalse(registry.containsKey(FIRST));
+        assertTrue(registry.isEmpty());
+    }
+}
@@ -0,0 +1,122 @@
+package io.github.joshuacgunn.core.misc;
+
+import io.github.joshuacgunn.core.entity.Enemy;
+import io.github.joshuacgunn.core.entity.NPC;
+import io.github.joshuacgunn.core.item.Item;
+import io.github.joshuacgunn.core.location.Dungeon;
+import io.github.joshuacgunn.core.location.DungeonFloor;
+import io.github.joshuacgunn.core.location.Location;
+import io.github.joshuacgunn.core.location.Shop;
+import io.github.joshuacgunn.core.location.Town;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RngServiceTest {
+    private static final int LOCATIONS = 24;
+
+    @AfterEach
+    void tearDown() {
+        RngService.setWorldSeed(0, 0);
+    }
+
+    /**
+     * Generates a location and writes down everything generated with it, all inside a batch that is thrown
+     * away, so nothing joins the world and floors generated while describing it stay out of it too.
+     */
+    private static String generate(long seed) {
+        return new RegistryBatch().collect(() -> describe(Location.generateLocation(seed)));
+    }
+
+    private static String describe(Location location) {
+        StringBuilder description = new StringBuilder(location.getClass().getSimpleName())
+                .append(' ').append(location.getLocationName()).append(' ').append(location.getLocationUUID());
+        if (location instanceof Dungeon dungeon) {
+            for (DungeonFloor floor : dungeon.getFloors()) {
+                description.append("\n floor ").append(floor.getFloorNumber()).append(' ').append(floor.getDifficultyRating());
+                for (Enemy enemy : floor.getEnemiesOnFloor()) {
+                    description.append("\n  ").append(enemy.getType()).append(' ').append(enemy.getEntityHp())
+                            .append(' ').append(enemy.getEntityUUID());
+                }
+                for (Item item : floor.getChest().getItems()) {
+                    description.append("\n  ").append(item.getItemName()).append(' ').append(item.getItemUUID());
+                }
+            }
+        } else if (location instanceof Town town) {
+            for (Shop shop : town.getShopsInTown()) {
+                description.append("\n shop ").append(shop.getLocationName()).append(' ').append(shop.getLocationUUID());
+                for (NPC npc : shop.getNpcsInShop()) {
+                    description.append("\n  ").append(npc.getEntityName()).append(' ').append(npc.getEntityUUID());
+                }
+            }
+        }
+        return description.toString();
+    }
+
+    private static long[] locationSeeds(long worldSeed) {
+        RngService.setWorldSeed(worldSeed, 0);
+        return LongStream.range(0, LOCATIONS).map(i -> RngService.nextLocationSeed()).toArray();
+    }
+
+    @Test
+    void sameSeedGivesSameLocationsInParallelAndSerially() throws Exception {
+        long[] seeds = locationSeeds(42);
+        List<String> serial = new ArrayList<>();
+        for (long seed : seeds) {
+            serial.add(generate(seed));
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            // Submitted last seed first, so the workers finish in a different order than the serial run
+            for (int i = seeds.length - 1; i >= 0; i--) {
+                long seed = seeds[i];
+                futures.add(workers.submit(() -> generate(seed)));
+            }
+            List<String> parallel = new ArrayList<>();
+            for (Future<String> future : futures) {
+                parallel.addFirst(future.get());
+            }
+            assertEquals(serial, parallel);
+        } finally {
+            workers.shutdown();
+        }
+
+        assertEquals(serial, LongStream.of(seeds).parallel().mapToObj(RngServiceTest::generate).toList());
+    }
+
+    @Test
+    void worldSeedDecidesTheLocationSeeds() {
+        assertArrayEquals(locationSeeds(42), locationSeeds(42));
+        assertFalse(Arrays.equals(locationSeeds(42), locationSeeds(43)));
+
+        long[] seeds = locationSeeds(7);
+        RngService.setWorldSeed(7, 10);
+        assertEquals(seeds[10], RngService.nextLocationSeed());
+        assertEquals(11, RngService.getLocationsGenerated());
+    }
+
+    @Test
+    void nestedGenerationRestoresTheOuterStream() {
+        String[] inner = new String[1];
+        String withInner = RngService.generate(1, () -> {
+            long before = RngService.current().nextLong();
+            inner[0] = RngService.generate(2, () -> RngService.nextUUID().toString());
+            return before + " " + RngService.current().nextLong();
+        });
+        String withoutInner = RngService.generate(1, () -> RngService.current().nextLong() + " " + RngService.current().nextLong());
+
+        assertEquals(withoutInner, withInner);
+        assertEquals(RngService.generate(2, () -> RngService.nextUUID().toString()), inner[0]);
+    }
+}
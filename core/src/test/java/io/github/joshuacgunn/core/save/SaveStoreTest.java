@@ -0,0 +1,113 @@
+package io.github.joshuacgunn.core.save;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaveStoreTest {
+    private static final SaveFormat FORMAT = JsonSaveFormat.INSTANCE;
+    private static final String FILE = "notes_snapshot";
+    private static final UUID FIRST = new UUID(0, 1);
+    private static final UUID SECOND = new UUID(0, 2);
+
+    @TempDir
+    Path directory;
+
+    private static byte[] encode(String value) {
+        return FORMAT.encode(value);
+    }
+
+    private static List<String> notes(SaveStore.SaveData data) {
+        List<String> notes = new ArrayList<>();
+        data.forEach(FILE, String.class, notes::add);
+        return notes;
+    }
+
+    @Test
+    void tornJournalTailIsCutOff() throws IOException {
+        SaveStore store = new SaveStore(directory, Compression.NONE);
+        store.commitGeneration(FORMAT, Map.of(FILE, Map.of(FIRST, encode("one"))), encode("player"), true);
+        store.appendJournal(Map.of(FILE, Map.of(FIRST, encode("two"))), null);
+        Path journal = directory.resolve("gen-00000001.journal");
+        long intact = Files.size(journal);
+        store.appendJournal(Map.of(FILE, Map.of(SECOND, encode("three"))), encode("moved"));
+
+        // A crash halfway through the second entry
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(journal) - 3);
+        }
+
+        SaveStore reopened = new SaveStore(directory, Compression.NONE);
+        SaveStore.SaveData data = reopened.load();
+        assertEquals(1, data.generation());
+        assertEquals(List.of("two"), notes(data));
+        assertEquals("player", FORMAT.decode(data.playerRecord(), String.class));
+        assertEquals(1, reopened.getJournalEntries());
+        assertEquals(intact, Files.size(journal));
+
+        // New entries follow the last intact one
+        reopened.appendJournal(Map.of(FILE, Map.of(SECOND, encode("four"))), null);
+        assertEquals(List.of("two", "four"), notes(new SaveStore(directory, Compression.NONE).load()));
+    }
+
+    @Test
+    void unreadableLiveGenerationFallsBackToThePreviousOne() throws IOException {
+        SaveStore store = new SaveStore(directory, Compression.NONE);
+        store.commitGeneration(FORMAT, Map.of(FILE, Map.of(FIRST, encode("one"))), encode("player"), true);
+        store.commitGeneration(FORMAT, Map.of(FILE, Map.of(FIRST, encode("two"))), encode("player"), true);
+        assertEquals("gen-00000002", Files.readString(directory.resolve("CURRENT")));
+
+        Files.write(directory.resolve("gen-00000002").resolve(FILE + FORMAT.getFileExtension()), new byte[] {'{', '"'});
+
+        SaveStore.SaveData data = new SaveStore(directory, Compression.NONE).load();
+        assertEquals(1, data.generation());
+        assertEquals(List.of("one"), notes(data));
+    }
+
+    @Test
+    void unreadableCurrentPointerFallsBackToTheNewestGeneration() throws IOException {
+        SaveStore store = new SaveStore(directory, Compression.NONE);
+        store.commitGeneration(FORMAT, Map.of(FILE, Map.of(FIRST, encode("one"))), encode("player"), true);
+        store.commitGeneration(FORMAT, Map.of(FILE, Map.of(FIRST, encode("two"))), encode("player"), true);
+
+        Files.writeString(directory.resolve("CURRENT"), "not a generation");
+
+        SaveStore.SaveData data = new SaveStore(directory, Compression.NONE).load();
+        assertEquals(2, data.generation());
+        assertEquals(List.of("two"), notes(data));
+    }
+
+    @Test
+    void legacyOnlyDirectoryIsReadAsIs() throws IOException {
+        Files.writeString(directory.resolve(SaveStore.PLAYER_FILE + ".json"), "\"player\"");
+        Files.writeString(directory.resolve(FILE + ".json"), "[\"one\", \"two\"]");
+
+        SaveStore store = new SaveStore(directory, Compression.NONE);
+        assertTrue(store.containsSave());
+        SaveStore.SaveData data = store.load();
+        assertNotNull(data);
+        assertEquals(0, data.generation());
+        assertSame(JsonSaveFormat.INSTANCE, data.format());
+        assertFalse(data.isIndexed());
+        assertEquals("player", FORMAT.decode(data.playerRecord(), String.class));
+        assertEquals(List.of("one", "two"), notes(data));
+    }
+
+    @Test
+    void emptyDirectoryHasNoSave() {
+        SaveStore store = new SaveStore(directory, Compression.NONE);
+        assertFalse(store.containsSave());
+        assertNull(store.load());
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.joshuacgunn.core.tickmanager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+    /** Ticks the top level of the wheel covers; anything further away overflows */
+    private static final long SPAN = 1L << 24;
+
+    /** A new tickable each time; the wheel tells tickables apart by identity, so no shared lambda */
+    private static Tickable tickable() {
+        return new Tickable() {
+            @Override
+            public void onTick(long currentTick) { }
+        };
+    }
+
+    /**
+     * Advances the wheel and records the tick each tickable came due at.
+     */
+    private static Map<Tickable, List<Long>> advance(TimerWheel wheel, long ticks) {
+        Map<Tickable, List<Long>> fired = new HashMap<>();
+        List<Tickable> due = new ArrayList<>();
+        for (long i = 0; i < ticks; i++) {
+            wheel.advance(due);
+            for (Tickable tickable : due) {
+                fired.computeIfAbsent(tickable, key -> new ArrayList<>()).add(wheel.now());
+            }
+            due.clear();
+        }
+        return fired;
+    }
+
+    @Test
+    void wakeUpsCascadeDownEveryLevel() {
+        TimerWheel wheel = new TimerWheel(0);
+        long[] deadlines = {1, 63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 262_145, SPAN - 1};
+        Map<Tickable, Long> expected = new HashMap<>();
+        for (long deadline : deadlines) {
+            Tickable tickable = tickable();
+            wheel.schedule(tickable, deadline);
+            expected.put(tickable, deadline);
+        }
+
+        Map<Tickable, List<Long>> fired = advance(wheel, SPAN);
+        expected.forEach((tickable, deadline) -> assertEquals(List.of(deadline), fired.get(tickable)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void wakeUpsBeyondTheTopLevelOverflow() {
+        TimerWheel wheel = new TimerWheel(0);
+        Tickable far = tickable();
+        Tickable farther = tickable();
+        wheel.schedule(far, SPAN + 5);
+        wheel.schedule(farther, 3 * SPAN + 7);
+
+        Map<Tickable, List<Long>> fired = advance(wheel, 3 * SPAN + 10);
+        assertEquals(List.of(SPAN + 5), fired.get(far));
+        assertEquals(List.of(3 * SPAN + 7), fired.get(farther));
+    }
+
+    @Test
+    void earlierWakeUpReplacesLaterOne() {
+        TimerWheel wheel = new TimerWheel(0);
+        Tickable tickable = tickable();
+        wheel.schedule(tickable, 5000);
+        wheel.schedule(tickable, 70);
+        wheel.schedule(tickable, 9000);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(70L), advance(wheel, 10_000).get(tickable));
+    }
+
+    @Test
+    void cancelledWakeUpNeverFires() {
+        TimerWheel wheel = new TimerWheel(0);
+        Tickable near = tickable();
+        Tickable far = tickable();
+        Tickable kept = tickable();
+        wheel.schedule(near, 10);
+        wheel.schedule(far, 100_000);
+        wheel.schedule(kept, 100_000);
+        wheel.cancel(near);
+        wheel.cancel(far);
+
+        assertEquals(1, wheel.size());
+        Map<Tickable, List<Long>> fired = advance(wheel, 200_000);
+        assertNull(fired.get(near));
+        assertNull(fired.get(far));
+        assertEquals(List.of(100_000L), fired.get(kept));
+    }
+
+    @Test
+    void pastDeadlineFiresOnTheNextTick() {
+        TimerWheel wheel = new TimerWheel(100);
+        Tickable tickable = tickable();
+        wheel.schedule(tickable, 50);
+        assertEquals(List.of(101L), advance(wheel, 1).get(tickable));
+    }
+
+    @Test
+    void rebaseKeepsTheTickEachWakeUpIsDueAt() {
+        TimerWheel wheel = new TimerWheel(0);
+        Tickable soon = tickable();
+        Tickable later = tickable();
+        Tickable far = tickable();
+        wheel.schedule(soon, 30);
+        wheel.schedule(later, 70_000);
+        wheel.schedule(far, 3 * SPAN);
+        advance(wheel, 10);
+
+        wheel.rebase(50_000);
+        assertEquals(50_000, wheel.now());
+        assertEquals(3, wheel.size());
+        Map<Tickable, List<Long>> fired = advance(wheel, 30_000);
+        assertEquals(List.of(50_001L), fired.get(soon));
+        assertEquals(List.of(70_000L), fired.get(later));
+
+        wheel.rebase(10);
+        fired = advance(wheel, 3 * SPAN);
+        assertNull(fired.get(soon));
+        assertEquals(List.of(3 * SPAN), fired.get(far));
+    }
+}